@@ -0,0 +1,40 @@
+package com.claire.firstspring.benchmark;
+
+import com.claire.firstspring.config.PersistenceConfig;
+import com.claire.firstspring.config.WebConfig;
+import com.claire.firstspring.web.RestaurantMapper;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+
+/**
+ * Repositories, services and mappers on an embedded MariaDB with only the schema migrations applied, without
+ * the web layer.
+ */
+@Configuration
+@EnableAutoConfiguration
+@ComponentScan({
+    "com.claire.firstspring.repository",
+    "com.claire.firstspring.service",
+    "com.claire.firstspring.mappers"
+})
+@Import({PersistenceConfig.class, WebConfig.class, RestaurantMapper.class})
+public class BenchmarkApplication {
+
+    public static ConfigurableApplicationContext start(String... properties) {
+        final String[] args = new String[properties.length + 2];
+        args[0] = "--spring.flyway.locations=classpath:db";
+        args[1] = "--logging.level.root=WARN";
+        for (int i = 0; i < properties.length; i++) {
+            args[i + 2] = "--" + properties[i];
+        }
+        return new SpringApplicationBuilder(BenchmarkApplication.class)
+            .web(WebApplicationType.NONE)
+            .logStartupInfo(false)
+            .run(args);
+    }
+}
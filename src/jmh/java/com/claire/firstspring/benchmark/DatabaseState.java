@@ -0,0 +1,90 @@
+package com.claire.firstspring.benchmark;
+
+import com.claire.firstspring.model.Item;
+import com.claire.firstspring.model.Menu;
+import com.claire.firstspring.model.Restaurant;
+import com.claire.firstspring.service.FeatureService;
+import com.claire.firstspring.service.ItemService;
+import com.claire.firstspring.service.MenuCache;
+import com.claire.firstspring.service.MenuService;
+import com.claire.firstspring.service.RestaurantService;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+
+import static java.util.stream.Collectors.toList;
+
+/**
+ * One embedded database per trial, seeded through the bulk create path with a dataset of the configured shape.
+ */
+@State(Scope.Benchmark)
+public class DatabaseState {
+    @Param("10")
+    public int restaurants;
+
+    @Param("3")
+    public int menusPerRestaurant;
+
+    @Param("4")
+    public int sectionsPerMenu;
+
+    @Param("25")
+    public int itemsPerSection;
+
+    @Param("20")
+    public int features;
+
+    ConfigurableApplicationContext context;
+    RestaurantService restaurantService;
+    MenuService menuService;
+    ItemService itemService;
+    MenuCache menuCache;
+
+    List<Integer> restaurantIds;
+    List<Integer> menuIds;
+    List<Item> items;
+
+    @Setup(Level.Trial)
+    public void seed() {
+        context = BenchmarkApplication.start();
+        restaurantService = context.getBean(RestaurantService.class);
+        menuService = context.getBean(MenuService.class);
+        itemService = context.getBean(ItemService.class);
+        menuCache = context.getBean(MenuCache.class);
+
+        final SyntheticDataset dataset = new SyntheticDataset(
+            restaurants,
+            menusPerRestaurant,
+            sectionsPerMenu,
+            itemsPerSection,
+            features
+        );
+        final FeatureService featureService = context.getBean(FeatureService.class);
+        dataset.features().forEach(featureService::create);
+        final List<Restaurant> created = restaurantService.createAll(dataset.newRestaurants());
+
+        restaurantIds = created.stream()
+            .map(Restaurant::id)
+            .collect(toList());
+        menuIds = created.stream()
+            .flatMap(restaurant -> restaurant.menus().stream())
+            .map(Menu::id)
+            .collect(toList());
+        items = created.stream()
+            .flatMap(restaurant -> restaurant.menus().stream())
+            .flatMap(menu -> menu.sections().stream())
+            .flatMap(section -> section.items().stream())
+            .collect(toList());
+    }
+
+    @TearDown(Level.Trial)
+    public void close() {
+        context.close();
+    }
+}
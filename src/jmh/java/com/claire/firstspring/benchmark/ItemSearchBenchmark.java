@@ -0,0 +1,59 @@
+package com.claire.firstspring.benchmark;
+
+import com.claire.firstspring.model.Item;
+import com.claire.firstspring.repository.ItemSearchIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Item search over the seeded dataset, the index lookup alone and the whole service call that also reads the
+ * found items. Synthetic item names are made of their position in the tree, so each query picks a restaurant
+ * and a section. {@code -p restaurants=334} seeds about 100k items.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ItemSearchBenchmark {
+    private static final int LIMIT = 20;
+
+    @State(Scope.Thread)
+    public static class Queries {
+        ItemSearchIndex itemSearchIndex;
+        private int next;
+
+        @Setup(Level.Trial)
+        public void index(DatabaseState state) {
+            itemSearchIndex = state.context.getBean(ItemSearchIndex.class);
+            itemSearchIndex.build();
+        }
+
+        String next(DatabaseState state) {
+            next = (next + 1) % (state.restaurants * state.sectionsPerMenu);
+            return "item " + next / state.sectionsPerMenu + " " + next % state.sectionsPerMenu;
+        }
+    }
+
+    @Benchmark
+    public List<Integer> searchIndex(DatabaseState state, Queries queries) {
+        return queries.itemSearchIndex.search(queries.next(state), LIMIT);
+    }
+
+    @Benchmark
+    public List<Item> searchItems(DatabaseState state, Queries queries) {
+        return state.itemService.search(queries.next(state), LIMIT);
+    }
+}
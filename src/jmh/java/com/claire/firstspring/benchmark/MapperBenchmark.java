@@ -0,0 +1,100 @@
+package com.claire.firstspring.benchmark;
+
+import com.claire.firstspring.config.WebConfig;
+import com.claire.firstspring.mappers.FeatureMapper;
+import com.claire.firstspring.mappers.ItemMapper;
+import com.claire.firstspring.mappers.MenuMapper;
+import com.claire.firstspring.mappers.SectionMapper;
+import com.claire.firstspring.model.Restaurant;
+import com.claire.firstspring.web.RestaurantMapper;
+import com.claire.firstspring.web.model.WebRestaurant;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Model to web model conversions and Jackson serialization of in-memory trees, without any database.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MapperBenchmark {
+    private static final TypeReference<List<WebRestaurant>> WEB_RESTAURANT_LIST = new TypeReference<>() {
+    };
+
+    @State(Scope.Benchmark)
+    public static class Trees {
+        @Param("10")
+        public int restaurants;
+
+        @Param("3")
+        public int menusPerRestaurant;
+
+        @Param("4")
+        public int sectionsPerMenu;
+
+        @Param("25")
+        public int itemsPerSection;
+
+        @Param("20")
+        public int features;
+
+        RestaurantMapper restaurantMapper;
+        ObjectMapper objectMapper;
+        List<Restaurant> restaurantList;
+        List<WebRestaurant> webRestaurants;
+        String json;
+
+        @Setup(Level.Trial)
+        public void build() throws JsonProcessingException {
+            restaurantMapper = new RestaurantMapper(new MenuMapper(new SectionMapper(new ItemMapper(new FeatureMapper()))));
+            objectMapper = new WebConfig().objectMapper();
+            restaurantList = new SyntheticDataset(
+                restaurants,
+                menusPerRestaurant,
+                sectionsPerMenu,
+                itemsPerSection,
+                features
+            ).storedRestaurants();
+            webRestaurants = restaurantMapper.toSeconds(restaurantList);
+            json = objectMapper.writeValueAsString(webRestaurants);
+        }
+    }
+
+    @Benchmark
+    public List<WebRestaurant> toWebRestaurants(Trees trees) {
+        return trees.restaurantMapper.toSeconds(trees.restaurantList);
+    }
+
+    @Benchmark
+    public List<Restaurant> fromWebRestaurants(Trees trees) {
+        return trees.restaurantMapper.toFirsts(trees.webRestaurants);
+    }
+
+    @Benchmark
+    public byte[] serializeWebRestaurants(Trees trees) throws JsonProcessingException {
+        return trees.objectMapper.writeValueAsBytes(trees.webRestaurants);
+    }
+
+    @Benchmark
+    public List<WebRestaurant> deserializeWebRestaurants(Trees trees) throws JsonProcessingException {
+        return trees.objectMapper.readValue(trees.json, WEB_RESTAURANT_LIST);
+    }
+}
@@ -0,0 +1,109 @@
+package com.claire.firstspring.benchmark;
+
+import com.claire.firstspring.model.Depth;
+import com.claire.firstspring.model.FeatureFilter;
+import com.claire.firstspring.model.Item;
+import com.claire.firstspring.model.ItemSort;
+import com.claire.firstspring.model.Menu;
+import com.claire.firstspring.model.Money;
+import com.claire.firstspring.model.Page;
+import com.claire.firstspring.model.PriceRange;
+import com.claire.firstspring.model.Restaurant;
+import com.claire.firstspring.model.SimpleItem;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Service reads and writes against the seeded database. Each call picks the next id round robin so the
+ * database and caches see the whole dataset rather than a single hot row.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ServiceBenchmark {
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        private int next;
+
+        <T> T next(List<T> values) {
+            next = (next + 1) % values.size();
+            return values.get(next);
+        }
+    }
+
+    @Benchmark
+    public List<Restaurant> listRestaurants(DatabaseState state) {
+        return state.restaurantService.list();
+    }
+
+    @Benchmark
+    public Page<Restaurant> listRestaurantsPage(DatabaseState state) {
+        return state.restaurantService.list(null, Page.DEFAULT_SIZE);
+    }
+
+    @Benchmark
+    public Page<Restaurant> listRestaurantNamesPage(DatabaseState state) {
+        return state.restaurantService.list(null, Page.DEFAULT_SIZE, Depth.RESTAURANTS);
+    }
+
+    @Benchmark
+    public Page<Item> filterItemsByFeatures(DatabaseState state) {
+        return state.itemService.list(
+            FeatureFilter.parse(List.of("feature 1", "feature 2|feature 3", "!feature 4")),
+            null,
+            Page.DEFAULT_SIZE
+        );
+    }
+
+    @Benchmark
+    public Page<Item> mostExpensiveItemsInPriceRange(DatabaseState state) {
+        return state.itemService.list(
+            new PriceRange(Money.of("10.00"), Money.of("50.00")),
+            ItemSort.PRICE_DESCENDING,
+            null,
+            10
+        );
+    }
+
+    @Benchmark
+    public Restaurant getRestaurant(DatabaseState state, Cursor cursor) {
+        return state.restaurantService.get(cursor.next(state.restaurantIds));
+    }
+
+    @Benchmark
+    public Menu menuCached(DatabaseState state, Cursor cursor) {
+        return state.menuService.menu(cursor.next(state.menuIds));
+    }
+
+    @Benchmark
+    public Menu menuUncached(DatabaseState state, Cursor cursor) {
+        final Integer menuId = cursor.next(state.menuIds);
+        state.menuCache.evictMenu(menuId);
+        return state.menuService.menu(menuId);
+    }
+
+    @Benchmark
+    public void updateItem(DatabaseState state, Cursor cursor) {
+        final Item item = cursor.next(state.items);
+        state.itemService.updateItem(new SimpleItem(
+            item.id(),
+            item.name(),
+            item.description(),
+            item.price().plus(Money.ofCents(1)),
+            item.features()
+        ));
+    }
+}
@@ -0,0 +1,124 @@
+package com.claire.firstspring.benchmark;
+
+import com.claire.firstspring.model.Feature;
+import com.claire.firstspring.model.Item;
+import com.claire.firstspring.model.Menu;
+import com.claire.firstspring.model.Money;
+import com.claire.firstspring.model.Restaurant;
+import com.claire.firstspring.model.Section;
+import com.claire.firstspring.model.SimpleItem;
+import com.claire.firstspring.model.SimpleMenu;
+import com.claire.firstspring.model.SimpleRestaurant;
+import com.claire.firstspring.model.SimpleSection;
+import org.apache.commons.lang3.Validate;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Deterministic restaurant trees of a given shape. Every item gets up to two features, picked round robin so
+ * all features are used evenly.
+ */
+public class SyntheticDataset {
+    private final int restaurants;
+    private final int menusPerRestaurant;
+    private final int sectionsPerMenu;
+    private final int itemsPerSection;
+    private final int features;
+
+    public SyntheticDataset(
+        int restaurants,
+        int menusPerRestaurant,
+        int sectionsPerMenu,
+        int itemsPerSection,
+        int features
+    ) {
+        Validate.isTrue(restaurants > 0, "restaurants must be positive but was %s", restaurants);
+        Validate.isTrue(features > 0, "features must be positive but was %s", features);
+        this.restaurants = restaurants;
+        this.menusPerRestaurant = menusPerRestaurant;
+        this.sectionsPerMenu = sectionsPerMenu;
+        this.itemsPerSection = itemsPerSection;
+        this.features = features;
+    }
+
+    public List<Feature> features() {
+        final List<Feature> all = new ArrayList<>();
+        for (int i = 0; i < features; i++) {
+            all.add(new Feature("feature " + i));
+        }
+        return all;
+    }
+
+    /**
+     * Trees without ids, ready to be created.
+     */
+    public List<Restaurant> newRestaurants() {
+        return restaurants(false);
+    }
+
+    /**
+     * Trees with ids assigned per level, as they would be read back.
+     */
+    public List<Restaurant> storedRestaurants() {
+        return restaurants(true);
+    }
+
+    private List<Restaurant> restaurants(boolean withIds) {
+        final List<Feature> allFeatures = features();
+        final Ids ids = new Ids(withIds);
+        final List<Restaurant> all = new ArrayList<>();
+
+        for (int r = 0; r < restaurants; r++) {
+            final Set<Menu> menus = new LinkedHashSet<>();
+            for (int m = 0; m < menusPerRestaurant; m++) {
+                final Set<Section> sections = new LinkedHashSet<>();
+                for (int s = 0; s < sectionsPerMenu; s++) {
+                    final List<Item> items = new ArrayList<>();
+                    for (int i = 0; i < itemsPerSection; i++) {
+                        final Integer itemId = ids.next(ids.items);
+                        final int seed = itemId == null ? items.size() + s * itemsPerSection : itemId;
+                        items.add(new SimpleItem(
+                            itemId,
+                            "item " + r + "." + m + "." + s + "." + i,
+                            "description of item " + i,
+                            Money.ofCents(100 + seed % 100 * 101),
+                            itemFeatures(allFeatures, seed)
+                        ));
+                    }
+                    sections.add(new SimpleSection(ids.next(ids.sections), "section " + s, items));
+                }
+                menus.add(new SimpleMenu(ids.next(ids.menus), "menu " + m, sections));
+            }
+            all.add(new SimpleRestaurant(ids.next(ids.restaurants), "restaurant " + r, menus));
+        }
+        return all;
+    }
+
+    private static Set<Feature> itemFeatures(List<Feature> allFeatures, int seed) {
+        final Set<Feature> itemFeatures = new HashSet<>();
+        itemFeatures.add(allFeatures.get(seed % allFeatures.size()));
+        itemFeatures.add(allFeatures.get((seed / 2) % allFeatures.size()));
+        return itemFeatures;
+    }
+
+    private static class Ids {
+        final AtomicInteger restaurants = new AtomicInteger();
+        final AtomicInteger menus = new AtomicInteger();
+        final AtomicInteger sections = new AtomicInteger();
+        final AtomicInteger items = new AtomicInteger();
+        private final boolean enabled;
+
+        Ids(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        Integer next(AtomicInteger counter) {
+            return enabled ? counter.getAndIncrement() : null;
+        }
+    }
+}
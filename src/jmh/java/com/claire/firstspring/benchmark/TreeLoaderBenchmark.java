@@ -0,0 +1,73 @@
+package com.claire.firstspring.benchmark;
+
+import com.claire.firstspring.model.Restaurant;
+import com.claire.firstspring.service.FeatureService;
+import com.claire.firstspring.service.RestaurantService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The full restaurant list loaded level by level on the calling thread, and split across the subtree executor.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TreeLoaderBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Restaurants {
+        @Param({"false", "true"})
+        public boolean parallel;
+
+        @Param("200")
+        public int restaurants;
+
+        @Param("4")
+        public int threads;
+
+        ConfigurableApplicationContext context;
+        RestaurantService restaurantService;
+
+        @Setup(Level.Trial)
+        public void seed() {
+            context = BenchmarkApplication.start(
+                "database.tree-loader.parallel=" + parallel,
+                "database.tree-loader.threads=" + threads,
+                "database.tree-loader.min-roots-per-task=" + Math.max(1, restaurants / (2 * threads))
+            );
+            restaurantService = context.getBean(RestaurantService.class);
+
+            final SyntheticDataset dataset = new SyntheticDataset(restaurants, 3, 4, 25, 20);
+            final FeatureService featureService = context.getBean(FeatureService.class);
+            dataset.features().forEach(featureService::create);
+            restaurantService.createAll(dataset.newRestaurants());
+        }
+
+        @TearDown(Level.Trial)
+        public void close() {
+            context.close();
+        }
+    }
+
+    @Benchmark
+    public List<Restaurant> listRestaurants(Restaurants state) {
+        return state.restaurantService.list();
+    }
+}
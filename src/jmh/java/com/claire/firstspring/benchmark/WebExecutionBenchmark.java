@@ -0,0 +1,129 @@
+package com.claire.firstspring.benchmark;
+
+import com.claire.firstspring.Application;
+import com.claire.firstspring.model.Restaurant;
+import com.claire.firstspring.service.FeatureService;
+import com.claire.firstspring.service.RestaurantService;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static java.util.stream.Collectors.toList;
+
+/**
+ * Whole requests against the running application, from a thousand concurrent clients, once with every request on
+ * a container thread and once with controllers on the bounded executor, each with and without the response byte
+ * cache ({@code 0} bytes disables it). Responses other than 200, like the 503s of a full queue, are counted
+ * separately so throughput is not flattered by fast rejections.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+@Threads(1000)
+public class WebExecutionBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Server {
+        @Param({"thread-per-request", "bounded"})
+        public String mode;
+
+        @Param("10")
+        public int restaurants;
+
+        @Param({"0", "67108864"})
+        public long responseCacheBytes;
+
+        ConfigurableApplicationContext context;
+        HttpClient client;
+        String baseUrl;
+        List<Integer> restaurantIds;
+
+        @Setup(Level.Trial)
+        public void start() {
+            context = new SpringApplicationBuilder(Application.class)
+                .logStartupInfo(false)
+                .run(
+                    "--server.port=0",
+                    "--web.execution.mode=" + mode,
+                    "--web.response-cache.max-bytes=" + responseCacheBytes,
+                    "--spring.flyway.locations=classpath:db",
+                    "--logging.level.root=WARN"
+                );
+            baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+
+            final SyntheticDataset dataset = new SyntheticDataset(restaurants, 3, 4, 25, 20);
+            final FeatureService featureService = context.getBean(FeatureService.class);
+            dataset.features().forEach(featureService::create);
+            restaurantIds = context.getBean(RestaurantService.class)
+                .createAll(dataset.newRestaurants())
+                .stream()
+                .map(Restaurant::id)
+                .collect(toList());
+            client = HttpClient.newHttpClient();
+        }
+
+        @TearDown(Level.Trial)
+        public void stop() {
+            context.close();
+        }
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Responses {
+        public long ok;
+        public long failed;
+        private int next;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            ok = 0;
+            failed = 0;
+        }
+
+        Integer next(List<Integer> ids) {
+            next = (next + 1) % ids.size();
+            return ids.get(next);
+        }
+    }
+
+    @Benchmark
+    public int getRestaurant(Server server, Responses responses) throws IOException, InterruptedException {
+        final HttpResponse<Void> response = server.client.send(
+            HttpRequest.newBuilder(URI.create(server.baseUrl + "/restaurants/" + responses.next(server.restaurantIds)))
+                .GET()
+                .build(),
+            HttpResponse.BodyHandlers.discarding()
+        );
+        if (response.statusCode() == 200) {
+            responses.ok++;
+        } else {
+            responses.failed++;
+        }
+        return response.statusCode();
+    }
+}
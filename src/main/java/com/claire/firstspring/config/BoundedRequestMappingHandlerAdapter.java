@@ -0,0 +1,38 @@
+package com.claire.firstspring.config;
+
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.method.support.ModelAndViewContainer;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
+import org.springframework.web.servlet.mvc.method.annotation.ServletInvocableHandlerMethod;
+
+import java.util.concurrent.Callable;
+
+/**
+ * Resolves the arguments of a controller method on the container thread and turns the call itself into a
+ * {@link Callable}, so Spring MVC runs it on the configured task executor and writes the result on an async
+ * dispatch. Controllers stay as they are.
+ */
+public class BoundedRequestMappingHandlerAdapter extends RequestMappingHandlerAdapter {
+
+    @Override
+    protected ServletInvocableHandlerMethod createInvocableHandlerMethod(HandlerMethod handlerMethod) {
+        return new OffloadedHandlerMethod(handlerMethod);
+    }
+
+    private static class OffloadedHandlerMethod extends ServletInvocableHandlerMethod {
+        OffloadedHandlerMethod(HandlerMethod handlerMethod) {
+            super(handlerMethod);
+        }
+
+        @Override
+        public Object invokeForRequest(
+            NativeWebRequest request,
+            ModelAndViewContainer mavContainer,
+            Object... providedArgs
+        ) throws Exception {
+            final Object[] args = getMethodArgumentValues(request, mavContainer, providedArgs);
+            return (Callable<Object>) () -> doInvoke(args);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.claire.firstspring.config;
+
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.MetricsTrackerFactory;
+import com.zaxxer.hikari.metrics.PoolStats;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Collects how long callers wait for a connection and how busy the pool is. Hikari reports every
+ * acquisition here, the pool sizes are read from its own (briefly cached) statistics.
+ */
+public class ConnectionPoolMetrics implements MetricsTrackerFactory {
+    private final LongAdder acquisitions = new LongAdder();
+    private final LongAdder acquisitionNanos = new LongAdder();
+    private final LongAccumulator maxAcquisitionNanos = new LongAccumulator(Math::max, 0);
+    private final LongAdder usages = new LongAdder();
+    private final LongAdder usageMillis = new LongAdder();
+    private final LongAdder timeouts = new LongAdder();
+    private volatile PoolStats poolStats;
+
+    @Override
+    public IMetricsTracker create(String poolName, PoolStats poolStats) {
+        this.poolStats = poolStats;
+        return new IMetricsTracker() {
+            @Override
+            public void recordConnectionAcquiredNanos(long elapsedAcquiredNanos) {
+                acquisitions.increment();
+                acquisitionNanos.add(elapsedAcquiredNanos);
+                maxAcquisitionNanos.accumulate(elapsedAcquiredNanos);
+            }
+
+            @Override
+            public void recordConnectionUsageMillis(long elapsedBorrowedMillis) {
+                usages.increment();
+                usageMillis.add(elapsedBorrowedMillis);
+            }
+
+            @Override
+            public void recordConnectionTimeout() {
+                timeouts.increment();
+            }
+        };
+    }
+
+    public int activeConnections() {
+        return poolStats == null ? 0 : poolStats.getActiveConnections();
+    }
+
+    public int idleConnections() {
+        return poolStats == null ? 0 : poolStats.getIdleConnections();
+    }
+
+    public int maxConnections() {
+        return poolStats == null ? 0 : poolStats.getMaxConnections();
+    }
+
+    public int pendingThreads() {
+        return poolStats == null ? 0 : poolStats.getPendingThreads();
+    }
+
+    public double utilisation() {
+        final int maxConnections = maxConnections();
+        return maxConnections == 0 ? 0 : (double) activeConnections() / maxConnections;
+    }
+
+    public long acquisitions() {
+        return acquisitions.sum();
+    }
+
+    public double averageAcquisitionMillis() {
+        final long count = acquisitions.sum();
+        return count == 0 ? 0 : (double) acquisitionNanos.sum() / count / TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    public double maxAcquisitionMillis() {
+        return (double) maxAcquisitionNanos.get() / TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    public double averageUsageMillis() {
+        final long count = usages.sum();
+        return count == 0 ? 0 : (double) usageMillis.sum() / count;
+    }
+
+    public long timeouts() {
+        return timeouts.sum();
+    }
+}
@@ -0,0 +1,77 @@
+package com.claire.firstspring.config;
+
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.DispatcherType;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.util.concurrent.Callable;
+
+/**
+ * Times every call to a {@link RestController} method and counts the SQL statements it issued. Calls are
+ * grouped by HTTP method and path pattern, e.g. {@code GET /menus/{menu-id}}. When the method runs as a
+ * {@link Callable} on another thread, the statements are counted on that thread and handed back through a request
+ * attribute, and the time covers both dispatches.
+ */
+public class EndpointTimingInterceptor implements HandlerInterceptor, CallableProcessingInterceptor {
+    private static final String START_ATTRIBUTE = EndpointTimingInterceptor.class.getName() + ".start";
+    private static final String STATEMENTS_ATTRIBUTE = EndpointTimingInterceptor.class.getName() + ".statements";
+
+    private final TimingMetrics timingMetrics;
+    private final SqlStatementCounter sqlStatementCounter;
+
+    public EndpointTimingInterceptor(TimingMetrics timingMetrics, SqlStatementCounter sqlStatementCounter) {
+        this.timingMetrics = timingMetrics;
+        this.sqlStatementCounter = sqlStatementCounter;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (request.getDispatcherType() == DispatcherType.ASYNC) {
+            return true;
+        }
+        if (handler instanceof HandlerMethod
+            && ((HandlerMethod) handler).getBeanType().isAnnotationPresent(RestController.class)) {
+            sqlStatementCounter.start();
+            request.setAttribute(START_ATTRIBUTE, System.nanoTime());
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        final Object start = request.getAttribute(START_ATTRIBUTE);
+        if (start == null) {
+            return;
+        }
+        sqlStatementCounter.stop();
+        final Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        final Object statements = request.getAttribute(STATEMENTS_ATTRIBUTE);
+        timingMetrics.recordEndpoint(
+            request.getMethod() + " " + (pattern == null ? request.getRequestURI() : pattern),
+            System.nanoTime() - (long) start,
+            statements == null ? sqlStatementCounter.current() : (long) statements
+        );
+    }
+
+    @Override
+    public <T> void preProcess(NativeWebRequest request, Callable<T> task) {
+        if (request.getAttribute(START_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) != null) {
+            sqlStatementCounter.start();
+        }
+    }
+
+    @Override
+    public <T> void postProcess(NativeWebRequest request, Callable<T> task, Object concurrentResult) {
+        if (request.getAttribute(START_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) != null) {
+            sqlStatementCounter.stop();
+            request.setAttribute(STATEMENTS_ATTRIBUTE, sqlStatementCounter.current(), RequestAttributes.SCOPE_REQUEST);
+        }
+    }
+}
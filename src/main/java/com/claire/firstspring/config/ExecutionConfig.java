@@ -0,0 +1,78 @@
+package com.claire.firstspring.config;
+
+import org.apache.commons.lang3.Validate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.web.servlet.WebMvcRegistrations;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
+
+/**
+ * How controller methods are executed. The default, thread-per-request, runs them on the container thread that
+ * accepted the request. In the bounded mode they run on a fixed pool, as large as the connection pool unless
+ * configured otherwise, behind a bounded queue. Container threads then only parse requests and write responses,
+ * and a request that finds the queue full is turned away with 503 right away instead of waiting for a
+ * connection.
+ */
+@Configuration
+@ConditionalOnProperty(name = "web.execution.mode", havingValue = "bounded")
+public class ExecutionConfig implements WebMvcConfigurer, DisposableBean {
+    private static final Logger log = LoggerFactory.getLogger(ExecutionConfig.class);
+
+    private final ThreadPoolTaskExecutor requestExecutor;
+    private final long timeoutMs;
+
+    public ExecutionConfig(
+        @Value("${web.execution.threads:${database.pool.max-size:10}}") int threads,
+        @Value("${web.execution.queue-capacity:1000}") int queueCapacity,
+        @Value("${web.execution.timeout-ms:30000}") long timeoutMs,
+        @Value("${database.pool.max-size:10}") int connections
+    ) {
+        Validate.isTrue(threads > 0, "request threads must be positive but was %s", threads);
+        Validate.isTrue(queueCapacity > 0, "request queue capacity must be positive but was %s", queueCapacity);
+        if (threads > connections) {
+            log.warn(
+                "{} request threads share {} database connections, the rest wait in the pool instead of the queue",
+                threads,
+                connections
+            );
+        }
+        // not a bean, an Executor bean would replace the task executor Spring Boot configures for everything else
+        this.requestExecutor = new ThreadPoolTaskExecutor();
+        this.requestExecutor.setCorePoolSize(threads);
+        this.requestExecutor.setMaxPoolSize(threads);
+        this.requestExecutor.setQueueCapacity(queueCapacity);
+        this.requestExecutor.setThreadNamePrefix("request-");
+        this.requestExecutor.setWaitForTasksToCompleteOnShutdown(true);
+        this.requestExecutor.initialize();
+        this.timeoutMs = timeoutMs;
+    }
+
+    @Bean
+    public WebMvcRegistrations boundedExecutionRegistrations() {
+        return new WebMvcRegistrations() {
+            @Override
+            public RequestMappingHandlerAdapter getRequestMappingHandlerAdapter() {
+                return new BoundedRequestMappingHandlerAdapter();
+            }
+        };
+    }
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setTaskExecutor(requestExecutor);
+        configurer.setDefaultTimeout(timeoutMs);
+    }
+
+    @Override
+    public void destroy() {
+        requestExecutor.shutdown();
+    }
+}
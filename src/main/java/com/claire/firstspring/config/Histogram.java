@@ -0,0 +1,101 @@
+package com.claire.firstspring.config;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock free histogram over fixed bucket bounds. Percentiles are reported as the upper bound of the bucket they
+ * fall in, which is precise enough to spot a regression and costs two additions per recorded value.
+ */
+public class Histogram {
+    /**
+     * Microsecond bounds from 100µs to 10s, roughly 1-2.5-5 per decade.
+     */
+    public static final long[] LATENCY_MICROS_BOUNDS = {
+        100, 250, 500,
+        1_000, 2_500, 5_000,
+        10_000, 25_000, 50_000,
+        100_000, 250_000, 500_000,
+        1_000_000, 2_500_000, 5_000_000, 10_000_000
+    };
+
+    public static final long[] COUNT_BOUNDS = {0, 1, 2, 3, 5, 10, 20, 50, 100, 200, 500, 1000};
+
+    private final long[] bounds;
+    private final LongAdder[] buckets;
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    public Histogram(long[] bounds) {
+        this.bounds = bounds.clone();
+        this.buckets = new LongAdder[bounds.length + 1];
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    public void record(long value) {
+        int bucket = 0;
+        while (bucket < bounds.length && value > bounds[bucket]) {
+            bucket++;
+        }
+        buckets[bucket].increment();
+        count.increment();
+        sum.add(value);
+        max.accumulate(value);
+    }
+
+    public long count() {
+        return count.sum();
+    }
+
+    public double average() {
+        final long total = count.sum();
+        return total == 0 ? 0 : (double) sum.sum() / total;
+    }
+
+    public long max() {
+        return max.get();
+    }
+
+    public long sum() {
+        return sum.sum();
+    }
+
+    public long[] bounds() {
+        return bounds.clone();
+    }
+
+    /**
+     * Number of values at or below each bound, followed by the total count.
+     */
+    public long[] cumulativeCounts() {
+        final long[] counts = new long[buckets.length];
+        long seen = 0;
+        for (int i = 0; i < buckets.length; i++) {
+            seen += buckets[i].sum();
+            counts[i] = seen;
+        }
+        return counts;
+    }
+
+    /**
+     * Upper bound of the bucket holding the given percentile, or the maximum when it falls past the last bound.
+     */
+    public long percentile(double percentile) {
+        final long total = count.sum();
+        if (total == 0) {
+            return 0;
+        }
+        final long rank = (long) Math.ceil(total * percentile / 100);
+        long seen = 0;
+        for (int i = 0; i < bounds.length; i++) {
+            seen += buckets[i].sum();
+            if (seen >= rank) {
+                return Math.min(bounds[i], max());
+            }
+        }
+        return max();
+    }
+}
@@ -0,0 +1,83 @@
+package com.claire.firstspring.config;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.aop.framework.Advised;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Times the calls to service and repository beans through the methods of their service and repository
+ * interfaces, e.g. {@code MenuService.menu}. Methods that are not part of such an interface are not timed.
+ */
+@Component
+public class MethodTimingPostProcessor implements BeanPostProcessor {
+    private static final List<String> TIMED_PACKAGES = List.of(
+        "com.claire.firstspring.service",
+        "com.claire.firstspring.repository"
+    );
+
+    private final TimingMetrics timingMetrics;
+
+    public MethodTimingPostProcessor(TimingMetrics timingMetrics) {
+        this.timingMetrics = timingMetrics;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        final Class<?> targetClass = AopUtils.getTargetClass(bean);
+        final Map<String, String> timerNames = timerNames(targetClass);
+        if (timerNames.isEmpty()) {
+            return bean;
+        }
+
+        final MethodInterceptor interceptor = invocation -> {
+            final String timerName = timerNames.get(signature(invocation.getMethod()));
+            if (timerName == null) {
+                return invocation.proceed();
+            }
+            final long start = System.nanoTime();
+            try {
+                return invocation.proceed();
+            } finally {
+                timingMetrics.recordMethod(timerName, System.nanoTime() - start);
+            }
+        };
+
+        if (bean instanceof Advised && !((Advised) bean).isFrozen()) {
+            ((Advised) bean).addAdvice(0, interceptor);
+            return bean;
+        }
+        final ProxyFactory proxyFactory = new ProxyFactory(bean);
+        proxyFactory.setProxyTargetClass(true);
+        proxyFactory.addAdvice(interceptor);
+        return proxyFactory.getProxy(targetClass.getClassLoader());
+    }
+
+    private static Map<String, String> timerNames(Class<?> targetClass) {
+        final Map<String, String> timerNames = new HashMap<>();
+        if (!TIMED_PACKAGES.contains(targetClass.getPackageName())) {
+            return timerNames;
+        }
+        for (Class<?> type : ClassUtils.getAllInterfacesForClassAsSet(targetClass)) {
+            if (TIMED_PACKAGES.contains(type.getPackageName())) {
+                for (Method method : type.getMethods()) {
+                    timerNames.putIfAbsent(signature(method), type.getSimpleName() + "." + method.getName());
+                }
+            }
+        }
+        return timerNames;
+    }
+
+    private static String signature(Method method) {
+        return method.getName() + Arrays.toString(method.getParameterTypes());
+    }
+}
@@ -0,0 +1,25 @@
+package com.claire.firstspring.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+public class MetricsConfig implements WebMvcConfigurer {
+    private final EndpointTimingInterceptor endpointTimingInterceptor;
+
+    public MetricsConfig(TimingMetrics timingMetrics, SqlStatementCounter sqlStatementCounter) {
+        this.endpointTimingInterceptor = new EndpointTimingInterceptor(timingMetrics, sqlStatementCounter);
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(endpointTimingInterceptor);
+    }
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.registerCallableInterceptors(endpointTimingInterceptor);
+    }
+}
@@ -1,10 +1,12 @@
 package com.claire.firstspring.config;
 
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
 import org.springframework.jdbc.core.JdbcTemplate;
-import org.springframework.jdbc.datasource.DriverManagerDataSource;
 
 import javax.sql.DataSource;
 
@@ -22,24 +24,91 @@ public class PersistenceConfig {
     @Value("${database.password}")
     private String databasePassword;
 
+    @Value("${database.pool.min-idle:2}")
+    private int minIdle;
+
+    @Value("${database.pool.max-size:10}")
+    private int maxSize;
+
+    @Value("${database.pool.connection-timeout-ms:30000}")
+    private long connectionTimeoutMs;
+
+    @Value("${database.pool.idle-timeout-ms:600000}")
+    private long idleTimeoutMs;
+
+    @Value("${database.pool.max-lifetime-ms:1800000}")
+    private long maxLifetimeMs;
+
+    @Value("${database.pool.leak-detection-threshold-ms:0}")
+    private long leakDetectionThresholdMs;
+
+    @Value("${database.pool.prepared-statement-cache-size:250}")
+    private int preparedStatementCacheSize;
+
+    @Value("${database.id.pool.max-size:2}")
+    private int idPoolMaxSize;
+
+    @Bean
+    public ConnectionPoolMetrics connectionPoolMetrics() {
+        return new ConnectionPoolMetrics();
+    }
+
+    @Bean(destroyMethod = "close")
+    @Primary
+    public DataSource dataSource(ConnectionPoolMetrics connectionPoolMetrics) {
+        HikariConfig config = new HikariConfig();
+        config.setPoolName("menu-pool");
+        config.setDriverClassName(driverClassName);
+        config.setJdbcUrl(databaseUrl);
+        config.setUsername(databaseUsername);
+        config.setPassword(databasePassword);
+        config.setMinimumIdle(minIdle);
+        config.setMaximumPoolSize(maxSize);
+        config.setConnectionTimeout(connectionTimeoutMs);
+        config.setIdleTimeout(idleTimeoutMs);
+        config.setMaxLifetime(maxLifetimeMs);
+        config.setLeakDetectionThreshold(leakDetectionThresholdMs);
+        // MariaDB Connector/J statement cache, the driver otherwise parses every statement again
+        config.addDataSourceProperty("cachePrepStmts", "true");
+        config.addDataSourceProperty("prepStmtCacheSize", String.valueOf(preparedStatementCacheSize));
+        config.addDataSourceProperty("useServerPrepStmts", "true");
+        config.setRegisterMbeans(true);
+        config.setMetricsTrackerFactory(connectionPoolMetrics);
+
+        return new HikariDataSource(config);
+    }
+
+    /**
+     * Id blocks are reserved while the caller holds a connection of the main pool, so they get a pool of their own.
+     */
+    @Bean(destroyMethod = "close")
+    public DataSource idSequenceDataSource() {
+        HikariConfig config = new HikariConfig();
+        config.setPoolName("id-sequence-pool");
+        config.setDriverClassName(driverClassName);
+        config.setJdbcUrl(databaseUrl);
+        config.setUsername(databaseUsername);
+        config.setPassword(databasePassword);
+        config.setMinimumIdle(1);
+        config.setMaximumPoolSize(idPoolMaxSize);
+        config.setConnectionTimeout(connectionTimeoutMs);
+        config.setIdleTimeout(idleTimeoutMs);
+        config.setMaxLifetime(maxLifetimeMs);
+
+        return new HikariDataSource(config);
+    }
+
     @Bean
-    public DataSource dataSource() {
-        System.out.println("databaseUrl: " + databaseUrl);
-        System.out.println("driverClassName: " + driverClassName);
-        System.out.println("UserName: " + databaseUsername);
-        System.out.println("password: " + databasePassword);
-        DriverManagerDataSource dataSource = new DriverManagerDataSource();
-        dataSource.setDriverClassName(driverClassName);
-        dataSource.setUrl(databaseUrl);
-        dataSource.setUsername(databaseUsername);
-        dataSource.setPassword(databasePassword);
-
-        return dataSource;
+    public SqlStatementCounter sqlStatementCounter(
+        @Value("${database.query-budget.max-statements:100}") int maxStatements,
+        @Value("${database.query-budget.max-repeats:20}") int maxRepeats,
+        @Value("${database.query-budget.reject:false}") boolean reject
+    ) {
+        return new SqlStatementCounter(new QueryBudget(maxStatements, maxRepeats, reject));
     }
 
     @Bean
-    public JdbcTemplate jdbcTemplate(DataSource dataSource) {
-        return new JdbcTemplate(dataSource);
+    public JdbcTemplate jdbcTemplate(DataSource dataSource, SqlStatementCounter sqlStatementCounter) {
+        return new StatementCountingJdbcTemplate(dataSource, sqlStatementCounter);
     }
 }
-
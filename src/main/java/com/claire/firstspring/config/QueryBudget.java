@@ -0,0 +1,36 @@
+package com.claire.firstspring.config;
+
+import org.apache.commons.lang3.Validate;
+
+/**
+ * How many SQL statements one request may issue in total and how often it may repeat the same statement.
+ */
+public class QueryBudget {
+    private final int maxStatements;
+    private final int maxRepeats;
+    private final boolean reject;
+
+    public QueryBudget(int maxStatements, int maxRepeats, boolean reject) {
+        Validate.isTrue(maxStatements > 0, "max statements must be positive but was %s", maxStatements);
+        Validate.isTrue(maxRepeats > 0, "max repeats must be positive but was %s", maxRepeats);
+        this.maxStatements = maxStatements;
+        this.maxRepeats = maxRepeats;
+        this.reject = reject;
+    }
+
+    boolean exceededBy(long statements, int repeats) {
+        return statements > maxStatements || repeats > maxRepeats;
+    }
+
+    public int maxStatements() {
+        return maxStatements;
+    }
+
+    public int maxRepeats() {
+        return maxRepeats;
+    }
+
+    public boolean reject() {
+        return reject;
+    }
+}
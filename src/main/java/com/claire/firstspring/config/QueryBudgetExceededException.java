@@ -0,0 +1,7 @@
+package com.claire.firstspring.config;
+
+public class QueryBudgetExceededException extends RuntimeException {
+    public QueryBudgetExceededException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,127 @@
+package com.claire.firstspring.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+import static java.util.Map.Entry.comparingByValue;
+import static java.util.stream.Collectors.toMap;
+
+/**
+ * Counts the SQL statements sent through {@link StatementCountingJdbcTemplate}, in total and per request. Within
+ * a request started with {@link #start()} it also counts how often each statement shape repeats, so one query
+ * per row (the N+1 pattern) shows up as a single shape repeated many times. A request going over the
+ * {@link QueryBudget} is logged with its most repeated statements, or rejected when the budget says so.
+ */
+public class SqlStatementCounter {
+    private static final Logger log = LoggerFactory.getLogger(SqlStatementCounter.class);
+    private static final Pattern PARAMETER_LIST = Pattern.compile("\\(\\s*\\?(\\s*,\\s*\\?)*\\s*\\)");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final int REPORTED_SHAPES = 5;
+
+    private final QueryBudget queryBudget;
+    private final LongAdder total = new LongAdder();
+    private final ThreadLocal<RequestStatements> current = ThreadLocal.withInitial(RequestStatements::new);
+
+    public SqlStatementCounter(QueryBudget queryBudget) {
+        this.queryBudget = queryBudget;
+    }
+
+    /**
+     * Starts counting the statements of a new request on the current thread.
+     */
+    public void start() {
+        final RequestStatements statements = current.get();
+        statements.count = 0;
+        statements.budgeted = 0;
+        statements.shapes.clear();
+        statements.reported = false;
+        statements.active = true;
+    }
+
+    /**
+     * Gives the current request a fresh budget while keeping its total count, for requests that repeat a
+     * bounded unit of work, like an import that writes in chunks.
+     */
+    public void restartBudget() {
+        final RequestStatements statements = current.get();
+        statements.budgeted = 0;
+        statements.shapes.clear();
+        statements.reported = false;
+    }
+
+    /**
+     * Stops counting for the current request, keeping its counts readable until the next {@link #start()}.
+     */
+    public void stop() {
+        current.get().active = false;
+    }
+
+    public long current() {
+        return current.get().count;
+    }
+
+    /**
+     * The most repeated statement shapes of the current request with their counts, most repeated first.
+     */
+    public Map<String, Integer> mostRepeated() {
+        return current.get().shapes
+            .entrySet()
+            .stream()
+            .filter(entry -> entry.getValue() > 1)
+            .sorted(comparingByValue((first, second) -> Integer.compare(second, first)))
+            .limit(REPORTED_SHAPES)
+            .collect(toMap(Map.Entry::getKey, Map.Entry::getValue, (first, second) -> first, LinkedHashMap::new));
+    }
+
+    public long total() {
+        return total.sum();
+    }
+
+    void increment(String sql) {
+        total.increment();
+        final RequestStatements statements = current.get();
+        if (!statements.active) {
+            return;
+        }
+        statements.count++;
+        statements.budgeted++;
+        final int repeats = statements.shapes.merge(shape(sql), 1, Integer::sum);
+        if (statements.reported || !queryBudget.exceededBy(statements.budgeted, repeats)) {
+            return;
+        }
+
+        statements.reported = true;
+        final String message = String.format(
+            "request exceeded its query budget of %s statements and %s repeats per statement with %s statements, most repeated: %s",
+            queryBudget.maxStatements(),
+            queryBudget.maxRepeats(),
+            statements.budgeted,
+            mostRepeated()
+        );
+        if (queryBudget.reject()) {
+            throw new QueryBudgetExceededException(message);
+        }
+        log.warn(message);
+    }
+
+    static String shape(String sql) {
+        if (sql == null) {
+            return "<unknown>";
+        }
+        return PARAMETER_LIST.matcher(WHITESPACE.matcher(sql.trim()).replaceAll(" ")).replaceAll("(?)");
+    }
+
+    private static class RequestStatements {
+        final Map<String, Integer> shapes = new HashMap<>();
+        long count;
+        long budgeted;
+        boolean active;
+        boolean reported;
+    }
+}
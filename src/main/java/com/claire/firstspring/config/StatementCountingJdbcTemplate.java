@@ -0,0 +1,50 @@
+package com.claire.firstspring.config;
+
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.CallableStatementCallback;
+import org.springframework.jdbc.core.CallableStatementCreator;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCallback;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.SqlProvider;
+import org.springframework.jdbc.core.StatementCallback;
+
+import javax.sql.DataSource;
+
+/**
+ * A {@link JdbcTemplate} that counts every statement it executes. All query, update and batch methods end up
+ * in one of these {@code execute} methods, so a JDBC batch counts as a single statement. The SQL text is taken
+ * from the statement creator or callback when it exposes it.
+ */
+public class StatementCountingJdbcTemplate extends JdbcTemplate {
+    private final SqlStatementCounter sqlStatementCounter;
+
+    public StatementCountingJdbcTemplate(DataSource dataSource, SqlStatementCounter sqlStatementCounter) {
+        super(dataSource);
+        this.sqlStatementCounter = sqlStatementCounter;
+    }
+
+    @Override
+    public <T> T execute(StatementCallback<T> action) throws DataAccessException {
+        sqlStatementCounter.increment(sql(action));
+        return super.execute(action);
+    }
+
+    @Override
+    public <T> T execute(PreparedStatementCreator psc, PreparedStatementCallback<T> action) throws DataAccessException {
+        sqlStatementCounter.increment(sql(psc));
+        return super.execute(psc, action);
+    }
+
+    @Override
+    public <T> T execute(CallableStatementCreator csc, CallableStatementCallback<T> action) throws DataAccessException {
+        sqlStatementCounter.increment(sql(csc));
+        return super.execute(csc, action);
+    }
+
+    private static String sql(Object statementSource) {
+        return statementSource instanceof SqlProvider
+            ? ((SqlProvider) statementSource).getSql()
+            : null;
+    }
+}
@@ -0,0 +1,45 @@
+package com.claire.firstspring.config;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Latency histograms per endpoint and per service or repository method, plus the number of SQL statements
+ * each endpoint call issued.
+ */
+@Component
+public class TimingMetrics {
+    private final Map<String, Histogram> endpointLatencies = new ConcurrentHashMap<>();
+    private final Map<String, Histogram> endpointStatements = new ConcurrentHashMap<>();
+    private final Map<String, Histogram> methodLatencies = new ConcurrentHashMap<>();
+
+    public void recordEndpoint(String endpoint, long nanos, long statements) {
+        latency(endpointLatencies, endpoint).record(nanos / 1000);
+        endpointStatements.computeIfAbsent(endpoint, name -> new Histogram(Histogram.COUNT_BOUNDS))
+            .record(statements);
+    }
+
+    public void recordMethod(String method, long nanos) {
+        latency(methodLatencies, method).record(nanos / 1000);
+    }
+
+    public SortedMap<String, Histogram> endpointLatencies() {
+        return new TreeMap<>(endpointLatencies);
+    }
+
+    public SortedMap<String, Histogram> endpointStatements() {
+        return new TreeMap<>(endpointStatements);
+    }
+
+    public SortedMap<String, Histogram> methodLatencies() {
+        return new TreeMap<>(methodLatencies);
+    }
+
+    private static Histogram latency(Map<String, Histogram> histograms, String name) {
+        return histograms.computeIfAbsent(name, key -> new Histogram(Histogram.LATENCY_MICROS_BOUNDS));
+    }
+}
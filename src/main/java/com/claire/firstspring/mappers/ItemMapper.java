@@ -1,6 +1,7 @@
 package com.claire.firstspring.mappers;
 
 import com.claire.firstspring.model.Item;
+import com.claire.firstspring.model.Money;
 import com.claire.firstspring.model.SimpleItem;
 import com.claire.firstspring.web.model.WebItem;
 import org.springframework.stereotype.Component;
@@ -20,7 +21,7 @@ public class ItemMapper implements Mapper<Item, WebItem> {
             webItem.id,
             webItem.name,
             webItem.description,
-            webItem.price,
+            Money.of(webItem.price),
             featureMapper.toFirsts(webItem.features)
         );
 
@@ -32,7 +33,7 @@ public class ItemMapper implements Mapper<Item, WebItem> {
         webItem.id = item.id();
         webItem.name = item.name();
         webItem.description = item.description();
-        webItem.price = item.price();
+        webItem.price = item.price().toBigDecimal();
         webItem.features = featureMapper.toSeconds(item.features());
         return webItem;
     }
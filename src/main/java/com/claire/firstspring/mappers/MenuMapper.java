@@ -1,10 +1,15 @@
 package com.claire.firstspring.mappers;
 
+import com.claire.firstspring.model.Depth;
 import com.claire.firstspring.model.Menu;
 import com.claire.firstspring.model.SimpleMenu;
 import com.claire.firstspring.web.model.WebMenu;
 import org.springframework.stereotype.Component;
 
+import java.util.List;
+
+import static java.util.stream.Collectors.toList;
+
 @Component
 public class MenuMapper implements Mapper<Menu, WebMenu> {
     private final SectionMapper sectionMapper;
@@ -24,10 +29,20 @@ public class MenuMapper implements Mapper<Menu, WebMenu> {
 
     @Override
     public WebMenu toSecond(Menu menu) {
+        return toSecond(menu, Depth.ITEMS);
+    }
+
+    public WebMenu toSecond(Menu menu, Depth depth) {
         WebMenu webMenu = new WebMenu();
         webMenu.id = menu.id();
         webMenu.name = menu.name();
-        webMenu.sections = sectionMapper.toSeconds(menu.sections());
+        webMenu.sections = depth.includes(Depth.SECTIONS) ? sectionMapper.toSeconds(menu.sections(), depth) : null;
         return webMenu;
     }
+
+    public List<WebMenu> toSeconds(List<Menu> menus, Depth depth) {
+        return menus.stream()
+            .map(menu -> toSecond(menu, depth))
+            .collect(toList());
+    }
 }
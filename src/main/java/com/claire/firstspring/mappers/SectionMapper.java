@@ -1,10 +1,17 @@
 package com.claire.firstspring.mappers;
 
+import com.claire.firstspring.model.Depth;
 import com.claire.firstspring.model.Section;
 import com.claire.firstspring.model.SimpleSection;
 import com.claire.firstspring.web.model.WebSection;
 import org.springframework.stereotype.Component;
 
+import java.util.List;
+import java.util.Set;
+
+import static java.util.stream.Collectors.toList;
+import static java.util.stream.Collectors.toSet;
+
 @Component
 public class SectionMapper implements Mapper<Section, WebSection> {
     private final ItemMapper itemMapper;
@@ -25,10 +32,29 @@ public class SectionMapper implements Mapper<Section, WebSection> {
 
     @Override
     public WebSection toSecond(Section section) {
+        return toSecond(section, Depth.ITEMS);
+    }
+
+    /**
+     * Leaves out the items of sections read without them, rather than showing them as empty.
+     */
+    public WebSection toSecond(Section section, Depth depth) {
         WebSection webSection = new WebSection();
         webSection.id = section.id();
         webSection.name = section.name();
-        webSection.items = itemMapper.toSeconds(section.items());
+        webSection.items = depth.includes(Depth.ITEMS) ? itemMapper.toSeconds(section.items()) : null;
         return webSection;
     }
+
+    public List<WebSection> toSeconds(List<Section> sections, Depth depth) {
+        return sections.stream()
+            .map(section -> toSecond(section, depth))
+            .collect(toList());
+    }
+
+    public Set<WebSection> toSeconds(Set<Section> sections, Depth depth) {
+        return sections.stream()
+            .map(section -> toSecond(section, depth))
+            .collect(toSet());
+    }
 }
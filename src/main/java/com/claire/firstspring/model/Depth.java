@@ -0,0 +1,46 @@
+package com.claire.firstspring.model;
+
+import org.apache.commons.lang3.Validate;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * How deep a read goes into the restaurant tree, naming the deepest level loaded. Written as
+ * {@code restaurant}, {@code menus}, {@code sections} or {@code items}; the singular names the root of a
+ * read, e.g. {@code /menus?depth=menu} for menus without their sections. Items always come with their
+ * features.
+ */
+public enum Depth {
+    RESTAURANTS("restaurant", "restaurants"),
+    MENUS("menu", "menus"),
+    SECTIONS("section", "sections"),
+    ITEMS("item", "items");
+
+    private final List<String> parameters;
+
+    Depth(String... parameters) {
+        this.parameters = List.of(parameters);
+    }
+
+    /**
+     * Parses a depth for reads starting at {@code root}, which cannot stop above that root.
+     */
+    public static Depth parse(String parameter, Depth root) {
+        final Depth depth = Arrays.stream(values())
+            .filter(value -> value.parameters.contains(parameter))
+            .findFirst()
+            .orElseThrow(() -> new IllegalArgumentException(
+                String.format("client-error: unknown depth [%s], use one of restaurant, menus, sections, items", parameter)
+            ));
+        Validate.isTrue(
+            depth.includes(root),
+            "client-error: depth [%s] is above the %s being read", parameter, root.parameters.get(1)
+        );
+        return depth;
+    }
+
+    public boolean includes(Depth level) {
+        return compareTo(level) >= 0;
+    }
+}
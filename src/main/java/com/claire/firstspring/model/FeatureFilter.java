@@ -0,0 +1,85 @@
+package com.claire.firstspring.model;
+
+import org.apache.commons.lang3.Validate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+import static java.util.stream.Collectors.toCollection;
+
+/**
+ * Items having at least one feature of every required group and none of the excluded features. Written as
+ * terms like {@code Keto}, {@code Vegetarian|Low Fat} and {@code !Spicy}: the terms are joined with AND, the
+ * names within a term with OR, and a leading {@code !} excludes a feature.
+ */
+public class FeatureFilter {
+    private static final String ANY_OF = "|";
+    private static final String NOT = "!";
+
+    private final List<Set<Feature>> required;
+    private final Set<Feature> excluded;
+
+    public FeatureFilter(List<Set<Feature>> required, Set<Feature> excluded) {
+        this.required = List.copyOf(required);
+        this.excluded = Set.copyOf(excluded);
+    }
+
+    public static FeatureFilter parse(List<String> terms) {
+        Validate.notEmpty(terms, "client-error: feature filter cannot be empty");
+        final List<Set<Feature>> required = new ArrayList<>();
+        final Set<Feature> excluded = new LinkedHashSet<>();
+        for (String term : terms) {
+            Validate.notBlank(term, "client-error: feature filter terms cannot be blank");
+            final String trimmed = term.trim();
+            if (trimmed.startsWith(NOT)) {
+                Validate.isTrue(!trimmed.contains(ANY_OF), "client-error: excluded features cannot be combined with %s", ANY_OF);
+                excluded.add(feature(trimmed.substring(NOT.length())));
+            } else {
+                required.add(
+                    Arrays.stream(trimmed.split("\\" + ANY_OF, -1))
+                        .map(FeatureFilter::feature)
+                        .collect(toCollection(LinkedHashSet::new))
+                );
+            }
+        }
+        return new FeatureFilter(required, excluded);
+    }
+
+    private static Feature feature(String name) {
+        Validate.notBlank(name, "client-error: feature names in a filter cannot be blank");
+        return new Feature(name.trim());
+    }
+
+    public List<Set<Feature>> required() {
+        return required;
+    }
+
+    public Set<Feature> excluded() {
+        return excluded;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        FeatureFilter that = (FeatureFilter) o;
+        return Objects.equals(required, that.required) && Objects.equals(excluded, that.excluded);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(required, excluded);
+    }
+
+    @Override
+    public String toString() {
+        return "FeatureFilter{" +
+            "required=" + required +
+            ", excluded=" + excluded +
+            '}';
+    }
+}
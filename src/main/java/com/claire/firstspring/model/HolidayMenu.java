@@ -41,13 +41,13 @@ public class HolidayMenu implements Menu {
         final SimpleItem silverStarCobb = new SimpleItem(
             id, "Silver Star Cobb",
             "avocado bacon blue cheese",
-            14.0,
+            Money.of("14.0"),
             hashSet(glutenFree, keto)
         );
         final SimpleItem strawberryPecan = new SimpleItem(
             id, "Strawberry Pecan",
             "spring mixed greens with freshly sliced strawberries and candied pecans",
-            13.0,
+            Money.of("13.0"),
             hashSet(vegetarian)
         );
         return asList(silverStarCobb, strawberryPecan);
@@ -57,13 +57,13 @@ public class HolidayMenu implements Menu {
         final SimpleItem cheeseBurger = new SimpleItem(
             id, "Cheese Burger",
             "Certified Angus beef topped with American cheese",
-            11.0,
+            Money.of("11.0"),
             emptySet()
         );
         final SimpleItem smokedTurkey = new SimpleItem(
             id, "Smoked Turkey",
             "turkey breast with bistro sauce",
-            10.0,
+            Money.of("10.0"),
             hashSet(spicy)
         );
         return asList(cheeseBurger, smokedTurkey);
@@ -73,13 +73,13 @@ public class HolidayMenu implements Menu {
         final SimpleItem warmMozzarella = new SimpleItem(
             id, "Warm Mozzarella",
             "creamy cheese baked and topped with reduction",
-            15.0,
+            Money.of("15.0"),
             hashSet(glutenFree, spicy)
         );
         final SimpleItem jumboCrabClaws = new SimpleItem(
             id, "Jumbo Crab Claws",
             "claws marinated with signature sauce",
-            19.0,
+            Money.of("19.0"),
             emptySet()
         );
         return asList(warmMozzarella, jumboCrabClaws);
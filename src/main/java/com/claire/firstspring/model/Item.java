@@ -10,7 +10,7 @@ public interface Item {
 
     String description();
 
-    double price();
+    Money price();
 
     Set<Feature> features();
 }
@@ -0,0 +1,32 @@
+package com.claire.firstspring.model;
+
+import java.util.Arrays;
+
+/**
+ * Orders of item listings, written as {@code id}, {@code price} or {@code -price} for the most expensive first.
+ * Equal prices are ordered by id in the same direction, so an item id is enough to continue a listing.
+ */
+public enum ItemSort {
+    ID("id"),
+    PRICE("price"),
+    PRICE_DESCENDING("-price");
+
+    private final String parameter;
+
+    ItemSort(String parameter) {
+        this.parameter = parameter;
+    }
+
+    public static ItemSort parse(String parameter) {
+        return Arrays.stream(values())
+            .filter(sort -> sort.parameter.equals(parameter))
+            .findFirst()
+            .orElseThrow(() -> new IllegalArgumentException(
+                String.format("client-error: cannot sort items by [%s], use one of id, price, -price", parameter)
+            ));
+    }
+
+    public String parameter() {
+        return parameter;
+    }
+}
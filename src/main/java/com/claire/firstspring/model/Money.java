@@ -0,0 +1,77 @@
+package com.claire.firstspring.model;
+
+import org.apache.commons.lang3.Validate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * An exact amount in minor units (cents) of the single currency of the catalogue. Amounts with more than two
+ * decimal places are rejected rather than rounded.
+ */
+public final class Money implements Comparable<Money> {
+    public static final Money ZERO = new Money(0);
+    private static final int SCALE = 2;
+
+    private final long cents;
+
+    private Money(long cents) {
+        this.cents = cents;
+    }
+
+    public static Money ofCents(long cents) {
+        return new Money(cents);
+    }
+
+    public static Money of(BigDecimal amount) {
+        Validate.notNull(amount, "client-error: amount cannot be null");
+        try {
+            return new Money(amount.setScale(SCALE, RoundingMode.UNNECESSARY).unscaledValue().longValueExact());
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException(
+                String.format("client-error: amount %s must have at most %s decimal places and fit in %s cents", amount.toPlainString(), SCALE, Long.MAX_VALUE),
+                e
+            );
+        }
+    }
+
+    public static Money of(String amount) {
+        Validate.notBlank(amount, "client-error: amount cannot be blank");
+        return of(new BigDecimal(amount));
+    }
+
+    public long cents() {
+        return cents;
+    }
+
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(cents, SCALE);
+    }
+
+    public Money plus(Money other) {
+        return new Money(Math.addExact(cents, other.cents));
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        return Long.compare(cents, other.cents);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        Money money = (Money) o;
+        return cents == money.cents;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(cents);
+    }
+
+    @Override
+    public String toString() {
+        return toBigDecimal().toPlainString();
+    }
+}
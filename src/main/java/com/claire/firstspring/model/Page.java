@@ -0,0 +1,54 @@
+package com.claire.firstspring.model;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+
+/**
+ * One page of a keyset (id ordered) listing. The next cursor is the id of the last entry on this page and is
+ * absent on the last page.
+ */
+public class Page<T> {
+    public static final int DEFAULT_SIZE = 100;
+    public static final int MAX_SIZE = 1000;
+    public static final int BEFORE_FIRST = Integer.MIN_VALUE;
+
+    private final List<T> items;
+    private final Integer nextCursor;
+
+    public Page(List<T> items, Integer nextCursor) {
+        this.items = List.copyOf(items);
+        this.nextCursor = nextCursor;
+    }
+
+    /**
+     * Builds a page from rows queried with a limit of {@code size + 1}; the extra row only tells whether
+     * another page follows.
+     */
+    public static <T> Page<T> of(List<T> rows, int size, Function<T, Integer> id) {
+        return rows.size() > size
+            ? new Page<>(rows.subList(0, size), id.apply(rows.get(size - 1)))
+            : new Page<>(rows, null);
+    }
+
+    public List<T> items() {
+        return items;
+    }
+
+    public Optional<Integer> nextCursor() {
+        return Optional.ofNullable(nextCursor);
+    }
+
+    public Page<T> withItems(UnaryOperator<List<T>> itemsLoader) {
+        return new Page<>(itemsLoader.apply(items), nextCursor);
+    }
+
+    @Override
+    public String toString() {
+        return "Page{" +
+            "items=" + items +
+            ", nextCursor=" + nextCursor +
+            '}';
+    }
+}
@@ -0,0 +1,58 @@
+package com.claire.firstspring.model;
+
+import org.apache.commons.lang3.Validate;
+
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Prices between {@code min} and {@code max}, both inclusive; a missing bound leaves that side open.
+ */
+public class PriceRange {
+    public static final PriceRange ANY = new PriceRange(null, null);
+
+    private final Money min;
+    private final Money max;
+
+    public PriceRange(Money min, Money max) {
+        Validate.isTrue(
+            min == null || max == null || min.compareTo(max) <= 0,
+            "client-error: minimum price %s cannot be above maximum price %s", min, max
+        );
+        this.min = min;
+        this.max = max;
+    }
+
+    public Optional<Money> min() {
+        return Optional.ofNullable(min);
+    }
+
+    public Optional<Money> max() {
+        return Optional.ofNullable(max);
+    }
+
+    public boolean isUnbounded() {
+        return min == null && max == null;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        PriceRange that = (PriceRange) o;
+        return Objects.equals(min, that.min) && Objects.equals(max, that.max);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(min, max);
+    }
+
+    @Override
+    public String toString() {
+        return "PriceRange{" +
+            "min=" + min +
+            ", max=" + max +
+            '}';
+    }
+}
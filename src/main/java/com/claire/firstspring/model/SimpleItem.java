@@ -12,12 +12,13 @@ public class SimpleItem implements Item {
     private final Integer id;
     private final String name;
     private final String description;
-    private final double price;
+    private final Money price;
     private final Set<Feature> features;
 
-    public SimpleItem(Integer id, String name, String description, double price, Set<Feature> features) {
+    public SimpleItem(Integer id, String name, String description, Money price, Set<Feature> features) {
         Validate.notBlank(description, "client-error: description cannot be blank");
         Validate.notBlank(name, "client-error: name cannot be blank");
+        Validate.notNull(price, "client-error: price cannot be null");
         this.id = id;
         this.name = name;
         this.description = description;
@@ -41,7 +42,7 @@ public class SimpleItem implements Item {
     }
 
     @Override
-    public double price() {
+    public Money price() {
         return price;
     }
 
@@ -59,7 +60,7 @@ public class SimpleItem implements Item {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         SimpleItem that = (SimpleItem) o;
-        return Double.compare(that.price, price) == 0 &&
+        return Objects.equals(price, that.price) &&
             Objects.equals(id, that.id) &&
             Objects.equals(name, that.name) &&
             Objects.equals(description, that.description) &&
@@ -0,0 +1,125 @@
+package com.claire.firstspring.repository;
+
+import org.apache.commons.lang3.Validate;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static java.util.stream.Collectors.toList;
+import static org.apache.commons.lang3.ArrayUtils.toArray;
+
+/**
+ * Hands out ids from blocks reserved in the {@code id_sequence} table. A block is reserved in its own
+ * transaction on the id sequence pool, so it stays taken even when the insert that asked for it rolls back and
+ * never waits for a second connection of the pool the caller already holds one of.
+ */
+@Repository
+public class BlockIdGeneratingRepository implements IdGeneratingRepository {
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate reservingTransaction;
+    private final int blockSize;
+    private final Map<String, Sequence> sequences = new ConcurrentHashMap<>();
+
+    public BlockIdGeneratingRepository(
+        @Qualifier("idSequenceDataSource") DataSource idSequenceDataSource,
+        @Value("${database.id.block.size:100}") int blockSize
+    ) {
+        Validate.isTrue(blockSize > 0, "id block size must be positive but was %s", blockSize);
+        this.jdbcTemplate = new JdbcTemplate(idSequenceDataSource);
+        this.reservingTransaction = new TransactionTemplate(new DataSourceTransactionManager(idSequenceDataSource));
+        this.blockSize = blockSize;
+    }
+
+    @Override
+    public int nextId(MainTableAwareRepository mainTableAwareRepository) {
+        return sequences.computeIfAbsent(mainTableAwareRepository.getMainTableName(), Sequence::new)
+            .nextId();
+    }
+
+    /**
+     * Counts up to a block are drawn from the shared block, larger ones reserve a range of their own in a
+     * single round trip.
+     */
+    @Override
+    public List<Integer> nextIds(MainTableAwareRepository mainTableAwareRepository, int count) {
+        Validate.isTrue(count >= 0, "id count cannot be negative but was %s", count);
+        if (count <= blockSize) {
+            return IntStream.range(0, count)
+                .mapToObj(i -> nextId(mainTableAwareRepository))
+                .collect(toList());
+        }
+
+        final IdBlock block = reserve(mainTableAwareRepository.getMainTableName(), count);
+        return IntStream.range(block.next.get(), block.end)
+            .boxed()
+            .collect(toList());
+    }
+
+    private IdBlock reserve(String sequenceName, int size) {
+        final Integer firstId = reservingTransaction.execute(status -> {
+            final Integer nextId = jdbcTemplate.query(
+                "SELECT next_id FROM id_sequence WHERE name = ? FOR UPDATE",
+                rs -> rs.next() ? rs.getInt("next_id") : null,
+                sequenceName
+            );
+            if (nextId == null) {
+                throw new NoSuchElementException(String.format("id sequence %s does not exist", sequenceName));
+            }
+            jdbcTemplate.update(
+                "UPDATE id_sequence SET next_id = ? WHERE name = ?",
+                toArray(nextId + size, sequenceName)
+            );
+            return nextId;
+        });
+        return new IdBlock(firstId, firstId + size);
+    }
+
+    private class Sequence {
+        private final String name;
+        private volatile IdBlock block = IdBlock.EMPTY;
+
+        Sequence(String name) {
+            this.name = name;
+        }
+
+        int nextId() {
+            while (true) {
+                final IdBlock current = block;
+                final int id = current.next.getAndIncrement();
+                if (id < current.end) {
+                    return id;
+                }
+                refill(current);
+            }
+        }
+
+        private synchronized void refill(IdBlock exhausted) {
+            if (block == exhausted) {
+                block = reserve(name, blockSize);
+            }
+        }
+    }
+
+    private static class IdBlock {
+        static final IdBlock EMPTY = new IdBlock(0, 0);
+
+        final AtomicInteger next;
+        final int end;
+
+        IdBlock(int first, int end) {
+            this.next = new AtomicInteger(first);
+            this.end = end;
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.claire.firstspring.repository;
+
+import com.claire.firstspring.model.Restaurant;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+public interface BulkRestaurantRepository {
+    List<Restaurant> createAll(List<Restaurant> restaurants);
+
+    /**
+     * Writes all the changes, returning the restaurants it created with their generated ids.
+     */
+    List<Restaurant> apply(TreeChanges changes);
+
+    /**
+     * Deletes the restaurants with everything below them, returning the ids of the menus deleted with them.
+     */
+    Set<Integer> deleteRestaurants(Collection<Integer> restaurantIds);
+
+    void deleteMenus(Collection<Integer> menuIds);
+
+    void deleteSections(Collection<Integer> sectionIds);
+}
@@ -0,0 +1,13 @@
+package com.claire.firstspring.repository;
+
+import com.claire.firstspring.model.Restaurant;
+
+import java.util.function.Consumer;
+
+public interface CatalogueRepository {
+    /**
+     * Hands every restaurant, with its whole tree, to the consumer in id order. Only the restaurant being
+     * assembled is held in memory.
+     */
+    void forEachRestaurant(Consumer<Restaurant> consumer);
+}
@@ -0,0 +1,90 @@
+package com.claire.firstspring.repository;
+
+import org.apache.commons.lang3.Validate;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import static org.apache.commons.lang3.ArrayUtils.toArray;
+
+/**
+ * Checks that a row exists, remembering the rows known to exist until the transaction completes.
+ */
+@Component
+public class ExistenceProbe {
+    private static final Set<String> TABLES = Set.of("restaurant", "menu", "section", "item");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ExistenceProbe(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public boolean exists(String table, Integer id) {
+        Validate.isTrue(TABLES.contains(table), "cannot probe table %s", table);
+        final Set<Integer> known = known(table);
+        if (known != null && known.contains(id)) {
+            return true;
+        }
+
+        final boolean exists = !jdbcTemplate.queryForList(
+            "SELECT 1 FROM " + table + " WHERE id = ? LIMIT 1",
+            toArray(id),
+            Integer.class
+        ).isEmpty();
+        if (exists && known != null) {
+            known.add(id);
+        }
+        return exists;
+    }
+
+    /**
+     * Throws a {@link NoSuchElementException} with the formatted message, which gets the id as its only argument,
+     * when the row does not exist.
+     */
+    public void requireExists(String table, Integer id, String message) {
+        if (!exists(table, id)) {
+            throw new NoSuchElementException(String.format(message, id));
+        }
+    }
+
+    public void existing(String table, Integer id) {
+        final Set<Integer> known = known(table);
+        if (known != null) {
+            known.add(id);
+        }
+    }
+
+    public void deleted(String table, Integer id) {
+        final Set<Integer> known = known(table);
+        if (known != null) {
+            known.remove(id);
+        }
+    }
+
+    /**
+     * Deleting a parent takes its children with it, and which children those were is not known here.
+     */
+    public void deletedWithChildren() {
+        final Map<String, Set<Integer>> knownByTable = knownByTable();
+        if (knownByTable != null) {
+            knownByTable.clear();
+        }
+    }
+
+    private Set<Integer> known(String table) {
+        final Map<String, Set<Integer>> knownByTable = knownByTable();
+        return knownByTable == null
+            ? null
+            : knownByTable.computeIfAbsent(table, ignored -> new HashSet<>());
+    }
+
+    private Map<String, Set<Integer>> knownByTable() {
+        return TransactionalChanges.transactionLocal(this, HashMap::new);
+    }
+}
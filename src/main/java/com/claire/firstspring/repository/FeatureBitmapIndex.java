@@ -0,0 +1,243 @@
+package com.claire.firstspring.repository;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * Process local bitmaps of item ids, one per feature id and one per section, built when the application starts.
+ */
+@Component
+public class FeatureBitmapIndex {
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionalChanges<Consumer<Bitmaps>> changes = new TransactionalChanges<>(this::applyCommitted);
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private Bitmaps bitmaps;
+    private long generation;
+
+    public FeatureBitmapIndex(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void build() {
+        lock.writeLock().lock();
+        try {
+            bitmaps = load();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Ids above {@code after} in ascending order, at most {@code limit} of them, of the items having at least
+     * one feature of every group of {@code requiredFeatureIds} and none of {@code excludedFeatureIds}.
+     */
+    public List<Integer> items(
+        List<? extends Collection<Integer>> requiredFeatureIds,
+        Collection<Integer> excludedFeatureIds,
+        int after,
+        int limit
+    ) {
+        final BitSet matching = matching(requiredFeatureIds, excludedFeatureIds);
+        final List<Integer> ids = new ArrayList<>();
+        for (int id = matching.nextSetBit(Math.max(after + 1, 0)); id >= 0 && ids.size() < limit; id = matching.nextSetBit(id + 1)) {
+            ids.add(id);
+        }
+        return ids;
+    }
+
+    public void add(Integer itemId, Integer sectionId) {
+        changes.stage(bitmaps -> bitmaps.add(itemId, sectionId));
+    }
+
+    public void associate(Integer itemId, Collection<Integer> featureIds) {
+        if (!featureIds.isEmpty()) {
+            changes.stage(bitmaps -> featureIds.forEach(featureId -> bitmaps.itemsWith(featureId).set(itemId)));
+        }
+    }
+
+    public void disassociate(Integer itemId, Collection<Integer> featureIds) {
+        if (!featureIds.isEmpty()) {
+            changes.stage(bitmaps -> featureIds.forEach(featureId -> bitmaps.itemsWith(featureId).clear(itemId)));
+        }
+    }
+
+    public void remove(Collection<Integer> itemIds) {
+        if (!itemIds.isEmpty()) {
+            final BitSet removed = new BitSet();
+            itemIds.forEach(removed::set);
+            changes.stage(bitmaps -> bitmaps.remove(removed));
+        }
+    }
+
+    public void removeSections(Collection<Integer> sectionIds) {
+        if (!sectionIds.isEmpty()) {
+            changes.stage(bitmaps -> sectionIds.forEach(bitmaps::removeSection));
+        }
+    }
+
+    public void removeFeature(Integer featureId) {
+        changes.stage(bitmaps -> bitmaps.itemsByFeature.remove(featureId));
+    }
+
+    public void invalidate() {
+        lock.writeLock().lock();
+        try {
+            generation++;
+            bitmaps = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private BitSet matching(List<? extends Collection<Integer>> requiredFeatureIds, Collection<Integer> excludedFeatureIds) {
+        final List<Consumer<Bitmaps>> pending = changes.pending();
+        lock.readLock().lock();
+        try {
+            if (bitmaps != null && pending.isEmpty()) {
+                return bitmaps.matching(requiredFeatureIds, excludedFeatureIds);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return withPending(pending).matching(requiredFeatureIds, excludedFeatureIds);
+    }
+
+    private void applyCommitted(List<Consumer<Bitmaps>> committed) {
+        lock.writeLock().lock();
+        try {
+            generation++;
+            if (bitmaps != null) {
+                committed.forEach(change -> change.accept(bitmaps));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * A private copy of the committed bitmaps, or of the item tables when there are none yet, with the changes
+     * of the current transaction applied.
+     */
+    private Bitmaps withPending(List<Consumer<Bitmaps>> pending) {
+        final long loadedAt;
+        Bitmaps view;
+        lock.readLock().lock();
+        try {
+            loadedAt = generation;
+            view = bitmaps == null ? null : bitmaps.copy();
+        } finally {
+            lock.readLock().unlock();
+        }
+        if (view == null) {
+            view = load();
+            remember(loadedAt, view);
+        }
+        for (Consumer<Bitmaps> change : pending) {
+            change.accept(view);
+        }
+        return view;
+    }
+
+    /**
+     * Rows read inside a transaction may be its own uncommitted ones, so loaded bitmaps are only shared once it
+     * commits, and only if no change was applied since they were read.
+     */
+    private void remember(long loadedAt, Bitmaps loaded) {
+        TransactionalChanges.afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                if (bitmaps == null && generation == loadedAt) {
+                    bitmaps = loaded;
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    private Bitmaps load() {
+        final Bitmaps loaded = new Bitmaps();
+        jdbcTemplate.query(
+            "SELECT id, section_id FROM item",
+            (RowCallbackHandler) rs -> loaded.add(rs.getInt("id"), rs.getInt("section_id"))
+        );
+        jdbcTemplate.query(
+            "SELECT item_id, feature_id FROM item_feature",
+            (RowCallbackHandler) rs -> loaded.itemsWith(rs.getInt("feature_id")).set(rs.getInt("item_id"))
+        );
+        return loaded;
+    }
+
+    private static class Bitmaps {
+        final BitSet items = new BitSet();
+        final Map<Integer, BitSet> itemsByFeature = new HashMap<>();
+        final Map<Integer, BitSet> itemsBySection = new HashMap<>();
+
+        Bitmaps copy() {
+            final Bitmaps copy = new Bitmaps();
+            copy.items.or(items);
+            itemsByFeature.forEach((featureId, bitmap) -> copy.itemsByFeature.put(featureId, (BitSet) bitmap.clone()));
+            itemsBySection.forEach((sectionId, bitmap) -> copy.itemsBySection.put(sectionId, (BitSet) bitmap.clone()));
+            return copy;
+        }
+
+        void add(Integer itemId, Integer sectionId) {
+            items.set(itemId);
+            if (sectionId != null) {
+                itemsBySection.computeIfAbsent(sectionId, id -> new BitSet()).set(itemId);
+            }
+        }
+
+        BitSet itemsWith(Integer featureId) {
+            return itemsByFeature.computeIfAbsent(featureId, id -> new BitSet());
+        }
+
+        void remove(BitSet removed) {
+            items.andNot(removed);
+            itemsByFeature.values().forEach(bitmap -> bitmap.andNot(removed));
+            itemsBySection.values().forEach(bitmap -> bitmap.andNot(removed));
+        }
+
+        void removeSection(Integer sectionId) {
+            final BitSet sectionItems = itemsBySection.remove(sectionId);
+            if (sectionItems != null) {
+                remove(sectionItems);
+            }
+        }
+
+        BitSet matching(List<? extends Collection<Integer>> requiredFeatureIds, Collection<Integer> excludedFeatureIds) {
+            final BitSet matching = (BitSet) items.clone();
+            for (Collection<Integer> anyOf : requiredFeatureIds) {
+                final BitSet group = new BitSet();
+                anyOf.forEach(featureId -> {
+                    final BitSet withFeature = itemsByFeature.get(featureId);
+                    if (withFeature != null) {
+                        group.or(withFeature);
+                    }
+                });
+                matching.and(group);
+            }
+            for (Integer featureId : excludedFeatureIds) {
+                final BitSet withFeature = itemsByFeature.get(featureId);
+                if (withFeature != null) {
+                    matching.andNot(withFeature);
+                }
+            }
+            return matching;
+        }
+    }
+}
@@ -0,0 +1,234 @@
+package com.claire.firstspring.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.UnaryOperator;
+
+import static java.util.Collections.singletonMap;
+import static java.util.stream.Collectors.toList;
+
+/**
+ * Process local name to id dictionary of the feature table, loaded on first use.
+ */
+@Component
+public class FeatureDictionary {
+    private static final int MAX_ABSENT_NAMES = 1024;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    private final TransactionalChanges<UnaryOperator<Entries>> changes = new TransactionalChanges<>(this::publish);
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private volatile Entries entries;
+    private long generation;
+
+    public FeatureDictionary(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedParameterJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+    }
+
+    public Optional<Integer> id(String name) {
+        return Optional.ofNullable(ids(List.of(name)).get(name));
+    }
+
+    public Map<String, Integer> ids(Collection<String> names) {
+        final Entries current = entries();
+        final Map<String, Integer> ids = new HashMap<>();
+        final List<String> unknownNames = names.stream()
+            .filter(name -> !collect(current.idsByName, name, ids, current.absentNames))
+            .collect(toList());
+
+        if (!unknownNames.isEmpty()) {
+            final long stamp = generation();
+            final Map<Integer, String> loaded = load("SELECT id, name FROM feature WHERE name IN (:keys)", unknownNames);
+            loaded.forEach((id, name) -> ids.put(name, id));
+            final Set<String> absentNames = new HashSet<>(unknownNames);
+            absentNames.removeAll(loaded.values());
+            remember(stamp, known -> known == null ? null : known.with(loaded).withAbsent(absentNames));
+        }
+        return ids;
+    }
+
+    public Map<Integer, String> names(Collection<Integer> ids) {
+        final Entries current = entries();
+        final Map<Integer, String> names = new HashMap<>();
+        final List<Integer> unknownIds = ids.stream()
+            .filter(id -> !collect(current.namesById, id, names, Set.of()))
+            .collect(toList());
+
+        if (!unknownIds.isEmpty()) {
+            final long stamp = generation();
+            final Map<Integer, String> loaded = load("SELECT id, name FROM feature WHERE id IN (:keys)", unknownIds);
+            names.putAll(loaded);
+            remember(stamp, known -> known == null ? null : known.with(loaded));
+        }
+        return names;
+    }
+
+    public void put(int id, String name) {
+        changes.stage(known -> known.with(Map.of(id, name)));
+    }
+
+    public void rename(String currentName, String newName) {
+        changes.stage(known -> known.renamed(currentName, newName));
+    }
+
+    public void remove(String name) {
+        changes.stage(known -> known.without(name));
+    }
+
+    public synchronized void invalidate() {
+        generation++;
+        entries = null;
+    }
+
+    public long hits() {
+        return hits.sum();
+    }
+
+    public long misses() {
+        return misses.sum();
+    }
+
+    public int size() {
+        final Entries current = entries;
+        return current == null ? 0 : current.idsByName.size();
+    }
+
+    private <K, V> boolean collect(Map<K, V> known, K key, Map<K, V> found, Set<K> absent) {
+        final V value = known.get(key);
+        if (value == null && !absent.contains(key)) {
+            misses.increment();
+            return false;
+        }
+        hits.increment();
+        if (value != null) {
+            found.put(key, value);
+        }
+        return true;
+    }
+
+    private Map<Integer, String> load(String sql, List<?> keys) {
+        final Map<Integer, String> loaded = new HashMap<>();
+        namedParameterJdbcTemplate.query(
+            sql,
+            singletonMap("keys", keys),
+            (RowCallbackHandler) rs -> loaded.put(rs.getInt("id"), rs.getString("name"))
+        );
+        return loaded;
+    }
+
+    /**
+     * The committed entries with the changes of the current transaction applied on top.
+     */
+    private Entries entries() {
+        Entries current = entries;
+        if (current == null) {
+            final long stamp = generation();
+            final Map<Integer, String> all = new HashMap<>();
+            jdbcTemplate.query(
+                "SELECT id, name FROM feature",
+                (RowCallbackHandler) rs -> all.put(rs.getInt("id"), rs.getString("name"))
+            );
+            final Entries loaded = Entries.of(all, Set.of());
+            remember(stamp, known -> loaded);
+            current = loaded;
+        }
+        for (UnaryOperator<Entries> change : changes.pending()) {
+            current = change.apply(current);
+        }
+        return current;
+    }
+
+    /**
+     * Rows read inside a transaction may be its own uncommitted ones, so they are only shared once it commits,
+     * and only if no change was published since they were read.
+     */
+    private void remember(long stamp, UnaryOperator<Entries> loaded) {
+        TransactionalChanges.afterCommit(() -> {
+            synchronized (this) {
+                if (generation == stamp) {
+                    entries = loaded.apply(entries);
+                }
+            }
+        });
+    }
+
+    private synchronized void publish(List<UnaryOperator<Entries>> committed) {
+        generation++;
+        Entries current = entries;
+        if (current != null) {
+            for (UnaryOperator<Entries> change : committed) {
+                current = change.apply(current);
+            }
+            entries = current;
+        }
+    }
+
+    private synchronized long generation() {
+        return generation;
+    }
+
+    private static class Entries {
+        final Map<String, Integer> idsByName;
+        final Map<Integer, String> namesById;
+        final Set<String> absentNames;
+
+        private Entries(Map<String, Integer> idsByName, Map<Integer, String> namesById, Set<String> absentNames) {
+            this.idsByName = Map.copyOf(idsByName);
+            this.namesById = Map.copyOf(namesById);
+            this.absentNames = Set.copyOf(absentNames);
+        }
+
+        static Entries of(Map<Integer, String> namesById, Set<String> absentNames) {
+            final Map<String, Integer> idsByName = new HashMap<>();
+            namesById.forEach((id, name) -> idsByName.put(name, id));
+            final Set<String> stillAbsent = new HashSet<>(absentNames);
+            stillAbsent.removeAll(idsByName.keySet());
+            return new Entries(idsByName, namesById, stillAbsent);
+        }
+
+        Entries with(Map<Integer, String> added) {
+            final Map<Integer, String> namesById = new HashMap<>(this.namesById);
+            namesById.putAll(added);
+            return of(namesById, absentNames);
+        }
+
+        Entries withAbsent(Set<String> names) {
+            if (names.isEmpty() || absentNames.size() + names.size() > MAX_ABSENT_NAMES) {
+                return this;
+            }
+            final Set<String> absent = new HashSet<>(absentNames);
+            absent.addAll(names);
+            return of(namesById, absent);
+        }
+
+        Entries renamed(String currentName, String newName) {
+            final Integer id = idsByName.get(currentName);
+            final Map<Integer, String> namesById = new HashMap<>(this.namesById);
+            if (id != null) {
+                namesById.put(id, newName);
+            }
+            final Set<String> absent = new HashSet<>(absentNames);
+            absent.remove(newName);
+            return of(namesById, absent);
+        }
+
+        Entries without(String name) {
+            final Map<Integer, String> namesById = new HashMap<>(this.namesById);
+            namesById.values().remove(name);
+            return of(namesById, absentNames);
+        }
+    }
+}
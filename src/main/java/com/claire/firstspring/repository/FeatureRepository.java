@@ -2,6 +2,7 @@ package com.claire.firstspring.repository;
 
 import com.claire.firstspring.model.Feature;
 
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 
@@ -10,6 +11,10 @@ public interface FeatureRepository extends MainTableAwareRepository {
 
     Optional<Integer> id(Feature feature);
 
+    Map<Feature, Integer> ids(Set<Feature> features);
+
+    Map<Feature, Integer> existingIds(Set<Feature> features);
+
     Set<Feature> list();
 
     void create(Feature name);
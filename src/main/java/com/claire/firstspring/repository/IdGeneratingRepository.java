@@ -1,5 +1,9 @@
 package com.claire.firstspring.repository;
 
+import java.util.List;
+
 public interface IdGeneratingRepository {
     int nextId(MainTableAwareRepository mainTableAwareRepository);
+
+    List<Integer> nextIds(MainTableAwareRepository mainTableAwareRepository, int count);
 }
\ No newline at end of file
@@ -1,7 +1,11 @@
 package com.claire.firstspring.repository;
 
 import com.claire.firstspring.model.Feature;
+import com.claire.firstspring.model.FeatureFilter;
 import com.claire.firstspring.model.Item;
+import com.claire.firstspring.model.ItemSort;
+import com.claire.firstspring.model.Page;
+import com.claire.firstspring.model.PriceRange;
 
 import java.util.List;
 import java.util.Set;
@@ -13,6 +17,14 @@ public interface ItemRepository extends MainTableAwareRepository {
 
     List<Item> list();
 
+    Page<Item> list(Integer after, int pageSize);
+
+    Page<Item> list(FeatureFilter filter, Integer after, int pageSize);
+
+    Page<Item> list(PriceRange range, ItemSort sort, Integer after, int pageSize);
+
+    List<Item> search(String query, int limit);
+
     Item getItem(Integer itemId);
 
     void deleteItem(Integer itemId);
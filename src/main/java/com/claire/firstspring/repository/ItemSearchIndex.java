@@ -0,0 +1,344 @@
+package com.claire.firstspring.repository;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+
+import static java.util.Collections.emptyList;
+import static java.util.stream.Collectors.toList;
+
+/**
+ * Process local inverted index over item names and descriptions, built when the application starts.
+ */
+@Component
+public class ItemSearchIndex {
+    private static final Pattern WORD_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+    private static final int NAME_WEIGHT = 3;
+    private static final int DESCRIPTION_WEIGHT = 1;
+    private static final double PREFIX_FACTOR = 0.5;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionalChanges<Consumer<Postings>> changes = new TransactionalChanges<>(this::applyCommitted);
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private Postings postings;
+    private long generation;
+
+    public ItemSearchIndex(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void build() {
+        lock.writeLock().lock();
+        try {
+            postings = load();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Ids of the items having every word of the query at the start of one of their lower case words without
+     * accents, ranked by how rare the matched words are, name matches counting more than description matches and
+     * whole words more than prefixes.
+     */
+    public List<Integer> search(String query, int limit) {
+        final List<String> words = words(query);
+        if (words.isEmpty()) {
+            return emptyList();
+        }
+
+        final List<Consumer<Postings>> pending = changes.pending();
+        lock.readLock().lock();
+        try {
+            if (postings != null && pending.isEmpty()) {
+                return postings.search(words, limit);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return withPending(pending).search(words, limit);
+    }
+
+    public void add(Integer itemId, Integer sectionId, String name, String description) {
+        changes.stage(postings -> postings.put(itemId, sectionId, name, description));
+    }
+
+    public void update(Integer itemId, String name, String description) {
+        changes.stage(postings -> postings.put(itemId, postings.sectionOf(itemId), name, description));
+    }
+
+    public void remove(Collection<Integer> itemIds) {
+        if (!itemIds.isEmpty()) {
+            changes.stage(postings -> itemIds.forEach(postings::remove));
+        }
+    }
+
+    public void removeSections(Collection<Integer> sectionIds) {
+        if (!sectionIds.isEmpty()) {
+            changes.stage(postings -> sectionIds.forEach(postings::removeSection));
+        }
+    }
+
+    public void invalidate() {
+        lock.writeLock().lock();
+        try {
+            generation++;
+            postings = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return postings == null ? 0 : postings.documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void applyCommitted(List<Consumer<Postings>> committed) {
+        lock.writeLock().lock();
+        try {
+            generation++;
+            if (postings != null) {
+                committed.forEach(change -> change.accept(postings));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * A private copy of the committed postings, or of the items table when there are none yet, with the changes
+     * of the current transaction applied.
+     */
+    private Postings withPending(List<Consumer<Postings>> pending) {
+        final long loadedAt;
+        Postings view;
+        lock.readLock().lock();
+        try {
+            loadedAt = generation;
+            view = postings == null ? null : postings.copy();
+        } finally {
+            lock.readLock().unlock();
+        }
+        if (view == null) {
+            view = load();
+            remember(loadedAt, view);
+        }
+        for (Consumer<Postings> change : pending) {
+            change.accept(view);
+        }
+        return view;
+    }
+
+    /**
+     * Rows read inside a transaction may be its own uncommitted ones, so loaded postings are only shared once it
+     * commits, and only if no change was applied since they were read.
+     */
+    private void remember(long loadedAt, Postings loaded) {
+        TransactionalChanges.afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                if (postings == null && generation == loadedAt) {
+                    postings = loaded;
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    private Postings load() {
+        final Postings loaded = new Postings();
+        jdbcTemplate.query(
+            "SELECT id, name, description, section_id FROM item",
+            (RowCallbackHandler) rs -> loaded.put(
+                rs.getInt("id"),
+                rs.getInt("section_id"),
+                rs.getString("name"),
+                rs.getString("description")
+            )
+        );
+        return loaded;
+    }
+
+    static List<String> words(String text) {
+        if (text == null) {
+            return emptyList();
+        }
+        final String folded = COMBINING_MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD))
+            .replaceAll("")
+            .toLowerCase(Locale.ROOT);
+        return WORD_SEPARATOR.splitAsStream(folded)
+            .filter(word -> !word.isEmpty())
+            .collect(toList());
+    }
+
+    /**
+     * Weighted occurrences of every word by item, in word order so the words starting with a prefix are one
+     * contiguous range.
+     */
+    private static class Postings {
+        final TreeMap<String, Map<Integer, Integer>> weightsByWord = new TreeMap<>();
+        final Map<Integer, Document> documents = new HashMap<>();
+        final Map<Integer, Set<Integer>> itemsBySection = new HashMap<>();
+
+        void put(Integer itemId, Integer sectionId, String name, String description) {
+            remove(itemId);
+            final Map<String, Integer> weights = new HashMap<>();
+            words(name).forEach(word -> weights.merge(word, NAME_WEIGHT, Integer::sum));
+            words(description).forEach(word -> weights.merge(word, DESCRIPTION_WEIGHT, Integer::sum));
+
+            weights.forEach((word, weight) -> weightsByWord.computeIfAbsent(word, w -> new HashMap<>()).put(itemId, weight));
+            documents.put(itemId, new Document(sectionId, weights.keySet()));
+            if (sectionId != null) {
+                itemsBySection.computeIfAbsent(sectionId, id -> new HashSet<>()).add(itemId);
+            }
+        }
+
+        Postings copy() {
+            final Postings copy = new Postings();
+            weightsByWord.forEach((word, weights) -> copy.weightsByWord.put(word, new HashMap<>(weights)));
+            copy.documents.putAll(documents);
+            itemsBySection.forEach((sectionId, itemIds) -> copy.itemsBySection.put(sectionId, new HashSet<>(itemIds)));
+            return copy;
+        }
+
+        Integer sectionOf(Integer itemId) {
+            final Document document = documents.get(itemId);
+            return document == null ? null : document.sectionId;
+        }
+
+        void remove(Integer itemId) {
+            final Document document = documents.remove(itemId);
+            if (document == null) {
+                return;
+            }
+            for (String word : document.words) {
+                final Map<Integer, Integer> weights = weightsByWord.get(word);
+                weights.remove(itemId);
+                if (weights.isEmpty()) {
+                    weightsByWord.remove(word);
+                }
+            }
+            if (document.sectionId != null) {
+                final Set<Integer> sectionItems = itemsBySection.get(document.sectionId);
+                sectionItems.remove(itemId);
+                if (sectionItems.isEmpty()) {
+                    itemsBySection.remove(document.sectionId);
+                }
+            }
+        }
+
+        void removeSection(Integer sectionId) {
+            final Set<Integer> sectionItems = itemsBySection.get(sectionId);
+            if (sectionItems != null) {
+                new ArrayList<>(sectionItems).forEach(this::remove);
+            }
+        }
+
+        /**
+         * Scores every item matching the least common query word, then narrows those down word by word by
+         * looking only at the words of each remaining item, so common words cost no more than the candidates
+         * left. Only the best {@code limit} items are sorted.
+         */
+        List<Integer> search(List<String> queryWords, int limit) {
+            final List<String> rarestFirst = queryWords.stream()
+                .distinct()
+                .sorted(Comparator.comparingLong(this::occurrences))
+                .collect(toList());
+
+            final Map<Integer, Double> scores = new HashMap<>();
+            matching(rarestFirst.get(0)).forEach((word, weights) -> {
+                final double factor = factor(word, rarestFirst.get(0), weights.size());
+                weights.forEach((itemId, weight) -> scores.merge(itemId, weight * factor, Math::max));
+            });
+            for (String queryWord : rarestFirst.subList(1, rarestFirst.size())) {
+                scores.entrySet().removeIf(entry -> {
+                    final double score = score(entry.getKey(), queryWord);
+                    entry.setValue(entry.getValue() + score);
+                    return score == 0;
+                });
+            }
+            return best(scores, limit);
+        }
+
+        private long occurrences(String queryWord) {
+            return matching(queryWord).values()
+                .stream()
+                .mapToLong(Map::size)
+                .sum();
+        }
+
+        private double score(Integer itemId, String queryWord) {
+            double best = 0;
+            for (String word : documents.get(itemId).words) {
+                if (word.startsWith(queryWord)) {
+                    final Map<Integer, Integer> weights = weightsByWord.get(word);
+                    best = Math.max(best, weights.get(itemId) * factor(word, queryWord, weights.size()));
+                }
+            }
+            return best;
+        }
+
+        private double factor(String word, String queryWord, int itemsWithWord) {
+            final double rarity = Math.log(1 + (double) documents.size() / itemsWithWord);
+            return word.equals(queryWord) ? rarity : rarity * PREFIX_FACTOR;
+        }
+
+        private SortedMap<String, Map<Integer, Integer>> matching(String queryWord) {
+            return weightsByWord.subMap(queryWord, true, queryWord + Character.MAX_VALUE, true);
+        }
+
+        private static List<Integer> best(Map<Integer, Double> scores, int limit) {
+            final Comparator<Map.Entry<Integer, Double>> ranking = Map.Entry.<Integer, Double>comparingByValue(Comparator.reverseOrder())
+                .thenComparing(Map.Entry.comparingByKey());
+            final PriorityQueue<Map.Entry<Integer, Double>> best = new PriorityQueue<>(ranking.reversed());
+            for (Map.Entry<Integer, Double> entry : scores.entrySet()) {
+                best.add(entry);
+                if (best.size() > limit) {
+                    best.poll();
+                }
+            }
+            return best.stream()
+                .sorted(ranking)
+                .map(Map.Entry::getKey)
+                .collect(toList());
+        }
+    }
+
+    private static class Document {
+        final Integer sectionId;
+        final Set<String> words;
+
+        Document(Integer sectionId, Set<String> words) {
+            this.sectionId = sectionId;
+            this.words = words;
+        }
+    }
+}
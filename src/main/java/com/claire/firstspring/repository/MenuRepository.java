@@ -1,6 +1,8 @@
 package com.claire.firstspring.repository;
 
+import com.claire.firstspring.model.Depth;
 import com.claire.firstspring.model.Menu;
+import com.claire.firstspring.model.Page;
 
 import java.util.List;
 import java.util.Optional;
@@ -8,8 +10,14 @@ import java.util.Optional;
 public interface MenuRepository extends MainTableAwareRepository {
     List<Menu> menus();
 
+    Page<Menu> menus(Integer after, int pageSize);
+
+    Page<Menu> menus(Integer after, int pageSize, Depth depth);
+
     Optional<Menu> menu(Integer id);
 
+    Optional<Menu> menu(Integer id, Depth depth);
+
     List<Menu> restaurantMenus(Integer restaurantId);
 
     Menu create(Integer restaurantId, String menu);
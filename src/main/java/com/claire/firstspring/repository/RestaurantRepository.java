@@ -1,5 +1,7 @@
 package com.claire.firstspring.repository;
 
+import com.claire.firstspring.model.Depth;
+import com.claire.firstspring.model.Page;
 import com.claire.firstspring.model.Restaurant;
 
 import java.util.List;
@@ -8,8 +10,14 @@ import java.util.Optional;
 public interface RestaurantRepository extends MainTableAwareRepository {
     List<Restaurant> restaurants();
 
+    Page<Restaurant> restaurants(Integer after, int pageSize);
+
+    Page<Restaurant> restaurants(Integer after, int pageSize, Depth depth);
+
     Optional<Restaurant> restaurant(Integer id);
 
+    Optional<Restaurant> restaurant(Integer id, Depth depth);
+
     void delete(Integer restaurantId);
 
     void updateRestaurantName(Integer id, String name);
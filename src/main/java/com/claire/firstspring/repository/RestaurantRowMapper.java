@@ -7,15 +7,11 @@ import org.springframework.stereotype.Component;
 
 import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.util.Set;
+
+import static java.util.Collections.emptySet;
 
 @Component
 public class RestaurantRowMapper implements RowMapper<Restaurant> {
-    private final MenuRepository menuRepository;
-
-    public RestaurantRowMapper(MenuRepository menuRepository) {
-        this.menuRepository = menuRepository;
-    }
 
     @Override
     public Restaurant mapRow(ResultSet rs, int rowNum) throws SQLException {
@@ -24,7 +20,7 @@ public class RestaurantRowMapper implements RowMapper<Restaurant> {
         return new SimpleRestaurant(
             id,
             name,
-            Set.copyOf(menuRepository.restaurantMenus(id))
+            emptySet()
         );
     }
 }
@@ -1,5 +1,7 @@
 package com.claire.firstspring.repository;
 
+import com.claire.firstspring.model.Depth;
+import com.claire.firstspring.model.Page;
 import com.claire.firstspring.model.Section;
 
 import java.util.List;
@@ -9,8 +11,14 @@ public interface SectionRepository extends MainTableAwareRepository {
 
     List<Section> sections();
 
+    Page<Section> sections(Integer after, int pageSize);
+
+    Page<Section> sections(Integer after, int pageSize, Depth depth);
+
     Optional<Section> section(Integer id);
 
+    Optional<Section> section(Integer id, Depth depth);
+
     List<Section> menuSections(Integer menuId);
 
     Section create(Integer menuId, String section);
@@ -8,13 +8,10 @@ import org.springframework.stereotype.Component;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 
+import static java.util.Collections.emptyList;
+
 @Component
 public class SectionRowMapper implements RowMapper<Section> {
-    private final ItemRepository itemRepository;
-
-    public SectionRowMapper(ItemRepository itemRepository) {
-        this.itemRepository = itemRepository;
-    }
 
     @Override
     public Section mapRow(ResultSet rs, int rowNum) throws SQLException {
@@ -23,7 +20,7 @@ public class SectionRowMapper implements RowMapper<Section> {
         return new SimpleSection(
             id,
             name,
-            itemRepository.sectionItems(id)
+            emptyList()
         );
     }
 }
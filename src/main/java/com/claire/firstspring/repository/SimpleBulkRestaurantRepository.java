@@ -0,0 +1,430 @@
+package com.claire.firstspring.repository;
+
+import com.claire.firstspring.model.Feature;
+import com.claire.firstspring.model.Item;
+import com.claire.firstspring.model.Menu;
+import com.claire.firstspring.model.Restaurant;
+import com.claire.firstspring.model.Section;
+import com.claire.firstspring.model.SimpleItem;
+import com.claire.firstspring.model.SimpleMenu;
+import com.claire.firstspring.model.SimpleRestaurant;
+import com.claire.firstspring.model.SimpleSection;
+import com.google.common.collect.Lists;
+import org.apache.commons.lang3.Validate;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import static java.util.Collections.singletonMap;
+import static java.util.stream.Collectors.toList;
+import static java.util.stream.Collectors.toSet;
+import static org.apache.commons.collections4.CollectionUtils.emptyIfNull;
+
+/**
+ * Writes whole restaurant trees at once. Ids for every new node are reserved up front and every kind of change
+ * is written with a single JDBC batch (or a single {@code IN} statement for deletes), so the number of
+ * statements depends on the kinds of changes and not on the size of the tree. Deleting a subtree likewise
+ * takes one statement per table below it.
+ */
+@Repository
+public class SimpleBulkRestaurantRepository implements BulkRestaurantRepository {
+    private static final int MAX_IDS_PER_QUERY = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    private final IdGeneratingRepository idGeneratingRepository;
+    private final FeatureRepository featureRepository;
+    private final RestaurantRepository restaurantRepository;
+    private final MenuRepository menuRepository;
+    private final SectionRepository sectionRepository;
+    private final ItemRepository itemRepository;
+    private final VersionRepository versionRepository;
+    private final ExistenceProbe existenceProbe;
+    private final ItemSearchIndex itemSearchIndex;
+    private final FeatureBitmapIndex featureBitmapIndex;
+
+    public SimpleBulkRestaurantRepository(
+        JdbcTemplate jdbcTemplate,
+        IdGeneratingRepository idGeneratingRepository,
+        FeatureRepository featureRepository,
+        RestaurantRepository restaurantRepository,
+        MenuRepository menuRepository,
+        SectionRepository sectionRepository,
+        ItemRepository itemRepository,
+        VersionRepository versionRepository,
+        ExistenceProbe existenceProbe,
+        ItemSearchIndex itemSearchIndex,
+        FeatureBitmapIndex featureBitmapIndex
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedParameterJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        this.idGeneratingRepository = idGeneratingRepository;
+        this.featureRepository = featureRepository;
+        this.restaurantRepository = restaurantRepository;
+        this.menuRepository = menuRepository;
+        this.sectionRepository = sectionRepository;
+        this.itemRepository = itemRepository;
+        this.versionRepository = versionRepository;
+        this.existenceProbe = existenceProbe;
+        this.itemSearchIndex = itemSearchIndex;
+        this.featureBitmapIndex = featureBitmapIndex;
+    }
+
+    @Override
+    public List<Restaurant> createAll(List<Restaurant> restaurants) {
+        Validate.notNull(restaurants, "restaurants cannot be null");
+        restaurants.forEach(SimpleBulkRestaurantRepository::validate);
+
+        final TreeChanges changes = new TreeChanges();
+        restaurants.forEach(changes::createRestaurant);
+        return apply(changes);
+    }
+
+    @Override
+    public List<Restaurant> apply(TreeChanges changes) {
+        if (changes.isEmpty()) {
+            return List.of();
+        }
+        final List<Menu> newMenus = concat(
+            flatten(changes.createdRestaurants, Restaurant::menus),
+            flatten(changes.createdMenus.values(), Function.identity())
+        );
+        final List<Section> newSections = concat(
+            flatten(newMenus, Menu::sections),
+            flatten(changes.createdSections.values(), Function.identity())
+        );
+        final List<Item> newItems = concat(
+            flatten(newSections, Section::items),
+            flatten(changes.createdItems.values(), Function.identity())
+        );
+        final Map<Feature, Integer> featureIds = featureRepository.existingIds(
+            Stream.of(
+                newItems.stream().flatMap(item -> item.features().stream()),
+                changes.addedFeatures.values().stream().flatMap(Collection::stream),
+                changes.removedFeatures.values().stream().flatMap(Collection::stream)
+            )
+                .flatMap(Function.identity())
+                .collect(toSet())
+        );
+
+        final Rows rows = new Rows(
+            idGeneratingRepository.nextIds(restaurantRepository, changes.createdRestaurants.size()),
+            idGeneratingRepository.nextIds(menuRepository, newMenus.size()),
+            idGeneratingRepository.nextIds(sectionRepository, newSections.size()),
+            idGeneratingRepository.nextIds(itemRepository, newItems.size()),
+            featureIds
+        );
+        final List<Restaurant> created = changes.createdRestaurants.stream()
+            .map(rows::restaurant)
+            .collect(toList());
+        changes.createdMenus.forEach((restaurantId, menus) -> menus.forEach(menu -> rows.menu(restaurantId, menu)));
+        changes.createdSections.forEach((menuId, sections) -> sections.forEach(section -> rows.section(menuId, section)));
+        changes.createdItems.forEach((sectionId, items) -> items.forEach(item -> rows.item(sectionId, item)));
+        changes.addedFeatures.forEach((itemId, features) -> rows.itemFeatures(itemId, features));
+
+        touch(changes);
+        deleteWhereIn("DELETE FROM item_feature WHERE item_id IN (:ids)", changes.deletedItems);
+        batch(
+            "DELETE FROM item_feature WHERE item_id = ? AND feature_id = ?",
+            changes.removedFeatures.entrySet()
+                .stream()
+                .flatMap(entry -> entry.getValue()
+                    .stream()
+                    .map(feature -> new Object[]{entry.getKey(), featureIds.get(feature)})
+                )
+                .collect(toList())
+        );
+        deleteWhereIn("DELETE FROM item WHERE id IN (:ids)", changes.deletedItems);
+        deleteWhereIn("DELETE FROM section WHERE id IN (:ids)", changes.deletedSections);
+        deleteWhereIn("DELETE FROM menu WHERE id IN (:ids)", changes.deletedMenus);
+
+        batch("UPDATE restaurant SET name = ? WHERE id = ?", renameRows(changes.restaurantNames));
+        batch("UPDATE menu SET name = ? WHERE id = ?", renameRows(changes.menuNames));
+        batch("UPDATE section SET name = ? WHERE id = ?", renameRows(changes.sectionNames));
+        batch(
+            "UPDATE item SET name = ?, description = ?, price_cents = ? WHERE id = ?",
+            changes.updatedItems.values()
+                .stream()
+                .map(item -> new Object[]{item.name(), item.description(), item.price().cents(), item.id()})
+                .collect(toList())
+        );
+
+        batch("INSERT INTO restaurant (id, name) VALUES (?, ?)", rows.restaurants);
+        batch("INSERT INTO menu (id, name, restaurant_id) VALUES (?, ?, ?)", rows.menus);
+        batch("INSERT INTO section (id, name, menu_id) VALUES (?, ?, ?)", rows.sections);
+        batch("INSERT INTO item (id, name, description, price_cents, section_id) VALUES (?, ?, ?, ?, ?)", rows.items);
+        batch("INSERT INTO item_feature (item_id, feature_id) VALUES (?, ?)", rows.itemFeatures);
+
+        reindex(changes, rows, featureIds);
+        return created;
+    }
+
+    private void reindex(TreeChanges changes, Rows rows, Map<Feature, Integer> featureIds) {
+        itemSearchIndex.remove(changes.deletedItems);
+        featureBitmapIndex.remove(changes.deletedItems);
+        changes.updatedItems.values().forEach(item -> itemSearchIndex.update(item.id(), item.name(), item.description()));
+        changes.removedFeatures.forEach((itemId, features) -> featureBitmapIndex.disassociate(
+            itemId,
+            features.stream()
+                .map(featureIds::get)
+                .collect(toList())
+        ));
+        for (Object[] row : rows.items) {
+            itemSearchIndex.add((Integer) row[0], (Integer) row[4], (String) row[1], (String) row[2]);
+            featureBitmapIndex.add((Integer) row[0], (Integer) row[4]);
+        }
+        for (Object[] row : rows.itemFeatures) {
+            featureBitmapIndex.associate((Integer) row[0], List.of((Integer) row[1]));
+        }
+    }
+
+    /**
+     * Bumps the versions of every existing node the changes touch, before anything is deleted. A node gets a new
+     * version when it is renamed or updated, when it gets a new child or when it is deleted; its ancestors always
+     * follow along.
+     */
+    private void touch(TreeChanges changes) {
+        versionRepository.touchRestaurants(union(changes.restaurantNames.keySet(), changes.createdMenus.keySet()));
+        versionRepository.touchMenus(
+            union(changes.menuNames.keySet(), changes.createdSections.keySet(), changes.deletedMenus)
+        );
+        versionRepository.touchSections(
+            union(changes.sectionNames.keySet(), changes.createdItems.keySet(), changes.deletedSections)
+        );
+        versionRepository.touchItems(
+            union(
+                changes.updatedItems.keySet(),
+                changes.addedFeatures.keySet(),
+                changes.removedFeatures.keySet(),
+                changes.deletedItems
+            )
+        );
+    }
+
+    @SafeVarargs
+    private static Set<Integer> union(Collection<Integer>... ids) {
+        final Set<Integer> union = new LinkedHashSet<>();
+        for (Collection<Integer> someIds : ids) {
+            union.addAll(someIds);
+        }
+        return union;
+    }
+
+    @Override
+    public Set<Integer> deleteRestaurants(Collection<Integer> restaurantIds) {
+        final List<Integer> ids = existingIds("restaurant", restaurantIds);
+        final Set<Integer> menuIds = new HashSet<>(selectWhereIn("SELECT id FROM menu WHERE restaurant_id IN (:ids)", ids));
+        final List<Integer> sectionIds = selectWhereIn("SELECT id FROM section WHERE menu_id IN (:ids)", new ArrayList<>(menuIds));
+
+        deleteWhereIn(
+            "DELETE FROM item_feature WHERE item_id IN (" +
+                "SELECT item.id FROM item " +
+                "JOIN section ON item.section_id = section.id " +
+                "JOIN menu ON section.menu_id = menu.id " +
+                "WHERE menu.restaurant_id IN (:ids))",
+            ids
+        );
+        deleteWhereIn(
+            "DELETE FROM item WHERE section_id IN (" +
+                "SELECT section.id FROM section JOIN menu ON section.menu_id = menu.id WHERE menu.restaurant_id IN (:ids))",
+            ids
+        );
+        deleteWhereIn("DELETE FROM section WHERE menu_id IN (SELECT id FROM menu WHERE restaurant_id IN (:ids))", ids);
+        deleteWhereIn("DELETE FROM menu WHERE restaurant_id IN (:ids)", ids);
+        deleteWhereIn("DELETE FROM restaurant WHERE id IN (:ids)", ids);
+        itemSearchIndex.removeSections(sectionIds);
+        featureBitmapIndex.removeSections(sectionIds);
+        return menuIds;
+    }
+
+    @Override
+    public void deleteMenus(Collection<Integer> menuIds) {
+        final List<Integer> ids = existingIds("menu", menuIds);
+        final List<Integer> sectionIds = selectWhereIn("SELECT id FROM section WHERE menu_id IN (:ids)", ids);
+        versionRepository.touchMenus(ids);
+
+        deleteWhereIn(
+            "DELETE FROM item_feature WHERE item_id IN (" +
+                "SELECT item.id FROM item JOIN section ON item.section_id = section.id WHERE section.menu_id IN (:ids))",
+            ids
+        );
+        deleteWhereIn("DELETE FROM item WHERE section_id IN (SELECT id FROM section WHERE menu_id IN (:ids))", ids);
+        deleteWhereIn("DELETE FROM section WHERE menu_id IN (:ids)", ids);
+        deleteWhereIn("DELETE FROM menu WHERE id IN (:ids)", ids);
+        itemSearchIndex.removeSections(sectionIds);
+        featureBitmapIndex.removeSections(sectionIds);
+    }
+
+    @Override
+    public void deleteSections(Collection<Integer> sectionIds) {
+        final List<Integer> ids = existingIds("section", sectionIds);
+        versionRepository.touchSections(ids);
+
+        deleteWhereIn("DELETE FROM item_feature WHERE item_id IN (SELECT id FROM item WHERE section_id IN (:ids))", ids);
+        deleteWhereIn("DELETE FROM item WHERE section_id IN (:ids)", ids);
+        deleteWhereIn("DELETE FROM section WHERE id IN (:ids)", ids);
+        itemSearchIndex.removeSections(ids);
+        featureBitmapIndex.removeSections(ids);
+    }
+
+    private List<Integer> existingIds(String table, Collection<Integer> ids) {
+        Validate.notNull(ids, "%s ids cannot be null", table);
+        final List<Integer> requestedIds = new ArrayList<>(new LinkedHashSet<>(ids));
+        requestedIds.forEach(id -> Validate.notNull(id, "%s id cannot be null", table));
+
+        final Set<Integer> foundIds = new HashSet<>(selectWhereIn("SELECT id FROM " + table + " WHERE id IN (:ids)", requestedIds));
+        final List<String> missingIds = requestedIds.stream()
+            .filter(id -> !foundIds.contains(id))
+            .map(String::valueOf)
+            .collect(toList());
+
+        if (missingIds.size() == 1) {
+            throw new NoSuchElementException(String.format("%s id %s does not exist", table, missingIds.get(0)));
+        }
+        if (!missingIds.isEmpty()) {
+            throw new NoSuchElementException(
+                String.format("%s ids %s do not exist", table, String.join(", ", missingIds))
+            );
+        }
+        return requestedIds;
+    }
+
+    private List<Integer> selectWhereIn(String sql, List<Integer> ids) {
+        final List<Integer> selected = new ArrayList<>();
+        for (List<Integer> chunk : Lists.partition(ids, MAX_IDS_PER_QUERY)) {
+            selected.addAll(namedParameterJdbcTemplate.queryForList(sql, singletonMap("ids", chunk), Integer.class));
+        }
+        return selected;
+    }
+
+    private void batch(String sql, List<Object[]> rows) {
+        if (!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate(sql, rows);
+        }
+    }
+
+    private void deleteWhereIn(String sql, Collection<Integer> ids) {
+        if (!ids.isEmpty()) {
+            existenceProbe.deletedWithChildren();
+        }
+        for (List<Integer> chunk : Lists.partition(new ArrayList<>(ids), MAX_IDS_PER_QUERY)) {
+            namedParameterJdbcTemplate.update(sql, singletonMap("ids", chunk));
+        }
+    }
+
+    private static List<Object[]> renameRows(Map<Integer, String> names) {
+        return names.entrySet()
+            .stream()
+            .map(entry -> new Object[]{entry.getValue(), entry.getKey()})
+            .collect(toList());
+    }
+
+    private static void validate(Restaurant restaurant) {
+        Validate.notNull(restaurant, "restaurant cannot be null");
+        Validate.notBlank(restaurant.name(), "restaurant name cannot be blank");
+        for (Menu menu : emptyIfNull(restaurant.menus())) {
+            Validate.notEmpty(menu.name(), "menu name cannot be empty");
+            for (Section section : emptyIfNull(menu.sections())) {
+                Validate.notEmpty(section.name(), "section name cannot be empty");
+                emptyIfNull(section.items()).forEach(item -> Validate.notNull(item, "item cannot be null"));
+            }
+        }
+    }
+
+    private static <P, C> List<C> flatten(Collection<P> parents, Function<P, ? extends Collection<C>> children) {
+        return parents.stream()
+            .flatMap(parent -> emptyIfNull(children.apply(parent)).stream())
+            .collect(toList());
+    }
+
+    private static <T> List<T> concat(List<T> first, List<T> second) {
+        final List<T> concatenated = new ArrayList<>(first);
+        concatenated.addAll(second);
+        return concatenated;
+    }
+
+    /**
+     * Walks the new nodes in the same order they were counted, handing out ids and collecting the insert
+     * parameters of every table.
+     */
+    private static class Rows {
+        final List<Object[]> restaurants = new ArrayList<>();
+        final List<Object[]> menus = new ArrayList<>();
+        final List<Object[]> sections = new ArrayList<>();
+        final List<Object[]> items = new ArrayList<>();
+        final List<Object[]> itemFeatures = new ArrayList<>();
+
+        private final Iterator<Integer> restaurantIds;
+        private final Iterator<Integer> menuIds;
+        private final Iterator<Integer> sectionIds;
+        private final Iterator<Integer> itemIds;
+        private final Map<Feature, Integer> featureIds;
+
+        Rows(
+            List<Integer> restaurantIds,
+            List<Integer> menuIds,
+            List<Integer> sectionIds,
+            List<Integer> itemIds,
+            Map<Feature, Integer> featureIds
+        ) {
+            this.restaurantIds = restaurantIds.iterator();
+            this.menuIds = menuIds.iterator();
+            this.sectionIds = sectionIds.iterator();
+            this.itemIds = itemIds.iterator();
+            this.featureIds = featureIds;
+        }
+
+        Restaurant restaurant(Restaurant restaurant) {
+            final int id = restaurantIds.next();
+            restaurants.add(new Object[]{id, restaurant.name()});
+            final Set<Menu> createdMenus = emptyIfNull(restaurant.menus())
+                .stream()
+                .map(menu -> menu(id, menu))
+                .collect(toSet());
+            return new SimpleRestaurant(id, restaurant.name(), createdMenus);
+        }
+
+        Menu menu(int restaurantId, Menu menu) {
+            final int id = menuIds.next();
+            menus.add(new Object[]{id, menu.name(), restaurantId});
+            final Set<Section> createdSections = emptyIfNull(menu.sections())
+                .stream()
+                .map(section -> section(id, section))
+                .collect(toSet());
+            return new SimpleMenu(id, menu.name(), createdSections);
+        }
+
+        Section section(int menuId, Section section) {
+            final int id = sectionIds.next();
+            sections.add(new Object[]{id, section.name(), menuId});
+            final List<Item> createdItems = emptyIfNull(section.items())
+                .stream()
+                .map(item -> item(id, item))
+                .collect(toList());
+            return new SimpleSection(id, section.name(), createdItems);
+        }
+
+        Item item(int sectionId, Item item) {
+            final int id = itemIds.next();
+            items.add(new Object[]{id, item.name(), item.description(), item.price().cents(), sectionId});
+            itemFeatures(id, item.features());
+            return new SimpleItem(id, item.name(), item.description(), item.price(), item.features());
+        }
+
+        void itemFeatures(int itemId, Set<Feature> features) {
+            features.forEach(feature -> itemFeatures.add(new Object[]{itemId, featureIds.get(feature)}));
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package com.claire.firstspring.repository;
+
+import com.claire.firstspring.model.Feature;
+import com.claire.firstspring.model.Item;
+import com.claire.firstspring.model.Money;
+import com.claire.firstspring.model.Menu;
+import com.claire.firstspring.model.Restaurant;
+import com.claire.firstspring.model.Section;
+import com.claire.firstspring.model.SimpleItem;
+import com.claire.firstspring.model.SimpleMenu;
+import com.claire.firstspring.model.SimpleRestaurant;
+import com.claire.firstspring.model.SimpleSection;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Reads the whole catalogue with a single joined query, ordered so that each restaurant's rows are
+ * contiguous. The result set is fetched in small chunks from a forward-only cursor and every restaurant is
+ * handed on as soon as its last row has been read, so memory use depends on the largest restaurant and not
+ * on the size of the catalogue.
+ */
+@Repository
+public class SimpleCatalogueRepository implements CatalogueRepository {
+    private static final int FETCH_SIZE = 500;
+    private static final String CATALOGUE_SQL = "SELECT"
+        + " r.id AS restaurant_id, r.name AS restaurant_name,"
+        + " m.id AS menu_id, m.name AS menu_name,"
+        + " s.id AS section_id, s.name AS section_name,"
+        + " i.id AS item_id, i.name AS item_name, i.description AS item_description, i.price_cents AS item_price_cents,"
+        + " f.name AS feature_name"
+        + " FROM restaurant r"
+        + " LEFT JOIN menu m ON m.restaurant_id = r.id"
+        + " LEFT JOIN section s ON s.menu_id = m.id"
+        + " LEFT JOIN item i ON i.section_id = s.id"
+        + " LEFT JOIN item_feature link ON link.item_id = i.id"
+        + " LEFT JOIN feature f ON f.id = link.feature_id"
+        + " ORDER BY r.id, m.id, s.id, i.id";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public SimpleCatalogueRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void forEachRestaurant(Consumer<Restaurant> consumer) {
+        final TreeAssembler treeAssembler = new TreeAssembler(consumer);
+        jdbcTemplate.query(
+            CATALOGUE_SQL,
+            preparedStatement -> preparedStatement.setFetchSize(FETCH_SIZE),
+            treeAssembler
+        );
+        treeAssembler.finishRestaurant();
+    }
+
+    /**
+     * Builds one restaurant at a time from the ordered rows. A new id at any level finishes the node at that
+     * level and everything below it.
+     */
+    private static class TreeAssembler implements RowCallbackHandler {
+        private final Consumer<Restaurant> consumer;
+
+        private Integer restaurantId;
+        private String restaurantName;
+        private Set<Menu> menus;
+
+        private Integer menuId;
+        private String menuName;
+        private Set<Section> sections;
+
+        private Integer sectionId;
+        private String sectionName;
+        private List<Item> items;
+
+        private Integer itemId;
+        private String itemName;
+        private String itemDescription;
+        private Money itemPrice;
+        private Set<Feature> features;
+
+        TreeAssembler(Consumer<Restaurant> consumer) {
+            this.consumer = consumer;
+        }
+
+        @Override
+        public void processRow(ResultSet rs) throws SQLException {
+            final int nextRestaurantId = rs.getInt("restaurant_id");
+            if (restaurantId == null || restaurantId != nextRestaurantId) {
+                finishRestaurant();
+                restaurantId = nextRestaurantId;
+                restaurantName = rs.getString("restaurant_name");
+                menus = new HashSet<>();
+            }
+
+            final Integer nextMenuId = nullableInt(rs, "menu_id");
+            if (nextMenuId == null) {
+                return;
+            }
+            if (!nextMenuId.equals(menuId)) {
+                finishMenu();
+                menuId = nextMenuId;
+                menuName = rs.getString("menu_name");
+                sections = new HashSet<>();
+            }
+
+            final Integer nextSectionId = nullableInt(rs, "section_id");
+            if (nextSectionId == null) {
+                return;
+            }
+            if (!nextSectionId.equals(sectionId)) {
+                finishSection();
+                sectionId = nextSectionId;
+                sectionName = rs.getString("section_name");
+                items = new ArrayList<>();
+            }
+
+            final Integer nextItemId = nullableInt(rs, "item_id");
+            if (nextItemId == null) {
+                return;
+            }
+            if (!nextItemId.equals(itemId)) {
+                finishItem();
+                itemId = nextItemId;
+                itemName = rs.getString("item_name");
+                itemDescription = rs.getString("item_description");
+                itemPrice = Money.ofCents(rs.getLong("item_price_cents"));
+                features = new HashSet<>();
+            }
+
+            final String featureName = rs.getString("feature_name");
+            if (featureName != null) {
+                features.add(new Feature(featureName));
+            }
+        }
+
+        void finishRestaurant() {
+            finishMenu();
+            if (restaurantId != null) {
+                consumer.accept(new SimpleRestaurant(restaurantId, restaurantName, menus));
+                restaurantId = null;
+            }
+        }
+
+        private void finishMenu() {
+            finishSection();
+            if (menuId != null) {
+                menus.add(new SimpleMenu(menuId, menuName, sections));
+                menuId = null;
+            }
+        }
+
+        private void finishSection() {
+            finishItem();
+            if (sectionId != null) {
+                sections.add(new SimpleSection(sectionId, sectionName, items));
+                sectionId = null;
+            }
+        }
+
+        private void finishItem() {
+            if (itemId != null) {
+                items.add(new SimpleItem(itemId, itemName, itemDescription, itemPrice, features));
+                itemId = null;
+            }
+        }
+
+        private static Integer nullableInt(ResultSet rs, String column) throws SQLException {
+            final int value = rs.getInt(column);
+            return rs.wasNull() ? null : value;
+        }
+    }
+}
@@ -1,14 +1,18 @@
 package com.claire.firstspring.repository;
 
 import com.claire.firstspring.model.Feature;
-import com.claire.firstspring.model.Item;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Optional;
 import java.util.Set;
 
+import static java.util.stream.Collectors.toList;
+import static java.util.stream.Collectors.toMap;
+import static java.util.stream.Collectors.toSet;
 import static org.apache.commons.lang3.ArrayUtils.toArray;
 
 @Repository
@@ -17,36 +21,77 @@ public class SimpleFeatureRepository implements FeatureRepository {
     private final JdbcTemplate jdbcTemplate;
     private final FeatureRowMapper featureRowMapper;
     private final IdGeneratingRepository idGeneratingRepository;
+    private final FeatureDictionary featureDictionary;
+    private final VersionRepository versionRepository;
+    private final FeatureBitmapIndex featureBitmapIndex;
 
-    public SimpleFeatureRepository(JdbcTemplate jdbcTemplate, FeatureRowMapper featureRowMapper, IdGeneratingRepository idGeneratingRepository) {
+    public SimpleFeatureRepository(
+        JdbcTemplate jdbcTemplate,
+        FeatureRowMapper featureRowMapper,
+        IdGeneratingRepository idGeneratingRepository,
+        FeatureDictionary featureDictionary,
+        VersionRepository versionRepository,
+        FeatureBitmapIndex featureBitmapIndex
+    ) {
         this.jdbcTemplate = jdbcTemplate;
         this.featureRowMapper = featureRowMapper;
         this.idGeneratingRepository = idGeneratingRepository;
+        this.featureDictionary = featureDictionary;
+        this.versionRepository = versionRepository;
+        this.featureBitmapIndex = featureBitmapIndex;
     }
 
     @Override
     public Set<Feature> itemFeatures(Integer itemId) {
-        return Set.copyOf(
-            jdbcTemplate.query(
-                "SELECT feature.name AS name " +
-                    "FROM feature INNER JOIN item_feature " +
-                    "ON feature.id = item_feature.feature_id " +
-                    "WHERE item_feature.item_id = ?",
-                toArray(itemId),
-                featureRowMapper
-            )
+        final List<Integer> featureIds = jdbcTemplate.queryForList(
+            "SELECT feature_id FROM item_feature WHERE item_id = ?",
+            toArray(itemId),
+            Integer.class
         );
+        return featureDictionary.names(featureIds)
+            .values()
+            .stream()
+            .map(Feature::new)
+            .collect(toSet());
     }
 
     @Override
     public Optional<Integer> id(Feature feature) {
-        return Optional.ofNullable(
-            jdbcTemplate.queryForObject(
-                "SELECT id FROM feature WHERE name = ?",
-                toArray(feature.name()),
-                Integer.class
-            )
-        );
+        return featureDictionary.id(feature.name());
+    }
+
+    @Override
+    public Map<Feature, Integer> ids(Set<Feature> features) {
+        return featureDictionary.ids(
+            features.stream()
+                .map(Feature::name)
+                .collect(toList())
+        )
+            .entrySet()
+            .stream()
+            .collect(toMap(entry -> new Feature(entry.getKey()), Map.Entry::getValue));
+    }
+
+    @Override
+    public Map<Feature, Integer> existingIds(Set<Feature> features) {
+        final Map<Feature, Integer> ids = ids(features);
+        final List<String> missingNames = features.stream()
+            .filter(feature -> !ids.containsKey(feature))
+            .map(Feature::name)
+            .sorted()
+            .collect(toList());
+
+        if (missingNames.size() == 1) {
+            throw new NoSuchElementException(
+                String.format("feature with feature name %s does not exist", missingNames.get(0))
+            );
+        }
+        if (!missingNames.isEmpty()) {
+            throw new NoSuchElementException(
+                String.format("features with feature names %s do not exist", String.join(", ", missingNames))
+            );
+        }
+        return ids;
     }
 
     @Override
@@ -67,10 +112,12 @@ public class SimpleFeatureRepository implements FeatureRepository {
             id,
             feature.name()
         );
+        featureDictionary.put(id, feature.name());
     }
 
     @Override
     public void delete(String featureName) {
+        final Optional<Integer> featureId = featureDictionary.id(featureName);
         final int updated = jdbcTemplate.update(
             "DELETE FROM feature WHERE name = ?",
             featureName
@@ -80,10 +127,13 @@ public class SimpleFeatureRepository implements FeatureRepository {
             throw new NoSuchElementException("could not delete a feature with feature name " + featureName +
                 ", perhaps it does not exist");
         }
+        featureDictionary.remove(featureName);
+        featureId.ifPresent(featureBitmapIndex::removeFeature);
     }
 
     @Override
     public void update(String currentName, String newName) {
+        versionRepository.touchItemsWithFeature(currentName);
         final int updated = jdbcTemplate.update(
             "UPDATE feature SET name = ? WHERE name = ?",
             newName,
@@ -94,6 +144,7 @@ public class SimpleFeatureRepository implements FeatureRepository {
             throw new NoSuchElementException("could not update a feature with feature name " + currentName +
                 ", perhaps it does not exist");
         }
+        featureDictionary.rename(currentName, newName);
     }
 
     @Override
@@ -1,62 +1,83 @@
 package com.claire.firstspring.repository;
 
 import com.claire.firstspring.model.Feature;
+import com.claire.firstspring.model.FeatureFilter;
 import com.claire.firstspring.model.Item;
+import com.claire.firstspring.model.ItemSort;
+import com.claire.firstspring.model.Money;
+import com.claire.firstspring.model.Page;
+import com.claire.firstspring.model.PriceRange;
 import com.claire.firstspring.model.SimpleItem;
 import org.apache.commons.lang3.Validate;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.stereotype.Repository;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Objects;
 import java.util.Set;
+import java.util.function.Function;
 
+import static java.util.Collections.emptyList;
+import static java.util.Collections.singletonMap;
+import static java.util.stream.Collectors.toList;
+import static java.util.stream.Collectors.toMap;
 import static org.apache.commons.lang3.ArrayUtils.toArray;
+import static org.apache.commons.lang3.ObjectUtils.defaultIfNull;
 
 @Repository
 public class SimpleItemRepository implements ItemRepository {
 
     private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
     private final ItemRowMapper itemRowMapper;
     private final IdGeneratingRepository idGeneratingRepository;
     private final FeatureRepository featureRepository;
+    private final TreeLoader treeLoader;
+    private final VersionRepository versionRepository;
+    private final ExistenceProbe existenceProbe;
+    private final ItemSearchIndex itemSearchIndex;
+    private final FeatureBitmapIndex featureBitmapIndex;
 
     public SimpleItemRepository(
         JdbcTemplate jdbcTemplate,
         ItemRowMapper itemRowMapper,
         IdGeneratingRepository idGeneratingRepository,
-        FeatureRepository featureRepository
+        FeatureRepository featureRepository,
+        TreeLoader treeLoader,
+        VersionRepository versionRepository,
+        ExistenceProbe existenceProbe,
+        ItemSearchIndex itemSearchIndex,
+        FeatureBitmapIndex featureBitmapIndex
     ) {
         this.jdbcTemplate = jdbcTemplate;
+        this.namedParameterJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
         this.itemRowMapper = itemRowMapper;
         this.idGeneratingRepository = idGeneratingRepository;
         this.featureRepository = featureRepository;
+        this.treeLoader = treeLoader;
+        this.versionRepository = versionRepository;
+        this.existenceProbe = existenceProbe;
+        this.itemSearchIndex = itemSearchIndex;
+        this.featureBitmapIndex = featureBitmapIndex;
     }
 
     @Override
     public List<Item> sectionItems(Integer sectionId) {
         Validate.notNull(sectionId, "section id cannot be null");
-        validateSectionExists(sectionId);
+        existenceProbe.requireExists("section", sectionId, "section with id %s does not exist");
 
-        return jdbcTemplate.query(
-            "SELECT * FROM item WHERE section_id = ?",
-            toArray(sectionId),
-            itemRowMapper
-        );
-    }
-
-    private void validateSectionExists(Integer sectionId) {
-        final boolean sectionExists = Objects.requireNonNull(
-            jdbcTemplate.queryForObject(
-                "SELECT count(*) FROM section WHERE id = ?",
+        return treeLoader.withFeatures(
+            jdbcTemplate.query(
+                "SELECT * FROM item WHERE section_id = ?",
                 toArray(sectionId),
-                Integer.class
+                itemRowMapper
             )
-        ) > 0;
-        if (!sectionExists) {
-            throw new NoSuchElementException(String.format("section with id %s does not exist", sectionId));
-        }
+        );
     }
 
     @Override
@@ -65,16 +86,20 @@ public class SimpleItemRepository implements ItemRepository {
         final int itemId = idGeneratingRepository.nextId(this);
         String name = item.name();
         String description = item.description();
-        double price = item.price();
+        Money price = item.price();
 
         jdbcTemplate.update(
-            "INSERT INTO item (id, name, description, price, section_id) VALUES (?, ?, ?, ?, ?)",
+            "INSERT INTO item (id, name, description, price_cents, section_id) VALUES (?, ?, ?, ?, ?)",
             itemId,
             name,
             description,
-            price,
+            price.cents(),
             sectionId
         );
+        existenceProbe.existing(getMainTableName(), itemId);
+        versionRepository.touchSections(List.of(sectionId));
+        itemSearchIndex.add(itemId, sectionId, name, description);
+        featureBitmapIndex.add(itemId, sectionId);
 
         if (!item.features().isEmpty()) {
             associateFeatures(itemId, item.features());
@@ -91,41 +116,167 @@ public class SimpleItemRepository implements ItemRepository {
 
     @Override
     public List<Item> list() {
-        return jdbcTemplate.query(
-            "SELECT * FROM item",
+        return treeLoader.withFeatures(
+            jdbcTemplate.query(
+                "SELECT * FROM item ORDER BY id",
+                itemRowMapper
+            )
+        );
+    }
+
+    @Override
+    public Page<Item> list(Integer after, int pageSize) {
+        Validate.isTrue(pageSize > 0, "page size must be positive but was %s", pageSize);
+
+        final List<Item> items = jdbcTemplate.query(
+            "SELECT * FROM item WHERE id > ? ORDER BY id LIMIT ?",
+            toArray(defaultIfNull(after, Page.BEFORE_FIRST), pageSize + 1),
             itemRowMapper
         );
+        return Page.of(items, pageSize, Item::id)
+            .withItems(treeLoader::withFeatures);
     }
 
     @Override
-    public Item getItem(Integer itemId) {
-        Validate.notNull(itemId, "client-error: item id cannot be null");
-        validateItemExists(itemId);
-        return jdbcTemplate.queryForObject(
-            "SELECT * FROM item WHERE id = ?",
-            itemRowMapper,
-            itemId
+    public Page<Item> list(FeatureFilter filter, Integer after, int pageSize) {
+        Validate.notNull(filter, "feature filter cannot be null");
+        Validate.isTrue(pageSize > 0, "page size must be positive but was %s", pageSize);
+
+        final List<Integer> ids = featureBitmapIndex.items(
+            filter.required()
+                .stream()
+                .map(anyOf -> featureRepository.ids(anyOf).values())
+                .collect(toList()),
+            featureRepository.ids(filter.excluded()).values(),
+            defaultIfNull(after, Page.BEFORE_FIRST),
+            pageSize + 1
         );
+        final List<Integer> pageIds = ids.subList(0, Math.min(ids.size(), pageSize));
+        final List<Item> items = pageIds.isEmpty()
+            ? emptyList()
+            : namedParameterJdbcTemplate.query(
+            "SELECT * FROM item WHERE id IN (:ids) ORDER BY id",
+            singletonMap("ids", pageIds),
+            itemRowMapper
+        );
+        // the cursor follows the bitmap, an id the rows read here do not show must not end the listing
+        return new Page<>(items, ids.size() > pageSize ? pageIds.get(pageSize - 1) : null)
+            .withItems(treeLoader::withFeatures);
     }
 
+    /**
+     * Price bounds and orders are answered from the {@code (price_cents, id)} index. The cursor is an item id;
+     * its price is read first, so the next page starts right after it in price and id order.
+     */
     @Override
-    public void validateItemExists(Integer itemId) {
-        final boolean itemExists = Objects.requireNonNull(
-            jdbcTemplate.queryForObject(
-                "SELECT count(*) FROM item WHERE id = ?",
-                toArray(itemId),
-                Integer.class
+    public Page<Item> list(PriceRange range, ItemSort sort, Integer after, int pageSize) {
+        Validate.notNull(range, "price range cannot be null");
+        Validate.notNull(sort, "item sort cannot be null");
+        Validate.isTrue(pageSize > 0, "page size must be positive but was %s", pageSize);
+
+        final MapSqlParameterSource parameters = new MapSqlParameterSource("limit", pageSize + 1);
+        final List<String> conditions = new ArrayList<>();
+        range.min().ifPresent(min -> {
+            conditions.add("price_cents >= :min");
+            parameters.addValue("min", min.cents());
+        });
+        range.max().ifPresent(max -> {
+            conditions.add("price_cents <= :max");
+            parameters.addValue("max", max.cents());
+        });
+        if (after != null) {
+            parameters.addValue("after", after);
+            if (sort == ItemSort.ID) {
+                conditions.add("id > :after");
+            } else {
+                parameters.addValue("afterPrice", priceCents(after));
+                conditions.add(sort == ItemSort.PRICE
+                    ? "(price_cents > :afterPrice OR (price_cents = :afterPrice AND id > :after))"
+                    : "(price_cents < :afterPrice OR (price_cents = :afterPrice AND id < :after))");
+            }
+        }
+
+        final List<Item> items = namedParameterJdbcTemplate.query(
+            "SELECT * FROM item"
+                + (conditions.isEmpty() ? "" : " WHERE " + String.join(" AND ", conditions))
+                + " ORDER BY " + orderBy(sort)
+                + " LIMIT :limit",
+            parameters,
+            itemRowMapper
+        );
+        return Page.of(items, pageSize, Item::id)
+            .withItems(treeLoader::withFeatures);
+    }
+
+    private long priceCents(Integer itemId) {
+        final List<Long> prices = jdbcTemplate.queryForList(
+            "SELECT price_cents FROM item WHERE id = ?",
+            toArray(itemId),
+            Long.class
+        );
+        if (prices.isEmpty()) {
+            throw new NoSuchElementException("item id " + itemId + " to list after does not exist");
+        }
+        return prices.get(0);
+    }
+
+    private static String orderBy(ItemSort sort) {
+        switch (sort) {
+            case PRICE:
+                return "price_cents, id";
+            case PRICE_DESCENDING:
+                return "price_cents DESC, id DESC";
+            default:
+                return "id";
+        }
+    }
+
+    @Override
+    public List<Item> search(String query, int limit) {
+        final List<Integer> rankedIds = itemSearchIndex.search(query, limit);
+        if (rankedIds.isEmpty()) {
+            return emptyList();
+        }
+
+        final Map<Integer, Item> items = treeLoader.withFeatures(
+            namedParameterJdbcTemplate.query(
+                "SELECT * FROM item WHERE id IN (:ids)",
+                singletonMap("ids", rankedIds),
+                itemRowMapper
             )
-        ) > 0;
+        )
+            .stream()
+            .collect(toMap(Item::id, Function.identity()));
+        return rankedIds.stream()
+            .map(items::get)
+            .filter(Objects::nonNull)
+            .collect(toList());
+    }
 
-        if (!itemExists) {
+    @Override
+    public Item getItem(Integer itemId) {
+        Validate.notNull(itemId, "client-error: item id cannot be null");
+        final List<Item> items = jdbcTemplate.query(
+            "SELECT * FROM item WHERE id = ?",
+            toArray(itemId),
+            itemRowMapper
+        );
+        if (items.isEmpty()) {
             throw new NoSuchElementException("item id does not exist");
         }
+        existenceProbe.existing(getMainTableName(), itemId);
+        return treeLoader.withFeatures(items).get(0);
+    }
+
+    @Override
+    public void validateItemExists(Integer itemId) {
+        existenceProbe.requireExists(getMainTableName(), itemId, "item id does not exist");
     }
 
     @Override
     public void deleteItem(Integer itemId) {
         Validate.notNull(itemId, "item id cannot be null");
+        versionRepository.touchItems(List.of(itemId));
         final int updated = jdbcTemplate.update(
             "DELETE FROM item WHERE id = ?",
             itemId
@@ -133,54 +284,51 @@ public class SimpleItemRepository implements ItemRepository {
         if (updated < 1) {
             throw new NoSuchElementException("could not delete an item with id " + itemId + ", perhaps it does not exist");
         }
+        existenceProbe.deleted(getMainTableName(), itemId);
+        itemSearchIndex.remove(List.of(itemId));
+        featureBitmapIndex.remove(List.of(itemId));
     }
 
     @Override
     public void updateItemIgnoringFeatures(Item item) {
         Validate.notNull(item.id());
         final int updated = jdbcTemplate.update(
-            "UPDATE item SET name = ?, description = ?, price = ? WHERE id =?",
+            "UPDATE item SET name = ?, description = ?, price_cents = ? WHERE id =?",
             item.name(),
             item.description(),
-            item.price(),
+            item.price().cents(),
             item.id()
         );
 
         if (updated < 1) {
             throw new NoSuchElementException("could not update and item with id " + item.id() + ", perhaps item does not exist");
         }
+        versionRepository.touchItems(List.of(item.id()));
+        itemSearchIndex.update(item.id(), item.name(), item.description());
     }
 
     @Override
     public void associateFeatures(Integer itemId, Set<Feature> features) {
         Validate.notNull(itemId);
         Validate.notEmpty(features, "features cannot be empty");
-        validateFeaturesExists(features);
+        final List<Integer> featureIds = featureIds(features);
         validateItemExists(itemId);
 
-        for (Feature feature : features) {
-            final Integer featureId = featureRepository.id(feature).orElseThrow();
-            insertRowFor(itemId, featureId);
-        }
+        jdbcTemplate.batchUpdate(
+            "INSERT INTO item_feature (item_id, feature_id) VALUES (?, ?)",
+            featureIds,
+            featureIds.size(),
+            (ps, featureId) -> {
+                ps.setInt(1, itemId);
+                ps.setInt(2, featureId);
+            }
+        );
+        versionRepository.touchItems(List.of(itemId));
+        featureBitmapIndex.associate(itemId, featureIds);
     }
 
-    private void validateFeaturesExists(Set<Feature> features) {
-        for (Feature feature : features) {
-            String featureName = feature.name();
-            final boolean featuresExists = Objects.requireNonNull(
-                jdbcTemplate.queryForObject(
-                    "SELECT count(*) FROM feature WHERE name = ?",
-                    toArray(featureName),
-                    Integer.class
-                )
-            ) > 0;
-
-            if (!featuresExists) {
-                throw new NoSuchElementException(
-                    String.format("feature with feature name %s does not exist", featureName)
-                );
-            }
-        }
+    private List<Integer> featureIds(Set<Feature> features) {
+        return new ArrayList<>(featureRepository.existingIds(features).values());
     }
 
     @Override
@@ -188,32 +336,22 @@ public class SimpleItemRepository implements ItemRepository {
         Validate.notNull(itemId);
         Validate.notEmpty(features, "features cannot be empty");
         validateItemExists(itemId);
-        for (Feature feature : features) {
-            final Integer featureId = featureRepository.id(feature).orElseThrow();
-            removeRowFor(itemId, featureId);
-        }
-    }
+        final List<Integer> featureIds = featureIds(features);
 
-    private void removeRowFor(Integer itemId, Integer featureId) {
-        final int updated = jdbcTemplate.update(
-            "DELETE FROM item_feature WHERE item_id = ? AND feature_id = ?",
-            itemId,
-            featureId
+        final int updated = namedParameterJdbcTemplate.update(
+            "DELETE FROM item_feature WHERE item_id = :itemId AND feature_id IN (:featureIds)",
+            new MapSqlParameterSource()
+                .addValue("itemId", itemId)
+                .addValue("featureIds", featureIds)
         );
 
-        if (updated < 1) {
+        if (updated < featureIds.size()) {
             throw new NoSuchElementException(
-                String.format("cannot find matching records for parameters item id = %s, feature id = %s", itemId, featureId)
+                String.format("cannot find matching records for parameters item id = %s, feature ids = %s", itemId, featureIds)
             );
         }
-    }
-
-    private void insertRowFor(Integer itemId, Integer featureId) {
-        jdbcTemplate.update(
-            "INSERT INTO item_feature (item_id, feature_id) VALUES (?, ?)",
-            itemId,
-            featureId
-        );
+        versionRepository.touchItems(List.of(itemId));
+        featureBitmapIndex.disassociate(itemId, featureIds);
     }
 
 
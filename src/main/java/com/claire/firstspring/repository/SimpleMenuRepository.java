@@ -1,6 +1,8 @@
 package com.claire.firstspring.repository;
 
+import com.claire.firstspring.model.Depth;
 import com.claire.firstspring.model.Menu;
+import com.claire.firstspring.model.Page;
 import com.claire.firstspring.model.SimpleMenu;
 import org.apache.commons.lang3.Validate;
 import org.springframework.jdbc.core.JdbcTemplate;
@@ -8,11 +10,11 @@ import org.springframework.stereotype.Repository;
 
 import java.util.List;
 import java.util.NoSuchElementException;
-import java.util.Objects;
 import java.util.Optional;
 
 import static java.util.Collections.emptySet;
 import static org.apache.commons.lang3.ArrayUtils.toArray;
+import static org.apache.commons.lang3.ObjectUtils.defaultIfNull;
 
 @Repository
 public class SimpleMenuRepository implements MenuRepository {
@@ -20,86 +22,103 @@ public class SimpleMenuRepository implements MenuRepository {
     private final JdbcTemplate jdbcTemplate;
     private final MenuRowMapper menuRowMapper;
     private final IdGeneratingRepository idGeneratingRepository;
-
-    public SimpleMenuRepository(JdbcTemplate jdbcTemplate, MenuRowMapper menuRowMapper, IdGeneratingRepository idGeneratingRepository) {
+    private final TreeLoader treeLoader;
+    private final VersionRepository versionRepository;
+    private final ExistenceProbe existenceProbe;
+
+    public SimpleMenuRepository(
+        JdbcTemplate jdbcTemplate,
+        MenuRowMapper menuRowMapper,
+        IdGeneratingRepository idGeneratingRepository,
+        TreeLoader treeLoader,
+        VersionRepository versionRepository,
+        ExistenceProbe existenceProbe
+    ) {
         this.jdbcTemplate = jdbcTemplate;
         this.menuRowMapper = menuRowMapper;
         this.idGeneratingRepository = idGeneratingRepository;
+        this.treeLoader = treeLoader;
+        this.versionRepository = versionRepository;
+        this.existenceProbe = existenceProbe;
     }
 
     @Override
     public List<Menu> menus() {
         final List<Menu> menus = jdbcTemplate.query(
-            "SELECT * FROM menu LIMIT 101",
+            "SELECT * FROM menu ORDER BY id",
             menuRowMapper
         );
+        return treeLoader.withSections(menus);
+    }
 
-        if (menus.size() > 100) {
-            final Integer menusCount = jdbcTemplate.queryForObject(
-                "SELECT COUNT(*) FROM menu",
-                Integer.class
-            );
-            throw new RuntimeException("too many rows of menus in database: " + menusCount);
-        }
-        return menus;
+    @Override
+    public Page<Menu> menus(Integer after, int pageSize) {
+        return menus(after, pageSize, Depth.ITEMS);
+    }
+
+    @Override
+    public Page<Menu> menus(Integer after, int pageSize, Depth depth) {
+        Validate.notNull(depth, "depth cannot be null");
+        Validate.isTrue(pageSize > 0, "page size must be positive but was %s", pageSize);
+
+        final List<Menu> menus = jdbcTemplate.query(
+            "SELECT * FROM menu WHERE id > ? ORDER BY id LIMIT ?",
+            toArray(defaultIfNull(after, Page.BEFORE_FIRST), pageSize + 1),
+            menuRowMapper
+        );
+        return Page.of(menus, pageSize, Menu::id)
+            .withItems(page -> treeLoader.withSections(page, depth));
     }
 
     @Override
     public Optional<Menu> menu(Integer menuId) {
+        return menu(menuId, Depth.ITEMS);
+    }
+
+    @Override
+    public Optional<Menu> menu(Integer menuId, Depth depth) {
         Validate.notNull(menuId);
-        validateMenuExists(menuId);
+        Validate.notNull(depth, "depth cannot be null");
 
-        Menu menu = jdbcTemplate.queryForObject(
+        List<Menu> menus = jdbcTemplate.query(
             "SELECT * FROM menu WHERE id = ?",
             toArray(menuId),
             menuRowMapper
         );
-        return Optional.ofNullable(menu);
-    }
-
-    private void validateMenuExists(Integer menuId) {
-        final boolean menuExists = Objects.requireNonNull(
-            jdbcTemplate.queryForObject(
-                "SELECT count(*) FROM menu WHERE id = ?",
-                toArray(menuId),
-                Integer.class
-            )
-        ) > 0;
-
-        if (!menuExists) {
+        if (menus.isEmpty()) {
             throw new NoSuchElementException(
                 String.format("menu with menu id %s does not exist in menu table", menuId)
             );
         }
+        existenceProbe.existing(getMainTableName(), menuId);
+        return treeLoader.withSections(menus, depth)
+            .stream()
+            .findFirst();
+    }
+
+    private void validateMenuExists(Integer menuId) {
+        existenceProbe.requireExists(getMainTableName(), menuId, "menu with menu id %s does not exist in menu table");
     }
 
     @Override
     public List<Menu> restaurantMenus(Integer restaurantId) {
         Validate.notNull(restaurantId);
         validateRestaurantExists(restaurantId);
-        return jdbcTemplate.query(
-            "SELECT * FROM menu WHERE restaurant_id = ?",
-            toArray(restaurantId),
-            menuRowMapper
+        return treeLoader.withSections(
+            jdbcTemplate.query(
+                "SELECT * FROM menu WHERE restaurant_id = ?",
+                toArray(restaurantId),
+                menuRowMapper
+            )
         );
     }
 
     private void validateRestaurantExists(Integer restaurantId) {
-        final boolean restaurantExists = Objects.requireNonNull(
-            jdbcTemplate.queryForObject(
-                "SELECT count(*) FROM restaurant WHERE id = ?",
-                toArray(restaurantId),
-                Integer.class
-            )
-        ) > 0;
-
-        if (!restaurantExists) {
-            throw new NoSuchElementException(
-                String.format(
-                    "restaurant with restaurant id %s does not exist in restaurant able",
-                    restaurantId)
-            );
-        }
+        existenceProbe.requireExists(
+            "restaurant",
+            restaurantId,
+            "restaurant with restaurant id %s does not exist in restaurant able"
+        );
     }
 
     @Override
@@ -115,6 +134,8 @@ public class SimpleMenuRepository implements MenuRepository {
             menuName,
             restaurantId
         );
+        existenceProbe.existing(getMainTableName(), menuId);
+        versionRepository.touchRestaurants(List.of(restaurantId));
 
         return new SimpleMenu(
             menuId,
@@ -126,6 +147,7 @@ public class SimpleMenuRepository implements MenuRepository {
     @Override
     public void delete(Integer menuId) {
         Validate.notNull(menuId, "menu id cannot be empty");
+        versionRepository.touchMenus(List.of(menuId));
         final int deleted = jdbcTemplate.update(
             "DELETE from menu WHERE id = ?",
             menuId
@@ -134,6 +156,7 @@ public class SimpleMenuRepository implements MenuRepository {
         if (deleted < 1) {
             throw new NoSuchElementException("could not find menu id " + menuId);
         }
+        existenceProbe.deletedWithChildren();
 
     }
 
@@ -157,6 +180,7 @@ public class SimpleMenuRepository implements MenuRepository {
                 )
             );
         }
+        versionRepository.touchMenus(List.of(id));
     }
 
     @Override
@@ -1,5 +1,7 @@
 package com.claire.firstspring.repository;
 
+import com.claire.firstspring.model.Depth;
+import com.claire.firstspring.model.Page;
 import com.claire.firstspring.model.Restaurant;
 import com.claire.firstspring.model.SimpleRestaurant;
 import org.apache.commons.lang3.Validate;
@@ -8,11 +10,11 @@ import org.springframework.stereotype.Repository;
 
 import java.util.List;
 import java.util.NoSuchElementException;
-import java.util.Objects;
 import java.util.Optional;
 
 import static java.util.Collections.emptySet;
 import static org.apache.commons.lang3.ArrayUtils.toArray;
+import static org.apache.commons.lang3.ObjectUtils.defaultIfNull;
 
 @Repository
 public class SimpleRestaurantRepository implements RestaurantRepository {
@@ -20,60 +22,81 @@ public class SimpleRestaurantRepository implements RestaurantRepository {
     private final JdbcTemplate jdbcTemplate;
     private final RestaurantRowMapper restaurantRowMapper;
     private final IdGeneratingRepository idGeneratingRepository;
-
-
-    public SimpleRestaurantRepository(JdbcTemplate jdbcTemplate, RestaurantRowMapper restaurantRowMapper, IdGeneratingRepository idGeneratingRepository) {
+    private final TreeLoader treeLoader;
+    private final VersionRepository versionRepository;
+    private final ExistenceProbe existenceProbe;
+
+
+    public SimpleRestaurantRepository(
+        JdbcTemplate jdbcTemplate,
+        RestaurantRowMapper restaurantRowMapper,
+        IdGeneratingRepository idGeneratingRepository,
+        TreeLoader treeLoader,
+        VersionRepository versionRepository,
+        ExistenceProbe existenceProbe
+    ) {
         this.jdbcTemplate = jdbcTemplate;
         this.restaurantRowMapper = restaurantRowMapper;
         this.idGeneratingRepository = idGeneratingRepository;
+        this.treeLoader = treeLoader;
+        this.versionRepository = versionRepository;
+        this.existenceProbe = existenceProbe;
     }
 
     @Override
     public List<Restaurant> restaurants() {
         final List<Restaurant> restaurants = jdbcTemplate.query(
-            "SELECT * FROM restaurant LIMIT 101",
+            "SELECT * FROM restaurant ORDER BY id",
             restaurantRowMapper
         );
-        if (restaurants.size() > 100) {
-            final Integer restaurantCount = jdbcTemplate.queryForObject(
-                "SELECT COUNT(*) FROM restaurant",
-                Integer.class
-            );
-            throw new RuntimeException("too many rows of restaurants in database: " + restaurantCount);
-        }
-        return restaurants;
+        return treeLoader.withMenus(restaurants);
+    }
+
+    @Override
+    public Page<Restaurant> restaurants(Integer after, int pageSize) {
+        return restaurants(after, pageSize, Depth.ITEMS);
+    }
+
+    @Override
+    public Page<Restaurant> restaurants(Integer after, int pageSize, Depth depth) {
+        Validate.notNull(depth, "depth cannot be null");
+        Validate.isTrue(pageSize > 0, "page size must be positive but was %s", pageSize);
+
+        final List<Restaurant> restaurants = jdbcTemplate.query(
+            "SELECT * FROM restaurant WHERE id > ? ORDER BY id LIMIT ?",
+            toArray(defaultIfNull(after, Page.BEFORE_FIRST), pageSize + 1),
+            restaurantRowMapper
+        );
+        return Page.of(restaurants, pageSize, Restaurant::id)
+            .withItems(page -> treeLoader.withMenus(page, depth));
     }
 
     @Override
     public Optional<Restaurant> restaurant(Integer id) {
+        return restaurant(id, Depth.ITEMS);
+    }
+
+    @Override
+    public Optional<Restaurant> restaurant(Integer id, Depth depth) {
         Validate.notNull(id, "restaurant id cannot be empty");
-        validateRestaurantExists(id);
+        Validate.notNull(depth, "depth cannot be null");
 
-        List<Restaurant> listOfRestaurant = jdbcTemplate.query(
-            "SELECT * FROM restaurant LIMIT 101",
+        List<Restaurant> restaurants = jdbcTemplate.query(
+            "SELECT * FROM restaurant WHERE id = ?",
+            toArray(id),
             restaurantRowMapper
         );
-        if (listOfRestaurant.size() > 100) {
-            throw new RuntimeException("too many rows of restaurants in database");
+        if (restaurants.isEmpty()) {
+            throw new NoSuchElementException(String.format("restaurant id %s does not exist", id));
         }
-        return listOfRestaurant
+        existenceProbe.existing(getMainTableName(), id);
+        return treeLoader.withMenus(restaurants, depth)
             .stream()
-            .filter(r -> r.id().equals(id))
             .findFirst();
     }
 
     private void validateRestaurantExists(Integer id) {
-        final boolean restaurantExists = Objects.requireNonNull(
-            jdbcTemplate.queryForObject(
-            "SELECT count(*) FROM restaurant WHERE id = ?",
-            toArray(id),
-            Integer.class
-            )
-        ) > 0;
-
-        if (!restaurantExists) {
-            throw new NoSuchElementException(String.format("restaurant id %s does not exist", id));
-        }
+        existenceProbe.requireExists(getMainTableName(), id, "restaurant id %s does not exist");
     }
 
     @Override
@@ -87,6 +110,7 @@ public class SimpleRestaurantRepository implements RestaurantRepository {
             restaurantId,
             restaurantName
         );
+        existenceProbe.existing(getMainTableName(), restaurantId);
 
         return new SimpleRestaurant(
             restaurantId,
@@ -111,6 +135,7 @@ public class SimpleRestaurantRepository implements RestaurantRepository {
                     ", perhaps it does not exist."
             );
         }
+        existenceProbe.deletedWithChildren();
 
     }
 
@@ -135,18 +160,10 @@ public class SimpleRestaurantRepository implements RestaurantRepository {
                 )
             );
         }
+        versionRepository.touchRestaurants(List.of(id));
 
     }
 
-    public Optional<Restaurant> restaurant2(Integer id) {
-        Restaurant restaurant = jdbcTemplate.queryForObject(
-            "SELECT * FROM restaurant WHERE id = ?",
-            toArray(id),
-            restaurantRowMapper
-        );
-        return Optional.ofNullable(restaurant);
-    }
-
     @Override
     public String getMainTableName() {
         return "restaurant";
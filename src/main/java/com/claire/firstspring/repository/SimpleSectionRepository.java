@@ -1,5 +1,7 @@
 package com.claire.firstspring.repository;
 
+import com.claire.firstspring.model.Depth;
+import com.claire.firstspring.model.Page;
 import com.claire.firstspring.model.Section;
 import com.claire.firstspring.model.SimpleSection;
 import org.apache.commons.lang3.Validate;
@@ -9,11 +11,11 @@ import org.springframework.stereotype.Repository;
 
 import java.util.List;
 import java.util.NoSuchElementException;
-import java.util.Objects;
 import java.util.Optional;
 
 import static java.util.Collections.emptyList;
 import static org.apache.commons.lang3.ArrayUtils.toArray;
+import static org.apache.commons.lang3.ObjectUtils.defaultIfNull;
 
 @Repository
 public class SimpleSectionRepository implements SectionRepository {
@@ -21,41 +23,88 @@ public class SimpleSectionRepository implements SectionRepository {
     private final JdbcTemplate jdbcTemplate;
     private final SectionRowMapper sectionRowMapper;
     private final IdGeneratingRepository idGeneratingRepository;
-
-
-    public SimpleSectionRepository(JdbcTemplate jdbcTemplate, SectionRowMapper sectionRowMapper, IdGeneratingRepository idGeneratingRepository) {
+    private final TreeLoader treeLoader;
+    private final VersionRepository versionRepository;
+    private final ExistenceProbe existenceProbe;
+
+
+    public SimpleSectionRepository(
+        JdbcTemplate jdbcTemplate,
+        SectionRowMapper sectionRowMapper,
+        IdGeneratingRepository idGeneratingRepository,
+        TreeLoader treeLoader,
+        VersionRepository versionRepository,
+        ExistenceProbe existenceProbe
+    ) {
         this.jdbcTemplate = jdbcTemplate;
         this.sectionRowMapper = sectionRowMapper;
         this.idGeneratingRepository = idGeneratingRepository;
+        this.treeLoader = treeLoader;
+        this.versionRepository = versionRepository;
+        this.existenceProbe = existenceProbe;
     }
 
     @Override
     public List<Section> sections() {
-        return jdbcTemplate.query(
-            "SELECT * FROM section LIMIT 101",
+        return treeLoader.withItems(
+            jdbcTemplate.query(
+                "SELECT * FROM section ORDER BY id",
+                sectionRowMapper
+            )
+        );
+    }
+
+    @Override
+    public Page<Section> sections(Integer after, int pageSize) {
+        return sections(after, pageSize, Depth.ITEMS);
+    }
+
+    @Override
+    public Page<Section> sections(Integer after, int pageSize, Depth depth) {
+        Validate.notNull(depth, "depth cannot be null");
+        Validate.isTrue(pageSize > 0, "page size must be positive but was %s", pageSize);
+
+        final List<Section> sections = jdbcTemplate.query(
+            "SELECT * FROM section WHERE id > ? ORDER BY id LIMIT ?",
+            toArray(defaultIfNull(after, Page.BEFORE_FIRST), pageSize + 1),
             sectionRowMapper
         );
+        return Page.of(sections, pageSize, Section::id)
+            .withItems(page -> treeLoader.withItems(page, depth));
     }
 
     @Override
     public Optional<Section> section(Integer id) {
-        validateSectionExists(id);
-        Section section = jdbcTemplate.queryForObject(
+        return section(id, Depth.ITEMS);
+    }
+
+    @Override
+    public Optional<Section> section(Integer id, Depth depth) {
+        Validate.notNull(depth, "depth cannot be null");
+        List<Section> sections = jdbcTemplate.query(
             "SELECT * FROM section WHERE id = ?",
             toArray(id),
             sectionRowMapper
         );
-        return Optional.ofNullable(section);
+        if (sections.isEmpty()) {
+            throw new NoSuchElementException(String.format("section id %s does not exist", id));
+        }
+        existenceProbe.existing(getMainTableName(), id);
+        return treeLoader.withItems(sections, depth)
+            .stream()
+            .findFirst();
     }
 
     @Override
     public List<Section> menuSections(Integer menuId) {
         Validate.notNull(menuId, "menu id cannot be null");
         validateMenuExists(menuId);
-        return jdbcTemplate.query(
-            "SELECT * FROM section WHERE menu_id = ?",
-            toArray(menuId),
-            sectionRowMapper
+        return treeLoader.withItems(
+            jdbcTemplate.query(
+                "SELECT * FROM section WHERE menu_id = ?",
+                toArray(menuId),
+                sectionRowMapper
+            )
         );
     }
 
@@ -75,6 +124,8 @@ public class SimpleSectionRepository implements SectionRepository {
             sectionName,
             menuId
         );
+        existenceProbe.existing(getMainTableName(), sectionId);
+        versionRepository.touchMenus(List.of(menuId));
 
         Validate.isTrue(
             updated > 0,
@@ -93,6 +144,7 @@ public class SimpleSectionRepository implements SectionRepository {
     @Override
     public void deleteSection(Integer sectionId) {
         Validate.notNull(sectionId);
+        versionRepository.touchSections(List.of(sectionId));
 
         final int deleted = jdbcTemplate.update(
             "DELETE FROM section WHERE id = ?",
@@ -102,6 +154,7 @@ public class SimpleSectionRepository implements SectionRepository {
         if (deleted < 1) {
             throw new NoSuchElementException("could not find section with section id " + sectionId);
         }
+        existenceProbe.deletedWithChildren();
     }
 
     @Override
@@ -118,6 +171,7 @@ public class SimpleSectionRepository implements SectionRepository {
                 String.format("could not update section name %s, perhaps section with id %s does not exist", name, id)
             );
         }
+        versionRepository.touchSections(List.of(id));
     }
 
     @Override
@@ -126,32 +180,6 @@ public class SimpleSectionRepository implements SectionRepository {
     }
 
     private void validateMenuExists(Integer menuId) {
-        final boolean menuExists = Objects.requireNonNull(
-            jdbcTemplate.queryForObject(
-                "SELECT count(*) FROM menu WHERE id = ?",
-                toArray(menuId),
-                Integer.class
-            )
-        ) > 0;
-
-        if (!menuExists) {
-            throw new NoSuchElementException(String.format(
-                "menu id %s does not exist",
-                menuId));
-        }
-    }
-
-    private void validateSectionExists(Integer sectionId) {
-        final boolean sectionExists = Objects.requireNonNull(
-            jdbcTemplate.queryForObject(
-            "SELECT count(*) FROM section WHERE id = ?",
-            toArray(sectionId),
-            Integer.class
-            )
-        ) > 0;
-
-        if (!sectionExists) {
-            throw new NoSuchElementException(String.format("section id %s does not exist", sectionId));
-        }
+        existenceProbe.requireExists("menu", menuId, "menu id %s does not exist");
     }
 }
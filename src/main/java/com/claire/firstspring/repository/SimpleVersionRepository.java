@@ -0,0 +1,111 @@
+package com.claire.firstspring.repository;
+
+import com.google.common.collect.Lists;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import static java.util.Collections.singletonMap;
+import static org.apache.commons.lang3.ArrayUtils.toArray;
+
+/**
+ * Bumps a node together with its ancestors in one multi-table {@code UPDATE}, which updates every matched row
+ * once even when several of the given nodes share an ancestor. Nodes that are about to be deleted are touched
+ * before the delete, while the path to their ancestors still exists.
+ */
+@Repository
+public class SimpleVersionRepository implements VersionRepository {
+    private static final int MAX_IDS_PER_QUERY = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    public SimpleVersionRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedParameterJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+    }
+
+    @Override
+    public Optional<Long> restaurantVersion(Integer restaurantId) {
+        return version("SELECT version FROM restaurant WHERE id = ?", restaurantId);
+    }
+
+    @Override
+    public Optional<Long> menuVersion(Integer menuId) {
+        return version("SELECT version FROM menu WHERE id = ?", menuId);
+    }
+
+    @Override
+    public Optional<Long> sectionVersion(Integer sectionId) {
+        return version("SELECT version FROM section WHERE id = ?", sectionId);
+    }
+
+    @Override
+    public void touchRestaurants(Collection<Integer> restaurantIds) {
+        touch("UPDATE restaurant r SET r.version = r.version + 1 WHERE r.id IN (:ids)", restaurantIds);
+    }
+
+    @Override
+    public void touchMenus(Collection<Integer> menuIds) {
+        touch(
+            "UPDATE menu m JOIN restaurant r ON r.id = m.restaurant_id"
+                + " SET m.version = m.version + 1, r.version = r.version + 1"
+                + " WHERE m.id IN (:ids)",
+            menuIds
+        );
+    }
+
+    @Override
+    public void touchSections(Collection<Integer> sectionIds) {
+        touch(
+            "UPDATE section s JOIN menu m ON m.id = s.menu_id JOIN restaurant r ON r.id = m.restaurant_id"
+                + " SET s.version = s.version + 1, m.version = m.version + 1, r.version = r.version + 1"
+                + " WHERE s.id IN (:ids)",
+            sectionIds
+        );
+    }
+
+    @Override
+    public void touchItems(Collection<Integer> itemIds) {
+        touch(
+            "UPDATE item i JOIN section s ON s.id = i.section_id JOIN menu m ON m.id = s.menu_id"
+                + " JOIN restaurant r ON r.id = m.restaurant_id"
+                + " SET i.version = i.version + 1, s.version = s.version + 1, m.version = m.version + 1,"
+                + " r.version = r.version + 1"
+                + " WHERE i.id IN (:ids)",
+            itemIds
+        );
+    }
+
+    @Override
+    public void touchItemsWithFeature(String featureName) {
+        jdbcTemplate.update(
+            "UPDATE item i JOIN item_feature link ON link.item_id = i.id JOIN feature f ON f.id = link.feature_id"
+                + " JOIN section s ON s.id = i.section_id JOIN menu m ON m.id = s.menu_id"
+                + " JOIN restaurant r ON r.id = m.restaurant_id"
+                + " SET i.version = i.version + 1, s.version = s.version + 1, m.version = m.version + 1,"
+                + " r.version = r.version + 1"
+                + " WHERE f.name = ?",
+            toArray(featureName)
+        );
+    }
+
+    private Optional<Long> version(String sql, Integer id) {
+        final List<Long> versions = jdbcTemplate.queryForList(sql, toArray(id), Long.class);
+        return versions.stream().findFirst();
+    }
+
+    private void touch(String sql, Collection<Integer> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        for (List<Integer> chunk : Lists.partition(new ArrayList<>(ids), MAX_IDS_PER_QUERY)) {
+            namedParameterJdbcTemplate.update(sql, singletonMap("ids", chunk));
+        }
+    }
+}
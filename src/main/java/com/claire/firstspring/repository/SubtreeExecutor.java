@@ -0,0 +1,84 @@
+package com.claire.firstspring.repository;
+
+import com.google.common.collect.Lists;
+import org.apache.commons.lang3.Validate;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import static java.util.stream.Collectors.toList;
+
+/**
+ * Loads the subtrees of independent groups of roots at the same time, each group on an executor thread with its
+ * own pooled connection, and puts the results back together in the original order. Off unless
+ * {@code database.tree-loader.parallel} is set, and only used outside transactions: a caller in a transaction
+ * holds its connection while the executor threads borrow more from the same pool, and they could neither see its
+ * uncommitted writes nor share its snapshot. When the executor is busy the caller loads the group itself.
+ */
+@Component
+public class SubtreeExecutor implements DisposableBean {
+    private final ThreadPoolExecutor executor;
+    private final int threads;
+    private final int minRootsPerTask;
+
+    public SubtreeExecutor(
+        @Value("${database.tree-loader.parallel:false}") boolean parallel,
+        @Value("${database.tree-loader.threads:4}") int threads,
+        @Value("${database.tree-loader.min-roots-per-task:50}") int minRootsPerTask
+    ) {
+        Validate.isTrue(threads > 0, "tree loader threads must be positive but was %s", threads);
+        Validate.isTrue(minRootsPerTask > 0, "tree loader roots per task must be positive but was %s", minRootsPerTask);
+        this.threads = threads;
+        this.minRootsPerTask = minRootsPerTask;
+        this.executor = parallel
+            ? new ThreadPoolExecutor(
+                threads,
+                threads,
+                0L,
+                TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(threads),
+                new CustomizableThreadFactory("tree-loader-"),
+                new ThreadPoolExecutor.CallerRunsPolicy()
+            )
+            : null;
+    }
+
+    public <T> List<T> load(List<T> roots, Function<List<T>, List<T>> loader) {
+        if (executor == null || roots.size() < 2 * minRootsPerTask || TransactionSynchronizationManager.isActualTransactionActive()) {
+            return loader.apply(roots);
+        }
+
+        final int rootsPerTask = Math.max(minRootsPerTask, (roots.size() + threads - 1) / threads);
+        final List<CompletableFuture<List<T>>> tasks = Lists.partition(roots, rootsPerTask)
+            .stream()
+            .map(group -> CompletableFuture.supplyAsync(() -> loader.apply(group), executor))
+            .collect(toList());
+        try {
+            return tasks.stream()
+                .flatMap(task -> task.join().stream())
+                .collect(toList());
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public void destroy() {
+        if (executor != null) {
+            executor.shutdown();
+        }
+    }
+}
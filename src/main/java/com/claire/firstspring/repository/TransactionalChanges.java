@@ -0,0 +1,100 @@
+package com.claire.firstspring.repository;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Changes to process local state that are only applied once the transaction staging them commits.
+ */
+public class TransactionalChanges<C> {
+    private final Consumer<List<C>> apply;
+
+    public TransactionalChanges(Consumer<List<C>> apply) {
+        this.apply = apply;
+    }
+
+    /**
+     * Runs {@code action} once the current transaction commits, or right away outside of a transaction.
+     */
+    public static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    /**
+     * Runs {@code action} once the current transaction completes, whether it commits or not, or right away
+     * outside of a transaction.
+     */
+    public static void afterCompletion(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                action.run();
+            }
+        });
+    }
+
+    /**
+     * The value the current transaction holds under {@code key}, created on first use, or {@code null} outside
+     * of a transaction.
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> T transactionLocal(Object key, Supplier<T> create) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return null;
+        }
+        T value = (T) TransactionSynchronizationManager.getResource(key);
+        if (value == null) {
+            value = create.get();
+            TransactionSynchronizationManager.bindResource(key, value);
+            afterCompletion(() -> TransactionSynchronizationManager.unbindResourceIfPossible(key));
+        }
+        return value;
+    }
+
+    /**
+     * Stages {@code change} until the current transaction commits, or applies it right away outside of a
+     * transaction.
+     */
+    public void stage(C change) {
+        final List<C> pending = transactionLocal(this, () -> {
+            final List<C> changes = new ArrayList<>();
+            afterCommit(() -> apply.accept(changes));
+            return changes;
+        });
+        if (pending == null) {
+            apply.accept(List.of(change));
+            return;
+        }
+        pending.add(change);
+    }
+
+    /**
+     * The changes the current transaction staged so far, in order.
+     */
+    @SuppressWarnings("unchecked")
+    public List<C> pending() {
+        final List<C> pending = (List<C>) TransactionSynchronizationManager.getResource(this);
+        return pending == null
+            ? List.of()
+            : Collections.unmodifiableList(pending);
+    }
+}
@@ -0,0 +1,128 @@
+package com.claire.firstspring.repository;
+
+import com.claire.firstspring.model.Feature;
+import com.claire.firstspring.model.Item;
+import com.claire.firstspring.model.Menu;
+import com.claire.firstspring.model.Restaurant;
+import com.claire.firstspring.model.Section;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.apache.commons.collections4.CollectionUtils.emptyIfNull;
+
+/**
+ * Everything one write changes in the restaurant tree, collected first so that
+ * {@link BulkRestaurantRepository#apply(TreeChanges)} can write each kind of change with one batch.
+ * Deleting a node also deletes everything below it.
+ */
+public class TreeChanges {
+    final List<Restaurant> createdRestaurants = new ArrayList<>();
+    final Map<Integer, List<Menu>> createdMenus = new LinkedHashMap<>();
+    final Map<Integer, List<Section>> createdSections = new LinkedHashMap<>();
+    final Map<Integer, List<Item>> createdItems = new LinkedHashMap<>();
+
+    final Map<Integer, String> restaurantNames = new LinkedHashMap<>();
+    final Map<Integer, String> menuNames = new LinkedHashMap<>();
+    final Map<Integer, String> sectionNames = new LinkedHashMap<>();
+    final Map<Integer, Item> updatedItems = new LinkedHashMap<>();
+
+    final Map<Integer, Set<Feature>> addedFeatures = new HashMap<>();
+    final Map<Integer, Set<Feature>> removedFeatures = new HashMap<>();
+
+    final Set<Integer> deletedMenus = new LinkedHashSet<>();
+    final Set<Integer> deletedSections = new LinkedHashSet<>();
+    final Set<Integer> deletedItems = new LinkedHashSet<>();
+
+    public TreeChanges createRestaurant(Restaurant restaurant) {
+        createdRestaurants.add(restaurant);
+        return this;
+    }
+
+    public TreeChanges createMenu(Integer restaurantId, Menu menu) {
+        createdMenus.computeIfAbsent(restaurantId, id -> new ArrayList<>()).add(menu);
+        return this;
+    }
+
+    public TreeChanges createSection(Integer menuId, Section section) {
+        createdSections.computeIfAbsent(menuId, id -> new ArrayList<>()).add(section);
+        return this;
+    }
+
+    public TreeChanges createItem(Integer sectionId, Item item) {
+        createdItems.computeIfAbsent(sectionId, id -> new ArrayList<>()).add(item);
+        return this;
+    }
+
+    public TreeChanges renameRestaurant(Integer restaurantId, String name) {
+        restaurantNames.put(restaurantId, name);
+        return this;
+    }
+
+    public TreeChanges renameMenu(Integer menuId, String name) {
+        menuNames.put(menuId, name);
+        return this;
+    }
+
+    public TreeChanges renameSection(Integer sectionId, String name) {
+        sectionNames.put(sectionId, name);
+        return this;
+    }
+
+    public TreeChanges updateItem(Item item) {
+        updatedItems.put(item.id(), item);
+        return this;
+    }
+
+    public TreeChanges addFeatures(Integer itemId, Set<Feature> features) {
+        if (!features.isEmpty()) {
+            addedFeatures.computeIfAbsent(itemId, id -> new LinkedHashSet<>()).addAll(features);
+        }
+        return this;
+    }
+
+    public TreeChanges removeFeatures(Integer itemId, Set<Feature> features) {
+        if (!features.isEmpty()) {
+            removedFeatures.computeIfAbsent(itemId, id -> new LinkedHashSet<>()).addAll(features);
+        }
+        return this;
+    }
+
+    public TreeChanges deleteMenu(Menu menu) {
+        deletedMenus.add(menu.id());
+        emptyIfNull(menu.sections()).forEach(this::deleteSection);
+        return this;
+    }
+
+    public TreeChanges deleteSection(Section section) {
+        deletedSections.add(section.id());
+        emptyIfNull(section.items()).forEach(this::deleteItem);
+        return this;
+    }
+
+    public TreeChanges deleteItem(Item item) {
+        deletedItems.add(item.id());
+        return this;
+    }
+
+    public boolean isEmpty() {
+        return createdRestaurants.isEmpty()
+            && createdMenus.isEmpty()
+            && createdSections.isEmpty()
+            && createdItems.isEmpty()
+            && restaurantNames.isEmpty()
+            && menuNames.isEmpty()
+            && sectionNames.isEmpty()
+            && updatedItems.isEmpty()
+            && addedFeatures.isEmpty()
+            && removedFeatures.isEmpty()
+            && deletedMenus.isEmpty()
+            && deletedSections.isEmpty()
+            && deletedItems.isEmpty();
+    }
+}
@@ -0,0 +1,248 @@
+package com.claire.firstspring.repository;
+
+import com.claire.firstspring.model.Depth;
+import com.claire.firstspring.model.Feature;
+import com.claire.firstspring.model.Item;
+import com.claire.firstspring.model.Menu;
+import com.claire.firstspring.model.Restaurant;
+import com.claire.firstspring.model.Section;
+import com.claire.firstspring.model.SimpleItem;
+import com.claire.firstspring.model.SimpleMenu;
+import com.claire.firstspring.model.SimpleRestaurant;
+import com.claire.firstspring.model.SimpleSection;
+import com.google.common.collect.Lists;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+import static java.util.Collections.emptyList;
+import static java.util.Collections.emptyMap;
+import static java.util.Collections.emptySet;
+import static java.util.Collections.singletonMap;
+import static java.util.stream.Collectors.toList;
+import static java.util.stream.Collectors.toSet;
+
+/**
+ * Attaches children to already loaded parents one level at a time. Each level costs a single
+ * {@code WHERE parent_id IN (...)} query for all parents together, so a restaurant tree of any size is
+ * assembled with one query per level rather than one query per row. Feature names are resolved through the
+ * {@link FeatureDictionary}, so the feature level only reads the link table. Long restaurant lists can be split
+ * across the {@link SubtreeExecutor}, each part loaded the same way on its own connection. A {@link Depth} stops
+ * the descent early, leaving the children of its deepest level empty.
+ */
+@Component
+public class TreeLoader {
+    private static final int MAX_IDS_PER_QUERY = 1000;
+
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    private final MenuRowMapper menuRowMapper;
+    private final SectionRowMapper sectionRowMapper;
+    private final ItemRowMapper itemRowMapper;
+    private final FeatureDictionary featureDictionary;
+    private final SubtreeExecutor subtreeExecutor;
+
+    public TreeLoader(
+        JdbcTemplate jdbcTemplate,
+        MenuRowMapper menuRowMapper,
+        SectionRowMapper sectionRowMapper,
+        ItemRowMapper itemRowMapper,
+        FeatureDictionary featureDictionary,
+        SubtreeExecutor subtreeExecutor
+    ) {
+        this.namedParameterJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        this.menuRowMapper = menuRowMapper;
+        this.sectionRowMapper = sectionRowMapper;
+        this.itemRowMapper = itemRowMapper;
+        this.featureDictionary = featureDictionary;
+        this.subtreeExecutor = subtreeExecutor;
+    }
+
+    public List<Restaurant> withMenus(List<Restaurant> restaurants) {
+        return withMenus(restaurants, Depth.ITEMS);
+    }
+
+    public List<Restaurant> withMenus(List<Restaurant> restaurants, Depth depth) {
+        return depth.includes(Depth.MENUS)
+            ? subtreeExecutor.load(restaurants, roots -> loadMenus(roots, depth))
+            : restaurants;
+    }
+
+    public List<Menu> withSections(List<Menu> menus) {
+        return withSections(menus, Depth.ITEMS);
+    }
+
+    public List<Menu> withSections(List<Menu> menus, Depth depth) {
+        return depth.includes(Depth.SECTIONS)
+            ? withSections(singletonMap(null, menus), depth).getOrDefault(null, emptyList())
+            : menus;
+    }
+
+    public List<Section> withItems(List<Section> sections) {
+        return withItems(sections, Depth.ITEMS);
+    }
+
+    public List<Section> withItems(List<Section> sections, Depth depth) {
+        return depth.includes(Depth.ITEMS)
+            ? withItems(singletonMap(null, sections)).getOrDefault(null, emptyList())
+            : sections;
+    }
+
+    public List<Item> withFeatures(List<Item> items) {
+        return withFeatures(singletonMap(null, items)).getOrDefault(null, emptyList());
+    }
+
+    private List<Restaurant> loadMenus(List<Restaurant> restaurants, Depth depth) {
+        final Map<Integer, List<Menu>> children = children(
+            "SELECT id, name, restaurant_id AS parent_id FROM menu WHERE restaurant_id IN (:ids) ORDER BY id",
+            ids(restaurants, Restaurant::id),
+            menuRowMapper
+        );
+        final Map<Integer, List<Menu>> menus = depth.includes(Depth.SECTIONS)
+            ? withSections(children, depth)
+            : children;
+
+        return restaurants.stream()
+            .map(restaurant -> new SimpleRestaurant(
+                restaurant.id(),
+                restaurant.name(),
+                Set.copyOf(menus.getOrDefault(restaurant.id(), emptyList()))
+            ))
+            .collect(toList());
+    }
+
+    private Map<Integer, List<Menu>> withSections(Map<Integer, List<Menu>> menusByParent, Depth depth) {
+        final Map<Integer, List<Section>> children = children(
+            "SELECT id, name, menu_id AS parent_id FROM section WHERE menu_id IN (:ids) ORDER BY id",
+            ids(menusByParent, Menu::id),
+            sectionRowMapper
+        );
+        final Map<Integer, List<Section>> sections = depth.includes(Depth.ITEMS)
+            ? withItems(children)
+            : children;
+
+        return rebuild(
+            menusByParent,
+            menu -> new SimpleMenu(
+                menu.id(),
+                menu.name(),
+                Set.copyOf(sections.getOrDefault(menu.id(), emptyList()))
+            )
+        );
+    }
+
+    private Map<Integer, List<Section>> withItems(Map<Integer, List<Section>> sectionsByParent) {
+        final Map<Integer, List<Item>> items = withFeatures(
+            children(
+                "SELECT id, name, description, price_cents, section_id AS parent_id FROM item WHERE section_id IN (:ids) ORDER BY id",
+                ids(sectionsByParent, Section::id),
+                itemRowMapper
+            )
+        );
+
+        return rebuild(
+            sectionsByParent,
+            section -> new SimpleSection(
+                section.id(),
+                section.name(),
+                items.getOrDefault(section.id(), emptyList())
+            )
+        );
+    }
+
+    private Map<Integer, List<Item>> withFeatures(Map<Integer, List<Item>> itemsByParent) {
+        final Map<Integer, List<Integer>> featureIds = children(
+            "SELECT feature_id, item_id AS parent_id FROM item_feature WHERE item_id IN (:ids)",
+            ids(itemsByParent, Item::id),
+            (rs, rowNum) -> rs.getInt("feature_id")
+        );
+        final Map<Integer, String> featureNames = featureDictionary.names(
+            featureIds.values()
+                .stream()
+                .flatMap(Collection::stream)
+                .collect(toSet())
+        );
+
+        return rebuild(
+            itemsByParent,
+            item -> new SimpleItem(
+                item.id(),
+                item.name(),
+                item.description(),
+                item.price(),
+                featureIds.getOrDefault(item.id(), emptyList())
+                    .stream()
+                    .map(featureId -> new Feature(featureName(featureNames, featureId)))
+                    .collect(toSet())
+            )
+        );
+    }
+
+    /**
+     * The dictionary already reads ids it does not know from the feature table, so a name still missing belongs
+     * to a feature deleted while the tree was read.
+     */
+    private static String featureName(Map<Integer, String> featureNames, Integer featureId) {
+        final String name = featureNames.get(featureId);
+        if (name == null) {
+            throw new IllegalStateException(String.format("feature id %s of an item does not exist", featureId));
+        }
+        return name;
+    }
+
+    private <T> Map<Integer, List<T>> children(String sql, Set<Integer> parentIds, RowMapper<T> rowMapper) {
+        if (parentIds.isEmpty()) {
+            return emptyMap();
+        }
+
+        final Map<Integer, List<T>> children = new HashMap<>();
+        for (List<Integer> chunk : Lists.partition(new ArrayList<>(parentIds), MAX_IDS_PER_QUERY)) {
+            namedParameterJdbcTemplate.query(
+                sql,
+                singletonMap("ids", chunk),
+                (RowCallbackHandler) rs -> children
+                    .computeIfAbsent(rs.getInt("parent_id"), parentId -> new ArrayList<>())
+                    .add(rowMapper.mapRow(rs, rs.getRow()))
+            );
+        }
+        return children;
+    }
+
+    private static <T> Map<Integer, List<T>> rebuild(Map<Integer, List<T>> byParent, Function<T, T> rebuilder) {
+        final Map<Integer, List<T>> rebuilt = new HashMap<>();
+        byParent.forEach((parentId, children) -> rebuilt.put(
+            parentId,
+            children.stream()
+                .map(rebuilder)
+                .collect(toList())
+        ));
+        return rebuilt;
+    }
+
+    private static <T> Set<Integer> ids(Map<Integer, List<T>> byParent, Function<T, Integer> id) {
+        return ids(
+            byParent.values()
+                .stream()
+                .flatMap(Collection::stream)
+                .collect(toList()),
+            id
+        );
+    }
+
+    private static <T> Set<Integer> ids(List<T> entities, Function<T, Integer> id) {
+        return entities.isEmpty()
+            ? emptySet()
+            : entities.stream()
+            .map(id)
+            .collect(toSet());
+    }
+}
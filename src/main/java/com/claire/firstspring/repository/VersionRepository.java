@@ -0,0 +1,26 @@
+package com.claire.firstspring.repository;
+
+import java.util.Collection;
+import java.util.Optional;
+
+/**
+ * Versions of restaurants, menus, sections and items. Every change to a node bumps the version of the node and
+ * of all its ancestors, so the version of a restaurant or menu changes whenever anything in its tree changes.
+ */
+public interface VersionRepository {
+    Optional<Long> restaurantVersion(Integer restaurantId);
+
+    Optional<Long> menuVersion(Integer menuId);
+
+    Optional<Long> sectionVersion(Integer sectionId);
+
+    void touchRestaurants(Collection<Integer> restaurantIds);
+
+    void touchMenus(Collection<Integer> menuIds);
+
+    void touchSections(Collection<Integer> sectionIds);
+
+    void touchItems(Collection<Integer> itemIds);
+
+    void touchItemsWithFeature(String featureName);
+}
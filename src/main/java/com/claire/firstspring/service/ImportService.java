@@ -0,0 +1,14 @@
+package com.claire.firstspring.service;
+
+import com.claire.firstspring.model.Restaurant;
+
+import java.util.List;
+import java.util.Map;
+
+public interface ImportService {
+    /**
+     * Creates the restaurants of one import chunk and returns why each rejected restaurant failed, keyed by
+     * its position in the chunk.
+     */
+    Map<Integer, String> importChunk(List<Restaurant> restaurants);
+}
@@ -1,6 +1,10 @@
 package com.claire.firstspring.service;
 
+import com.claire.firstspring.model.FeatureFilter;
 import com.claire.firstspring.model.Item;
+import com.claire.firstspring.model.ItemSort;
+import com.claire.firstspring.model.Page;
+import com.claire.firstspring.model.PriceRange;
 
 import java.util.List;
 
@@ -10,6 +14,14 @@ public interface ItemService {
 
     List<Item> list();
 
+    Page<Item> list(Integer after, int pageSize);
+
+    Page<Item> list(FeatureFilter filter, Integer after, int pageSize);
+
+    Page<Item> list(PriceRange range, ItemSort sort, Integer after, int pageSize);
+
+    List<Item> search(String query, int limit);
+
     Item getItem(Integer itemId);
 
     void deleteItem(Integer itemId);
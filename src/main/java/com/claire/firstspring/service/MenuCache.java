@@ -0,0 +1,213 @@
+package com.claire.firstspring.service;
+
+import com.claire.firstspring.model.Feature;
+import com.claire.firstspring.model.Item;
+import com.claire.firstspring.model.Menu;
+import com.claire.firstspring.model.Section;
+import com.claire.firstspring.repository.TransactionalChanges;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Fully assembled menus by menu id, bounded in size and age.
+ */
+@Component
+public class MenuCache {
+    private final Cache<Integer, Entry> menus;
+    private final Map<Integer, Set<Entry>> entriesBySection = new ConcurrentHashMap<>();
+    private final Map<Integer, Set<Entry>> entriesByItem = new ConcurrentHashMap<>();
+    private final Map<String, Set<Entry>> entriesByFeature = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+    private final LongAdder invalidations = new LongAdder();
+
+    public MenuCache(
+        @Value("${menu.cache.max-size:10000}") long maxSize,
+        @Value("${menu.cache.ttl-seconds:300}") long ttlSeconds
+    ) {
+        this.menus = CacheBuilder.newBuilder()
+            .maximumSize(maxSize)
+            .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+            .recordStats()
+            .<Integer, Entry>removalListener(removal -> unindex(removal.getValue()))
+            .build();
+    }
+
+    /**
+     * A menu loaded while an eviction ran may hold what the eviction was for, so it is returned but not kept.
+     * Read-write transactions may see their own uncommitted writes and bypass the cache.
+     */
+    public Menu menu(Integer menuId, Supplier<Menu> loader) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()
+            && !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return loader.get();
+        }
+        final long loadedAt = loadedAt();
+        final AtomicBoolean loaded = new AtomicBoolean();
+        final Entry entry;
+        try {
+            entry = menus.get(menuId, () -> {
+                final Entry load = new Entry(menuId, loader.get());
+                index(load);
+                loaded.set(true);
+                return load;
+            });
+        } catch (ExecutionException | UncheckedExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException("failed loading menu id " + menuId, e.getCause());
+        }
+        if (loaded.get() && generation.get() != loadedAt) {
+            menus.asMap().remove(menuId, entry);
+        }
+        return entry.menu;
+    }
+
+    public void evictMenu(Integer menuId) {
+        if (menuId == null) {
+            return;
+        }
+        TransactionalChanges.afterCommit(() -> evictNow(menuId));
+    }
+
+    public void evictSection(Integer sectionId) {
+        evict(entriesBySection, sectionId);
+    }
+
+    public void evictItem(Integer itemId) {
+        evict(entriesByItem, itemId);
+    }
+
+    public void evictFeature(String featureName) {
+        evict(entriesByFeature, featureName == null ? null : featureName.toLowerCase());
+    }
+
+    public CacheStats stats() {
+        return menus.stats();
+    }
+
+    public long invalidations() {
+        return invalidations.sum();
+    }
+
+    public long size() {
+        return menus.size();
+    }
+
+    /**
+     * Sections, items and features with at least one cached menu holding them.
+     */
+    int indexedKeys() {
+        return entriesBySection.size() + entriesByItem.size() + entriesByFeature.size();
+    }
+
+    /**
+     * The writer reads past the cache, so the menus only need to go once its changes are committed.
+     */
+    private <K> void evict(Map<K, Set<Entry>> entriesByKey, K key) {
+        if (key == null) {
+            return;
+        }
+        TransactionalChanges.afterCommit(() -> evictNow(entriesByKey, key));
+    }
+
+    /**
+     * A read-only transaction reads from a snapshot that may be older than the current call, so all its loads
+     * count as started at its first use of the cache; callers use the cache before reading anything else.
+     */
+    private long loadedAt() {
+        final Long transactionStart = TransactionalChanges.transactionLocal(this, generation::get);
+        return transactionStart == null ? generation.get() : transactionStart;
+    }
+
+    private <K> void evictNow(Map<K, Set<Entry>> entriesByKey, K key) {
+        generation.incrementAndGet();
+        final Set<Entry> entries = entriesByKey.remove(key);
+        if (entries != null) {
+            entries.forEach(entry -> invalidated(menus.asMap().remove(entry.menuId, entry)));
+        }
+    }
+
+    private void evictNow(Integer menuId) {
+        generation.incrementAndGet();
+        invalidated(menus.asMap().remove(menuId) != null);
+    }
+
+    private void invalidated(boolean removed) {
+        if (removed) {
+            invalidations.increment();
+        }
+    }
+
+    private void index(Entry entry) {
+        entry.sectionIds.forEach(sectionId -> index(entriesBySection, sectionId, entry));
+        entry.itemIds.forEach(itemId -> index(entriesByItem, itemId, entry));
+        entry.featureNames.forEach(featureName -> index(entriesByFeature, featureName, entry));
+    }
+
+    /**
+     * Runs for every entry leaving the cache, evicted, expired or pushed out by size alike, so the indexes only
+     * hold keys of cached menus.
+     */
+    private void unindex(Entry entry) {
+        entry.sectionIds.forEach(sectionId -> unindex(entriesBySection, sectionId, entry));
+        entry.itemIds.forEach(itemId -> unindex(entriesByItem, itemId, entry));
+        entry.featureNames.forEach(featureName -> unindex(entriesByFeature, featureName, entry));
+    }
+
+    private static <K> void index(Map<K, Set<Entry>> entriesByKey, K key, Entry entry) {
+        entriesByKey.compute(key, (k, entries) -> {
+            final Set<Entry> indexed = entries == null ? new HashSet<>() : entries;
+            indexed.add(entry);
+            return indexed;
+        });
+    }
+
+    private static <K> void unindex(Map<K, Set<Entry>> entriesByKey, K key, Entry entry) {
+        entriesByKey.computeIfPresent(key, (k, entries) -> {
+            entries.remove(entry);
+            return entries.isEmpty() ? null : entries;
+        });
+    }
+
+    /**
+     * A cached menu with the keys it is indexed under; compared by identity, so a reloaded menu is another entry.
+     */
+    private static class Entry {
+        final Integer menuId;
+        final Menu menu;
+        final Set<Integer> sectionIds = new HashSet<>();
+        final Set<Integer> itemIds = new HashSet<>();
+        final Set<String> featureNames = new HashSet<>();
+
+        Entry(Integer menuId, Menu menu) {
+            this.menuId = menuId;
+            this.menu = menu;
+            for (Section section : menu.sections()) {
+                sectionIds.add(section.id());
+                for (Item item : section.items()) {
+                    itemIds.add(item.id());
+                    for (Feature feature : item.features()) {
+                        featureNames.add(feature.name().toLowerCase());
+                    }
+                }
+            }
+        }
+    }
+}
@@ -1,6 +1,8 @@
 package com.claire.firstspring.service;
 
+import com.claire.firstspring.model.Depth;
 import com.claire.firstspring.model.Menu;
+import com.claire.firstspring.model.Page;
 import com.google.common.io.Files;
 
 import java.util.List;
@@ -11,9 +13,28 @@ public interface MenuService {
 
     List<Menu> list();
 
+    Page<Menu> list(Integer after, int pageSize);
+
+    Page<Menu> list(Integer after, int pageSize, Depth depth);
+
     Menu menu(Integer menuId);
 
+    Menu menu(Integer menuId, Depth depth);
+
+    /**
+     * The menu as the current transaction sees it, never from the menu cache, so it matches the
+     * {@link #version(Integer) version} read in the same transaction.
+     */
+    Menu uncachedMenu(Integer menuId, Depth depth);
+
+    /**
+     * The version of the menu, which changes whenever anything in the menu changes.
+     */
+    long version(Integer menuId);
+
     void updateMenu(Menu menu);
 
     void deleteMenu(Integer menuId);
+
+    void deleteMenus(List<Integer> menuIds);
 }
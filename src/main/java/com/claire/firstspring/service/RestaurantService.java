@@ -1,17 +1,37 @@
 package com.claire.firstspring.service;
 
+import com.claire.firstspring.model.Depth;
+import com.claire.firstspring.model.Page;
 import com.claire.firstspring.model.Restaurant;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface RestaurantService {
     List<Restaurant> list();
 
+    Page<Restaurant> list(Integer after, int pageSize);
+
+    Page<Restaurant> list(Integer after, int pageSize, Depth depth);
+
     Restaurant get(Integer id);
 
+    Restaurant get(Integer id, Depth depth);
+
+    /**
+     * The version of the restaurant, which changes whenever anything in the restaurant changes.
+     */
+    long version(Integer id);
+
     Restaurant create(Restaurant restaurant);
 
+    List<Restaurant> createAll(List<Restaurant> restaurants);
+
     void updateRestaurant(Restaurant restaurant);
 
     void deleteRestaurant(Integer restaurantId);
+
+    void deleteRestaurants(List<Integer> restaurantIds);
+
+    void export(Consumer<Restaurant> consumer);
 }
@@ -1,5 +1,7 @@
 package com.claire.firstspring.service;
 
+import com.claire.firstspring.model.Depth;
+import com.claire.firstspring.model.Page;
 import com.claire.firstspring.model.Section;
 import com.claire.firstspring.web.model.WebSection;
 
@@ -11,9 +13,22 @@ public interface SectionService {
 
     List<Section> list();
 
+    Page<Section> list(Integer after, int pageSize);
+
+    Page<Section> list(Integer after, int pageSize, Depth depth);
+
     Section getSection(Integer sectionId);
 
+    Section getSection(Integer sectionId, Depth depth);
+
+    /**
+     * The version of the section, which changes whenever anything in the section changes.
+     */
+    long version(Integer sectionId);
+
     void updateSection(Section section);
 
     void deleteSection(Integer sectionId);
+
+    void deleteSections(List<Integer> sectionIds);
 }
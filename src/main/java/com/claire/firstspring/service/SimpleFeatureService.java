@@ -11,9 +11,11 @@ import java.util.Set;
 public class SimpleFeatureService implements FeatureService {
 
     private final FeatureRepository featureRepository;
+    private final MenuCache menuCache;
 
-    public SimpleFeatureService(FeatureRepository featureRepository) {
+    public SimpleFeatureService(FeatureRepository featureRepository, MenuCache menuCache) {
         this.featureRepository = featureRepository;
+        this.menuCache = menuCache;
     }
 
     @Override
@@ -30,6 +32,7 @@ public class SimpleFeatureService implements FeatureService {
     @Override
     public void delete(String featureName) {
         Validate.notBlank(featureName, "feature name cannot be blank.");
+        menuCache.evictFeature(featureName);
         featureRepository.delete(featureName);
     }
 
@@ -37,6 +40,7 @@ public class SimpleFeatureService implements FeatureService {
     public void updateFeature(String currentName, String newName) {
         Validate.notBlank(currentName, "current feature name cannot be blank.");
         Validate.notBlank(newName, "new feature name cannot be blank.");
+        menuCache.evictFeature(currentName);
         featureRepository.update(currentName, newName);
     }
 }
@@ -0,0 +1,57 @@
+package com.claire.firstspring.service;
+
+import com.claire.firstspring.model.Restaurant;
+import org.apache.commons.lang3.Validate;
+import org.apache.commons.lang3.exception.ExceptionUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static java.util.Collections.emptyMap;
+
+/**
+ * Writes each chunk in a transaction of its own, so an import never holds one long transaction. A chunk is
+ * first written with one bulk create; only when that fails is it written again restaurant by restaurant to
+ * find out which ones are rejected, while the others are still imported. Each chunk transaction is a new
+ * one even inside an enclosing transaction, so a chunk's changes, and the caches updated once it commits, never
+ * depend on how the enclosing transaction ends.
+ */
+@Service
+public class SimpleImportService implements ImportService {
+    private final RestaurantService restaurantService;
+    private final TransactionTemplate chunkTransaction;
+
+    public SimpleImportService(RestaurantService restaurantService, PlatformTransactionManager transactionManager) {
+        this.restaurantService = restaurantService;
+        this.chunkTransaction = new TransactionTemplate(transactionManager);
+        this.chunkTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @Override
+    public Map<Integer, String> importChunk(List<Restaurant> restaurants) {
+        Validate.notNull(restaurants, "restaurants cannot be null.");
+        if (restaurants.isEmpty()) {
+            return emptyMap();
+        }
+        try {
+            chunkTransaction.executeWithoutResult(status -> restaurantService.createAll(restaurants));
+            return emptyMap();
+        } catch (RuntimeException chunkFailure) {
+            final Map<Integer, String> failures = new LinkedHashMap<>();
+            for (int i = 0; i < restaurants.size(); i++) {
+                final List<Restaurant> single = List.of(restaurants.get(i));
+                try {
+                    chunkTransaction.executeWithoutResult(status -> restaurantService.createAll(single));
+                } catch (RuntimeException e) {
+                    failures.put(i, ExceptionUtils.getRootCauseMessage(e));
+                }
+            }
+            return failures;
+        }
+    }
+}
@@ -1,32 +1,40 @@
 package com.claire.firstspring.service;
 
 import com.claire.firstspring.model.Feature;
+import com.claire.firstspring.model.FeatureFilter;
 import com.claire.firstspring.model.Item;
+import com.claire.firstspring.model.ItemSort;
+import com.claire.firstspring.model.Page;
+import com.claire.firstspring.model.PriceRange;
+import com.claire.firstspring.repository.ExistenceProbe;
 import com.claire.firstspring.repository.FeatureRepository;
 import com.claire.firstspring.repository.ItemRepository;
 import org.apache.commons.lang3.Validate;
-import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
-import java.util.NoSuchElementException;
-import java.util.Objects;
 import java.util.Set;
 
 import static java.util.stream.Collectors.toSet;
-import static org.apache.commons.lang3.ArrayUtils.toArray;
 
 @Service
 public class SimpleItemService implements ItemService {
 
     private final ItemRepository itemRepository;
     private final FeatureRepository featureRepository;
-    private final JdbcTemplate jdbcTemplate;
-
-    public SimpleItemService(ItemRepository itemRepository, FeatureRepository featureRepository, JdbcTemplate jdbcTemplate) {
+    private final ExistenceProbe existenceProbe;
+    private final MenuCache menuCache;
+
+    public SimpleItemService(
+        ItemRepository itemRepository,
+        FeatureRepository featureRepository,
+        ExistenceProbe existenceProbe,
+        MenuCache menuCache
+    ) {
         this.itemRepository = itemRepository;
         this.featureRepository = featureRepository;
-        this.jdbcTemplate = jdbcTemplate;
+        this.existenceProbe = existenceProbe;
+        this.menuCache = menuCache;
     }
 
     @Override
@@ -34,29 +42,41 @@ public class SimpleItemService implements ItemService {
         Validate.notNull(sectionId, "section id cannot be null.");
         Validate.notNull(item, "item cannot be null.");
         Validate.isTrue(item.id() == null, "item id must be null for a new item");
-        validateSectionExists(sectionId);
+        existenceProbe.requireExists("section", sectionId, "section id %s does not exist");
+        menuCache.evictSection(sectionId);
         return itemRepository.create(sectionId, item);
     }
 
-    private void validateSectionExists(Integer sectionId) {
-        final boolean sectionExists = Objects.requireNonNull(
-            jdbcTemplate.queryForObject(
-                "SELECT count(*) FROM section WHERE id = ?",
-                toArray(sectionId),
-                Integer.class
-                )
-        ) > 0;
-
-        if (!sectionExists) {
-            throw new NoSuchElementException(String.format("section id %s does not exist", sectionId));
-        }
-    }
-
     @Override
     public List<Item> list() {
         return itemRepository.list();
     }
 
+    @Override
+    public Page<Item> list(Integer after, int pageSize) {
+        Validate.inclusiveBetween(1, Page.MAX_SIZE, pageSize, "client-error: page size must be between 1 and " + Page.MAX_SIZE);
+        return itemRepository.list(after, pageSize);
+    }
+
+    @Override
+    public Page<Item> list(FeatureFilter filter, Integer after, int pageSize) {
+        Validate.inclusiveBetween(1, Page.MAX_SIZE, pageSize, "client-error: page size must be between 1 and " + Page.MAX_SIZE);
+        return itemRepository.list(filter, after, pageSize);
+    }
+
+    @Override
+    public Page<Item> list(PriceRange range, ItemSort sort, Integer after, int pageSize) {
+        Validate.inclusiveBetween(1, Page.MAX_SIZE, pageSize, "client-error: page size must be between 1 and " + Page.MAX_SIZE);
+        return itemRepository.list(range, sort, after, pageSize);
+    }
+
+    @Override
+    public List<Item> search(String query, int limit) {
+        Validate.notBlank(query, "client-error: search query cannot be blank");
+        Validate.inclusiveBetween(1, Page.MAX_SIZE, limit, "client-error: page size must be between 1 and " + Page.MAX_SIZE);
+        return itemRepository.search(query, limit);
+    }
+
     @Override
     public Item getItem(Integer itemId) {
         return itemRepository.getItem(itemId);
@@ -64,6 +84,7 @@ public class SimpleItemService implements ItemService {
 
     @Override
     public void deleteItem(Integer itemId) {
+        menuCache.evictItem(itemId);
         Item item = itemRepository.getItem(itemId);
         if (!item.features().isEmpty()) {
             itemRepository.disassociateFeatures(itemId, item.features());
@@ -73,6 +94,7 @@ public class SimpleItemService implements ItemService {
 
     @Override
     public void updateItem(Item item) {
+        menuCache.evictItem(item.id());
         itemRepository.validateItemExists(item.id());
 
         final Set<Feature> features = featureRepository.itemFeatures(item.id());
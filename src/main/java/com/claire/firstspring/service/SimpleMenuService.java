@@ -1,20 +1,22 @@
 package com.claire.firstspring.service;
 
+import com.claire.firstspring.model.Depth;
 import com.claire.firstspring.model.Menu;
+import com.claire.firstspring.model.Page;
 import com.claire.firstspring.model.Section;
 import com.claire.firstspring.model.SimpleMenu;
 import com.claire.firstspring.model.SimpleRestaurant;
+import com.claire.firstspring.repository.BulkRestaurantRepository;
 import com.claire.firstspring.repository.MenuRepository;
 import com.claire.firstspring.repository.SectionRepository;
+import com.claire.firstspring.repository.VersionRepository;
 import org.apache.commons.lang3.Validate;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
-import java.util.Objects;
-import java.util.Optional;
+import java.util.NoSuchElementException;
 import java.util.Set;
 
-import static java.util.stream.Collectors.toList;
 import static java.util.stream.Collectors.toSet;
 
 @Service
@@ -23,11 +25,27 @@ public class SimpleMenuService implements MenuService {
     private final MenuRepository menuRepository;
     private final SectionRepository sectionRepository;
     private final SectionService sectionService;
-
-    public SimpleMenuService(MenuRepository menuRepository, SectionRepository sectionRepository, SectionService sectionService) {
+    private final MenuCache menuCache;
+    private final BulkRestaurantRepository bulkRestaurantRepository;
+    private final TreeReconciler treeReconciler;
+    private final VersionRepository versionRepository;
+
+    public SimpleMenuService(
+        MenuRepository menuRepository,
+        SectionRepository sectionRepository,
+        SectionService sectionService,
+        MenuCache menuCache,
+        BulkRestaurantRepository bulkRestaurantRepository,
+        TreeReconciler treeReconciler,
+        VersionRepository versionRepository
+    ) {
         this.menuRepository = menuRepository;
         this.sectionRepository = sectionRepository;
         this.sectionService = sectionService;
+        this.menuCache = menuCache;
+        this.bulkRestaurantRepository = bulkRestaurantRepository;
+        this.treeReconciler = treeReconciler;
+        this.versionRepository = versionRepository;
     }
 
     @Override
@@ -52,63 +70,63 @@ public class SimpleMenuService implements MenuService {
     }
 
     @Override
-    public Menu menu(Integer menuId) {
-        Validate.notNull(menuId);
-        final Optional<Menu> optionalMenu = menuRepository.menu(menuId);
-        return optionalMenu.orElseThrow();
+    public Page<Menu> list(Integer after, int pageSize) {
+        return list(after, pageSize, Depth.ITEMS);
     }
 
     @Override
-    public void updateMenu(Menu menu) {
-        final Menu currentMenu = menuRepository.menu(menu.id()).orElseThrow();
-        final Set<Section> currentSections = currentMenu.sections();
-
-        Set<Section> removedSections = removedSections(menu.sections(), currentSections);
-        removedSections.stream()
-            .map(Section::id)
-            .forEach(sectionService::deleteSection);
-
-        Set<Section> addedSections = addedSections(menu.sections());
-        addedSections.forEach(addedSection -> sectionService.addSection(menu.id(), addedSection));
-
-        Set<Section> updatedSections = updatedSections(menu.sections());
-        updatedSections.forEach(sectionService::updateSection);
-
-        if (!menu.name().equals(currentMenu.name())) {
-            menuRepository.updateMenuName(menu.id(), menu.name());
-        }
+    public Page<Menu> list(Integer after, int pageSize, Depth depth) {
+        Validate.inclusiveBetween(1, Page.MAX_SIZE, pageSize, "client-error: page size must be between 1 and " + Page.MAX_SIZE);
+        return menuRepository.menus(after, pageSize, depth);
     }
 
-    private Set<Section> updatedSections(Set<Section> inputSections) {
-        return inputSections.stream()
-            .filter(inputSection -> inputSection.id() != null)
-            .collect(toSet());
+    @Override
+    public Menu menu(Integer menuId) {
+        return menu(menuId, Depth.ITEMS);
     }
 
-    private Set<Section> addedSections(Set<Section> inputSections) {
-        return inputSections.stream()
-            .filter(inputSection -> inputSection.id() == null)
-            .collect(toSet());
+    /**
+     * Only whole menus are cached; shallower reads are cheap enough to go to the database every time.
+     */
+    @Override
+    public Menu menu(Integer menuId, Depth depth) {
+        Validate.notNull(menuId);
+        Validate.notNull(depth, "depth cannot be null");
+        return depth == Depth.ITEMS
+            ? menuCache.menu(menuId, () -> menuRepository.menu(menuId).orElseThrow())
+            : menuRepository.menu(menuId, depth).orElseThrow();
     }
 
-    private Set<Section> removedSections(Set<Section> inputSections, Set<Section> currentSections) {
-        List<Integer> inputSectionsId = inputSections.stream()
-            .map(inputSection -> inputSection.id())
-            .filter(Objects::nonNull)
-            .collect(toList());
+    @Override
+    public Menu uncachedMenu(Integer menuId, Depth depth) {
+        Validate.notNull(menuId);
+        Validate.notNull(depth, "depth cannot be null");
+        return menuRepository.menu(menuId, depth).orElseThrow();
+    }
 
-        return currentSections.stream()
-            .filter(currentSection -> !inputSectionsId.contains(currentSection.id()))
-            .collect(toSet());
+    @Override
+    public long version(Integer menuId) {
+        Validate.notNull(menuId, "client-error: menu id cannot be null");
+        return versionRepository.menuVersion(menuId)
+            .orElseThrow(() -> new NoSuchElementException(String.format("menu id %s does not exist", menuId)));
     }
 
+    @Override
+    public void updateMenu(Menu menu) {
+        menuCache.evictMenu(menu.id());
+        final Menu currentMenu = menuRepository.menu(menu.id()).orElseThrow();
+        bulkRestaurantRepository.apply(treeReconciler.menu(currentMenu, menu));
+    }
 
     @Override
     public void deleteMenu(Integer menuId) {
         Validate.notNull(menuId, "menu id cannot be null.");
-        Menu menu = this.menu(menuId);
-        Set<Section> sections = menu.sections();
-        sections.forEach(section -> sectionService.deleteSection(section.id()));
-        menuRepository.delete(menuId);
+        deleteMenus(List.of(menuId));
+    }
+
+    @Override
+    public void deleteMenus(List<Integer> menuIds) {
+        bulkRestaurantRepository.deleteMenus(menuIds);
+        menuIds.forEach(menuCache::evictMenu);
     }
 }
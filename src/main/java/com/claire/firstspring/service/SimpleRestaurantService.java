@@ -1,19 +1,25 @@
 package com.claire.firstspring.service;
 
+import com.claire.firstspring.model.Depth;
 import com.claire.firstspring.model.Menu;
+import com.claire.firstspring.model.Page;
 import com.claire.firstspring.model.Restaurant;
+import com.claire.firstspring.model.Section;
 import com.claire.firstspring.model.SimpleRestaurant;
+import com.claire.firstspring.repository.BulkRestaurantRepository;
+import com.claire.firstspring.repository.CatalogueRepository;
 import com.claire.firstspring.repository.MenuRepository;
 import com.claire.firstspring.repository.RestaurantRepository;
+import com.claire.firstspring.repository.VersionRepository;
 import org.apache.commons.lang3.Validate;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
-import java.util.Objects;
+import java.util.NoSuchElementException;
 import java.util.Set;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
-import static java.util.stream.Collectors.toList;
 import static java.util.stream.Collectors.toSet;
 
 
@@ -23,14 +29,30 @@ public class SimpleRestaurantService implements RestaurantService {
     private final RestaurantRepository restaurantRepository;
     private final MenuRepository menuRepository;
     private final MenuService menuService;
+    private final BulkRestaurantRepository bulkRestaurantRepository;
+    private final TreeReconciler treeReconciler;
+    private final MenuCache menuCache;
+    private final CatalogueRepository catalogueRepository;
+    private final VersionRepository versionRepository;
 
     public SimpleRestaurantService(
         RestaurantRepository restaurantRepository,
         MenuRepository menuRepository,
-        MenuService menuService) {
+        MenuService menuService,
+        BulkRestaurantRepository bulkRestaurantRepository,
+        TreeReconciler treeReconciler,
+        MenuCache menuCache,
+        CatalogueRepository catalogueRepository,
+        VersionRepository versionRepository
+    ) {
         this.restaurantRepository = restaurantRepository;
         this.menuRepository = menuRepository;
         this.menuService = menuService;
+        this.bulkRestaurantRepository = bulkRestaurantRepository;
+        this.treeReconciler = treeReconciler;
+        this.menuCache = menuCache;
+        this.catalogueRepository = catalogueRepository;
+        this.versionRepository = versionRepository;
     }
 
     @Override
@@ -38,12 +60,35 @@ public class SimpleRestaurantService implements RestaurantService {
         return restaurantRepository.restaurants();
     }
 
+    @Override
+    public Page<Restaurant> list(Integer after, int pageSize) {
+        return list(after, pageSize, Depth.ITEMS);
+    }
+
+    @Override
+    public Page<Restaurant> list(Integer after, int pageSize, Depth depth) {
+        Validate.inclusiveBetween(1, Page.MAX_SIZE, pageSize, "client-error: page size must be between 1 and " + Page.MAX_SIZE);
+        return restaurantRepository.restaurants(after, pageSize, depth);
+    }
+
     @Override
     public Restaurant get(Integer id) {
-        return restaurantRepository.restaurant(id)
+        return get(id, Depth.ITEMS);
+    }
+
+    @Override
+    public Restaurant get(Integer id, Depth depth) {
+        return restaurantRepository.restaurant(id, depth)
             .orElseThrow();
     }
 
+    @Override
+    public long version(Integer id) {
+        Validate.notNull(id, "client-error: restaurant id cannot be null");
+        return versionRepository.restaurantVersion(id)
+            .orElseThrow(() -> new NoSuchElementException(String.format("restaurant id %s does not exist", id)));
+    }
+
     @Override
     public Restaurant create(Restaurant restaurant) {
         Validate.notNull(restaurant, "restaurant cannot be null.");
@@ -60,55 +105,44 @@ public class SimpleRestaurantService implements RestaurantService {
     }
 
     @Override
-    public void updateRestaurant(Restaurant restaurant) {
-        final Restaurant currentRestaurant = restaurantRepository.restaurant(restaurant.id()).orElseThrow();
-        Set<Menu> currentMenus = currentRestaurant.menus();
-
-        List<Menu> removedMenus = removedMenus(restaurant.menus(), currentMenus);
-        removedMenus.stream()
-            .map(Menu::id)
-            .forEach(menuService::deleteMenu);
-
-        List<Menu> updatedMenus = updatedMenus(restaurant.menus());
-        updatedMenus.forEach(updatedMenu -> menuService.updateMenu(updatedMenu));
-
-        List<Menu> addedMenus = addedMenus(restaurant.menus());
-        addedMenus.forEach(addedMenu -> menuService.addMenu(restaurant.id(), addedMenu));
-
-        if (!Objects.equals(restaurant.name(), currentRestaurant.name())) {
-            restaurantRepository.updateRestaurantName(restaurant.id(), restaurant.name());
+    public List<Restaurant> createAll(List<Restaurant> restaurants) {
+        Validate.notNull(restaurants, "restaurants cannot be null.");
+        for (Restaurant restaurant : restaurants) {
+            Validate.notNull(restaurant, "restaurant cannot be null.");
+            Validate.isTrue(restaurant.id() == null, "restaurant id must be null to create a restaurant.");
+            for (Menu menu : restaurant.menus()) {
+                Validate.isTrue(menu.id() == null, "menu id must be null to create a new menu.");
+                for (Section section : menu.sections()) {
+                    Validate.isTrue(section.id() == null, "section id must be null for a new section.");
+                    section.items()
+                        .forEach(item -> Validate.isTrue(item.id() == null, "item id must be null for a new item"));
+                }
+            }
         }
+        return bulkRestaurantRepository.createAll(restaurants);
     }
 
-    private List<Menu> addedMenus(Set<Menu> inputMenus) {
-        return inputMenus.stream()
-            .filter(item -> item.id() == null)
-            .collect(toList());
+    @Override
+    public void updateRestaurant(Restaurant restaurant) {
+        final Restaurant currentRestaurant = restaurantRepository.restaurant(restaurant.id()).orElseThrow();
+        currentRestaurant.menus().forEach(menu -> menuCache.evictMenu(menu.id()));
+        bulkRestaurantRepository.apply(treeReconciler.restaurant(currentRestaurant, restaurant));
     }
 
-    private List<Menu> updatedMenus(Set<Menu> inputMenus) {
-        return inputMenus.stream()
-            .filter(item -> item.id() != null)
-            .collect(toList());
+    @Override
+    public void deleteRestaurant(Integer restaurantId) {
+        Validate.notNull(restaurantId, "restaurant id cannot be null.");
+        deleteRestaurants(List.of(restaurantId));
     }
 
-    private List<Menu> removedMenus(Set<Menu> inputMenus, Set<Menu> currentMenus) {
-        List<Integer> inputMenusId = inputMenus.stream()
-            .map(Menu::id)
-            .filter(Objects::nonNull)
-            .collect(toList());
-
-        return currentMenus.stream()
-            .filter(currentMenu -> !inputMenusId.contains(currentMenu.id()))
-            .collect(toList());
+    @Override
+    public void deleteRestaurants(List<Integer> restaurantIds) {
+        bulkRestaurantRepository.deleteRestaurants(restaurantIds).forEach(menuCache::evictMenu);
     }
 
     @Override
-    public void deleteRestaurant(Integer restaurantId) {
-        Validate.notNull(restaurantId, "restaurant id cannot be null.");
-        Restaurant restaurant = this.get(restaurantId);
-        Set<Menu> menus = restaurant.menus();
-        menus.forEach(menu -> menuService.deleteMenu(menu.id()));
-        restaurantRepository.delete(restaurantId);
+    public void export(Consumer<Restaurant> consumer) {
+        Validate.notNull(consumer, "consumer cannot be null.");
+        catalogueRepository.forEachRestaurant(consumer);
     }
 }
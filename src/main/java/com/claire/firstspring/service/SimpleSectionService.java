@@ -1,15 +1,19 @@
 package com.claire.firstspring.service;
 
+import com.claire.firstspring.model.Depth;
 import com.claire.firstspring.model.Item;
+import com.claire.firstspring.model.Page;
 import com.claire.firstspring.model.Section;
 import com.claire.firstspring.model.SimpleSection;
+import com.claire.firstspring.repository.BulkRestaurantRepository;
 import com.claire.firstspring.repository.ItemRepository;
 import com.claire.firstspring.repository.SectionRepository;
+import com.claire.firstspring.repository.VersionRepository;
 import org.apache.commons.lang3.Validate;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
-import java.util.Objects;
+import java.util.NoSuchElementException;
 import java.util.Optional;
 
 import static java.util.stream.Collectors.toList;
@@ -20,11 +24,27 @@ public class SimpleSectionService implements SectionService {
     private final SectionRepository sectionRepository;
     private final ItemRepository itemRepository;
     private final ItemService itemService;
-
-    public SimpleSectionService(SectionRepository sectionRepository, ItemRepository itemRepository, ItemService itemService) {
+    private final MenuCache menuCache;
+    private final BulkRestaurantRepository bulkRestaurantRepository;
+    private final TreeReconciler treeReconciler;
+    private final VersionRepository versionRepository;
+
+    public SimpleSectionService(
+        SectionRepository sectionRepository,
+        ItemRepository itemRepository,
+        ItemService itemService,
+        MenuCache menuCache,
+        BulkRestaurantRepository bulkRestaurantRepository,
+        TreeReconciler treeReconciler,
+        VersionRepository versionRepository
+    ) {
         this.sectionRepository = sectionRepository;
         this.itemRepository = itemRepository;
         this.itemService = itemService;
+        this.menuCache = menuCache;
+        this.bulkRestaurantRepository = bulkRestaurantRepository;
+        this.treeReconciler = treeReconciler;
+        this.versionRepository = versionRepository;
     }
 
     @Override
@@ -33,6 +53,7 @@ public class SimpleSectionService implements SectionService {
         Validate.notNull(section, "section cannot be null");
         Validate.isTrue(section.id() == null, "section id must be null for a new section.");
 
+        menuCache.evictMenu(menuId);
         final Section createdSection = sectionRepository.create(menuId, section.name());
 
         final List<Item> newItems = section.items()
@@ -49,63 +70,51 @@ public class SimpleSectionService implements SectionService {
     }
 
     @Override
-    public Section getSection(Integer sectionId) {
-        Validate.notNull(sectionId, "section id cannot be null.");
-        final Optional<Section> optionalSection = sectionRepository.section(sectionId);
-        return optionalSection.orElseThrow();
+    public Page<Section> list(Integer after, int pageSize) {
+        return list(after, pageSize, Depth.ITEMS);
     }
 
     @Override
-    public void updateSection(Section section) {
-        final Section currentSection = sectionRepository.section(section.id()).orElseThrow();
-        List<Item> currentItems = currentSection.items();
-
-        List<Item> removedItems = removedItems(section.items(), currentItems);
-        removedItems.stream()
-            .map(Item::id)
-            .forEach(itemService::deleteItem);
-
-        List<Item> addedItems = addedItems(section.items());
-        addedItems.forEach(item -> itemService.addNewItemToSection(section.id(), item));
-
-        List<Item> updatedItems = updatedItems(section.items());
-        updatedItems.forEach(itemService::updateItem);
-
-        if (!Objects.equals(currentSection.name(), section.name())) {
-            sectionRepository.updateSectionName(section.id(), section.name());
-        }
+    public Page<Section> list(Integer after, int pageSize, Depth depth) {
+        Validate.inclusiveBetween(1, Page.MAX_SIZE, pageSize, "client-error: page size must be between 1 and " + Page.MAX_SIZE);
+        return sectionRepository.sections(after, pageSize, depth);
     }
 
-    private List<Item> updatedItems(List<Item> inputItems) {
-        return inputItems.stream()
-            .filter(item -> item.id() != null)
-            .collect(toList());
+    @Override
+    public Section getSection(Integer sectionId) {
+        return getSection(sectionId, Depth.ITEMS);
     }
 
-    private List<Item> addedItems(List<Item> inputItems) {
-        return inputItems.stream()
-            .filter(item -> item.id() == null)
-            .collect(toList());
+    @Override
+    public Section getSection(Integer sectionId, Depth depth) {
+        Validate.notNull(sectionId, "section id cannot be null.");
+        final Optional<Section> optionalSection = sectionRepository.section(sectionId, depth);
+        return optionalSection.orElseThrow();
     }
 
-    private List<Item> removedItems(List<Item> inputItems, List<Item> currentItems) {
-        List<Integer> inputItemIds = inputItems.stream()
-            .map(Item::id)
-            .filter(Objects::nonNull)
-            .collect(toList());
+    @Override
+    public long version(Integer sectionId) {
+        Validate.notNull(sectionId, "client-error: section id cannot be null");
+        return versionRepository.sectionVersion(sectionId)
+            .orElseThrow(() -> new NoSuchElementException(String.format("section id %s does not exist", sectionId)));
+    }
 
-        return currentItems.stream()
-            .filter(currentItem -> !inputItemIds.contains(currentItem.id()))
-            .collect(toList());
+    @Override
+    public void updateSection(Section section) {
+        menuCache.evictSection(section.id());
+        final Section currentSection = sectionRepository.section(section.id()).orElseThrow();
+        bulkRestaurantRepository.apply(treeReconciler.section(currentSection, section));
     }
 
     @Override
     public void deleteSection(Integer sectionId) {
         Validate.notNull(sectionId, "section id cannot be null.");
-        final Section section = this.getSection(sectionId);
-        section.items().forEach(
-            item -> itemService.deleteItem(item.id())
-        );
-        sectionRepository.deleteSection(sectionId);
+        deleteSections(List.of(sectionId));
+    }
+
+    @Override
+    public void deleteSections(List<Integer> sectionIds) {
+        bulkRestaurantRepository.deleteSections(sectionIds);
+        sectionIds.forEach(menuCache::evictSection);
     }
 }
@@ -0,0 +1,169 @@
+package com.claire.firstspring.service;
+
+import com.claire.firstspring.model.Feature;
+import com.claire.firstspring.model.Item;
+import com.claire.firstspring.model.Menu;
+import com.claire.firstspring.model.Restaurant;
+import com.claire.firstspring.model.Section;
+import com.claire.firstspring.repository.TreeChanges;
+import org.apache.commons.lang3.Validate;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import static java.util.stream.Collectors.toSet;
+import static org.apache.commons.collections4.CollectionUtils.emptyIfNull;
+
+/**
+ * Diffs the current state of a subtree against the requested one. Children are matched by id through hash
+ * lookups: children without an id are created, current children missing from the request are deleted and
+ * the remaining ones are compared by value, so unchanged children produce no change at all.
+ */
+@Component
+public class TreeReconciler {
+
+    public TreeChanges restaurant(Restaurant current, Restaurant desired) {
+        final TreeChanges changes = new TreeChanges();
+        reconcileRestaurant(current, desired, changes);
+        return changes;
+    }
+
+    public TreeChanges menu(Menu current, Menu desired) {
+        final TreeChanges changes = new TreeChanges();
+        reconcileMenu(current, desired, changes);
+        return changes;
+    }
+
+    public TreeChanges section(Section current, Section desired) {
+        final TreeChanges changes = new TreeChanges();
+        reconcileSection(current, desired, changes);
+        return changes;
+    }
+
+    private void reconcileRestaurant(Restaurant current, Restaurant desired, TreeChanges changes) {
+        Validate.notBlank(desired.name(), "restaurant name cannot be empty");
+        if (!Objects.equals(current.name(), desired.name())) {
+            changes.renameRestaurant(current.id(), desired.name());
+        }
+        reconcileChildren(
+            "menu", "restaurant", current.id(), current.menus(), desired.menus(), Menu::id,
+            menu -> {
+                validateNew(menu);
+                changes.createMenu(current.id(), menu);
+            },
+            (currentMenu, desiredMenu) -> reconcileMenu(currentMenu, desiredMenu, changes),
+            changes::deleteMenu
+        );
+    }
+
+    private void reconcileMenu(Menu current, Menu desired, TreeChanges changes) {
+        Validate.notEmpty(desired.name(), "menu name cannot be empty");
+        if (!Objects.equals(current.name(), desired.name())) {
+            changes.renameMenu(current.id(), desired.name());
+        }
+        reconcileChildren(
+            "section", "menu", current.id(), current.sections(), desired.sections(), Section::id,
+            section -> {
+                validateNew(section);
+                changes.createSection(current.id(), section);
+            },
+            (currentSection, desiredSection) -> reconcileSection(currentSection, desiredSection, changes),
+            changes::deleteSection
+        );
+    }
+
+    private void reconcileSection(Section current, Section desired, TreeChanges changes) {
+        Validate.notNull(desired.name(), "section name cannot be null");
+        if (!Objects.equals(current.name(), desired.name())) {
+            changes.renameSection(current.id(), desired.name());
+        }
+        reconcileChildren(
+            "item", "section", current.id(), current.items(), desired.items(), Item::id,
+            item -> changes.createItem(current.id(), item),
+            (currentItem, desiredItem) -> reconcileItem(currentItem, desiredItem, changes),
+            changes::deleteItem
+        );
+    }
+
+    private void reconcileItem(Item current, Item desired, TreeChanges changes) {
+        if (!Objects.equals(current.name(), desired.name())
+            || !Objects.equals(current.description(), desired.description())
+            || !Objects.equals(current.price(), desired.price())) {
+            changes.updateItem(desired);
+        }
+        final Set<Feature> currentFeatures = new HashSet<>(emptyIfNull(current.features()));
+        final Set<Feature> desiredFeatures = new HashSet<>(emptyIfNull(desired.features()));
+        changes.addFeatures(current.id(), difference(desiredFeatures, currentFeatures));
+        changes.removeFeatures(current.id(), difference(currentFeatures, desiredFeatures));
+    }
+
+    private static <T> void reconcileChildren(
+        String childKind,
+        String parentKind,
+        Integer parentId,
+        Collection<T> current,
+        Collection<T> desired,
+        Function<T, Integer> id,
+        Consumer<T> create,
+        BiConsumer<T, T> update,
+        Consumer<T> delete
+    ) {
+        final Map<Integer, T> currentById = new HashMap<>();
+        emptyIfNull(current).forEach(child -> currentById.put(id.apply(child), child));
+        final Set<Integer> keptIds = new HashSet<>();
+
+        for (T child : emptyIfNull(desired)) {
+            Validate.notNull(child, "%s cannot be null", childKind);
+            final Integer childId = id.apply(child);
+            if (childId == null) {
+                create.accept(child);
+                continue;
+            }
+            final T currentChild = currentById.get(childId);
+            if (currentChild == null) {
+                throw new NoSuchElementException(
+                    String.format("%s id %s does not exist in %s %s", childKind, childId, parentKind, parentId)
+                );
+            }
+            keptIds.add(childId);
+            update.accept(currentChild, child);
+        }
+
+        currentById.forEach((childId, child) -> {
+            if (!keptIds.contains(childId)) {
+                delete.accept(child);
+            }
+        });
+    }
+
+    private static void validateNew(Menu menu) {
+        Validate.notEmpty(menu.name(), "menu name cannot be empty");
+        for (Section section : emptyIfNull(menu.sections())) {
+            Validate.isTrue(section.id() == null, "section id must be null for a new section.");
+            validateNew(section);
+        }
+    }
+
+    private static void validateNew(Section section) {
+        Validate.notEmpty(section.name(), "section name cannot be empty");
+        for (Item item : emptyIfNull(section.items())) {
+            Validate.notNull(item, "item cannot be null");
+            Validate.isTrue(item.id() == null, "item id must be null for a new item");
+        }
+    }
+
+    private static Set<Feature> difference(Set<Feature> features, Set<Feature> excluded) {
+        return features.stream()
+            .filter(feature -> !excluded.contains(feature))
+            .collect(toSet());
+    }
+}
@@ -0,0 +1,23 @@
+package com.claire.firstspring.web;
+
+import com.claire.firstspring.model.Depth;
+
+/**
+ * Tags for conditional GETs of whole trees. The strong ETag is derived from the version of the tree's root, which
+ * changes with every write anywhere below it, so a matching {@code If-None-Match} is answered with 304 after
+ * looking up that version alone, without loading or serializing the tree. Reads stopping above the items and
+ * gzip encoded bodies are different representations of the same version, so their tags name the depth and the
+ * encoding.
+ */
+final class ETags {
+
+    private ETags() {
+    }
+
+    static String eTag(Integer id, long version, Depth depth, boolean gzip) {
+        return "\"" + id + "-" + version
+            + (depth == Depth.ITEMS ? "" : "-" + depth.name().toLowerCase())
+            + (gzip ? "-gzip" : "")
+            + "\"";
+    }
+}
@@ -0,0 +1,75 @@
+package com.claire.firstspring.web;
+
+import com.claire.firstspring.service.RestaurantService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.commons.lang3.Validate;
+import org.springframework.http.MediaType;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Streams the whole catalogue, one restaurant tree at a time, straight into the response. Either as a single
+ * JSON array or as newline delimited JSON with one restaurant per line.
+ */
+@RestController
+@RequestMapping("/export")
+@Transactional(readOnly = true)
+public class ExportResource {
+    static final String APPLICATION_NDJSON_VALUE = "application/x-ndjson";
+
+    private final RestaurantService restaurantService;
+    private final RestaurantMapper restaurantMapper;
+    private final ObjectMapper objectMapper;
+
+    public ExportResource(
+        RestaurantService restaurantService,
+        RestaurantMapper restaurantMapper,
+        ObjectMapper objectMapper
+    ) {
+        this.restaurantService = restaurantService;
+        this.restaurantMapper = restaurantMapper;
+        this.objectMapper = objectMapper;
+    }
+
+    @GetMapping
+    public void export(
+        @RequestParam(value = "format", defaultValue = "json") String format,
+        HttpServletResponse response
+    ) throws IOException {
+        final boolean ndjson = "ndjson".equals(format);
+        Validate.isTrue(ndjson || "json".equals(format), "client-error: format must be json or ndjson, was %s", format);
+
+        response.setContentType(ndjson ? APPLICATION_NDJSON_VALUE : MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding(UTF_8.name());
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(response.getOutputStream())) {
+            if (ndjson) {
+                generator.setRootValueSeparator(null);
+            } else {
+                generator.writeStartArray();
+            }
+            restaurantService.export(restaurant -> {
+                try {
+                    generator.writeObject(restaurantMapper.toSecond(restaurant));
+                    if (ndjson) {
+                        generator.writeRaw('\n');
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            if (!ndjson) {
+                generator.writeEndArray();
+            }
+        }
+    }
+}
@@ -30,7 +30,7 @@ public class FeatureResource {
 
     @GetMapping
     public Set<String> features() {
-        log.info("someone asked for all features");
+        log.debug("someone asked for all features");
         return featureService.list()
             .stream()
             .map(featureMapper::toSecond)
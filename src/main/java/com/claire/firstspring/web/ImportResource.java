@@ -0,0 +1,137 @@
+package com.claire.firstspring.web;
+
+import com.claire.firstspring.config.SqlStatementCounter;
+import com.claire.firstspring.mappers.MenuMapper;
+import com.claire.firstspring.model.Restaurant;
+import com.claire.firstspring.model.SimpleRestaurant;
+import com.claire.firstspring.service.ImportService;
+import com.claire.firstspring.web.model.WebImportError;
+import com.claire.firstspring.web.model.WebImportReport;
+import com.claire.firstspring.web.model.WebRestaurant;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.commons.lang3.Validate;
+import org.apache.commons.lang3.exception.ExceptionUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import javax.servlet.http.HttpServletRequest;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+
+import static org.apache.commons.collections4.ListUtils.emptyIfNull;
+
+/**
+ * Imports a catalogue of any size from a JSON array of restaurants, or from newline delimited JSON with one
+ * restaurant per line. The body is parsed one restaurant at a time and written in chunks, each chunk in its
+ * own transaction, so neither the heap nor the transaction grows with the size of the file. Restaurants that
+ * cannot be read or are rejected are reported by their position in the file and the rest is still imported.
+ * A body that stops being valid JSON ends the import; the chunks written before stay imported.
+ */
+@RestController
+@RequestMapping("/import")
+public class ImportResource {
+    private static final Logger log = LoggerFactory.getLogger(ImportResource.class);
+
+    private final ImportService importService;
+    private final MenuMapper menuMapper;
+    private final ObjectMapper objectMapper;
+    private final SqlStatementCounter sqlStatementCounter;
+    private final int chunkSize;
+    private final int maxReportedErrors;
+
+    public ImportResource(
+        ImportService importService,
+        MenuMapper menuMapper,
+        ObjectMapper objectMapper,
+        SqlStatementCounter sqlStatementCounter,
+        @Value("${import.chunk-size:200}") int chunkSize,
+        @Value("${import.max-reported-errors:100}") int maxReportedErrors
+    ) {
+        Validate.isTrue(chunkSize > 0, "import chunk size must be positive but was %s", chunkSize);
+        this.importService = importService;
+        this.menuMapper = menuMapper;
+        this.objectMapper = objectMapper;
+        this.sqlStatementCounter = sqlStatementCounter;
+        this.chunkSize = chunkSize;
+        this.maxReportedErrors = maxReportedErrors;
+    }
+
+    @PostMapping
+    public WebImportReport importRestaurants(HttpServletRequest request) throws IOException {
+        final WebImportReport report = new WebImportReport();
+        final List<Restaurant> chunk = new ArrayList<>(chunkSize);
+        final List<Integer> chunkIndexes = new ArrayList<>(chunkSize);
+
+        try (JsonParser parser = objectMapper.getFactory().createParser(request.getInputStream())) {
+            JsonToken token = parser.nextToken();
+            if (token == JsonToken.START_ARRAY) {
+                token = parser.nextToken();
+            }
+            while (token != null && token != JsonToken.END_ARRAY) {
+                final JsonNode node = parser.readValueAsTree();
+                final int index = report.read++;
+                try {
+                    chunk.add(restaurant(node));
+                    chunkIndexes.add(index);
+                } catch (JsonProcessingException | RuntimeException e) {
+                    failed(report, index, node.path("name").asText(null), ExceptionUtils.getRootCauseMessage(e));
+                }
+                if (chunk.size() == chunkSize) {
+                    writeChunk(report, chunk, chunkIndexes);
+                }
+                token = parser.nextToken();
+            }
+            writeChunk(report, chunk, chunkIndexes);
+            report.complete = true;
+        } catch (JsonProcessingException e) {
+            failed(report, report.read, null, "import stopped, the body is not valid JSON: " + e.getOriginalMessage());
+        }
+        log.info(
+            "import {}: read {} restaurants, imported {}, failed {} in {} chunks",
+            report.complete ? "finished" : "stopped", report.read, report.imported, report.failed, report.chunks
+        );
+        return report;
+    }
+
+    private Restaurant restaurant(JsonNode node) throws JsonProcessingException {
+        final WebRestaurant webRestaurant = objectMapper.treeToValue(node, WebRestaurant.class);
+        Validate.notNull(webRestaurant, "client-error: restaurant cannot be null");
+        return new SimpleRestaurant(
+            null,
+            webRestaurant.name,
+            new HashSet<>(menuMapper.toFirsts(emptyIfNull(webRestaurant.menus)))
+        );
+    }
+
+    private void writeChunk(WebImportReport report, List<Restaurant> chunk, List<Integer> chunkIndexes) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        sqlStatementCounter.restartBudget();
+        final Map<Integer, String> failures = importService.importChunk(chunk);
+        report.chunks++;
+        report.imported += chunk.size() - failures.size();
+        failures.forEach((position, message) -> failed(report, chunkIndexes.get(position), chunk.get(position).name(), message));
+        log.info("import progress: read {} restaurants, imported {}, failed {}", report.read, report.imported, report.failed);
+        chunk.clear();
+        chunkIndexes.clear();
+    }
+
+    private void failed(WebImportReport report, int index, String name, String message) {
+        report.failed++;
+        if (report.errors.size() < maxReportedErrors) {
+            report.errors.add(WebImportError.of(index, name, message));
+        }
+    }
+}
@@ -2,11 +2,17 @@ package com.claire.firstspring.web;
 
 import com.claire.firstspring.mappers.FeatureMapper;
 import com.claire.firstspring.mappers.ItemMapper;
+import com.claire.firstspring.model.FeatureFilter;
 import com.claire.firstspring.model.Item;
+import com.claire.firstspring.model.ItemSort;
+import com.claire.firstspring.model.Money;
+import com.claire.firstspring.model.Page;
+import com.claire.firstspring.model.PriceRange;
 import com.claire.firstspring.model.SimpleItem;
 import com.claire.firstspring.service.ItemService;
 import com.claire.firstspring.web.model.WebItem;
 import org.apache.commons.lang3.Validate;
+import org.springframework.http.ResponseEntity;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -17,10 +23,11 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.math.BigDecimal;
 import java.util.List;
 import java.util.Objects;
 
-import static java.util.stream.Collectors.toList;
+import static com.claire.firstspring.web.PageResponses.pageResponse;
 
 @RestController
 @RequestMapping("/items")
@@ -41,12 +48,50 @@ public class ItemResource {
         this.featureMapper = featureMapper;
     }
 
+    /**
+     * With {@code features}, only items matching the {@link FeatureFilter}, e.g.
+     * {@code ?features=Keto,Vegetarian|Low Fat,!Spicy}. Unknown feature names match no item.
+     * <p>
+     * Otherwise items priced between {@code minPrice} and {@code maxPrice}, both optional and inclusive, in
+     * the {@link ItemSort} order, e.g. {@code ?maxPrice=20&sort=-price&size=10} for the ten most expensive
+     * items up to 20. The cursor is an item id in every order.
+     */
     @GetMapping
-    public List<WebItem> items() {
-        return itemService.list()
-            .stream()
-            .map(itemMapper::toSecond)
-            .collect(toList());
+    public ResponseEntity<List<WebItem>> items(
+        @RequestParam(value = "after", required = false) Integer after,
+        @RequestParam(value = "size", defaultValue = "" + Page.DEFAULT_SIZE) int size,
+        @RequestParam(value = "features", required = false) List<String> features,
+        @RequestParam(value = "minPrice", required = false) BigDecimal minPrice,
+        @RequestParam(value = "maxPrice", required = false) BigDecimal maxPrice,
+        @RequestParam(value = "sort", defaultValue = "id") String sort
+    ) {
+        final PriceRange range = new PriceRange(
+            minPrice == null ? null : Money.of(minPrice),
+            maxPrice == null ? null : Money.of(maxPrice)
+        );
+        final ItemSort itemSort = ItemSort.parse(sort);
+        final Page<Item> page;
+        if (features != null) {
+            Validate.isTrue(
+                range.isUnbounded() && itemSort == ItemSort.ID,
+                "client-error: items filtered by features cannot also be filtered or sorted by price"
+            );
+            page = itemService.list(FeatureFilter.parse(features), after, size);
+        } else if (range.isUnbounded() && itemSort == ItemSort.ID) {
+            page = itemService.list(after, size);
+        } else {
+            page = itemService.list(range, itemSort, after, size);
+        }
+        return pageResponse(page, itemMapper::toSeconds);
+    }
+
+    @GetMapping("/search")
+    @Transactional(readOnly = true)
+    public List<WebItem> search(
+        @RequestParam("q") String query,
+        @RequestParam(value = "size", defaultValue = "" + Page.DEFAULT_SIZE) int size
+    ) {
+        return itemMapper.toSeconds(itemService.search(query, size));
     }
 
     @GetMapping("/{item-id}")
@@ -72,7 +117,7 @@ public class ItemResource {
             itemId,
             webItem.name,
             webItem.description,
-            webItem.price,
+            Money.of(webItem.price),
             featureMapper.toFirsts(webItem.features)
         );
         itemService.updateItem(item);
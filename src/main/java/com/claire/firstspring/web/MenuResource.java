@@ -3,7 +3,9 @@ package com.claire.firstspring.web;
 import com.claire.firstspring.mappers.ItemMapper;
 import com.claire.firstspring.mappers.MenuMapper;
 import com.claire.firstspring.mappers.SectionMapper;
+import com.claire.firstspring.model.Depth;
 import com.claire.firstspring.model.Menu;
+import com.claire.firstspring.model.Page;
 import com.claire.firstspring.model.Section;
 import com.claire.firstspring.model.SimpleMenu;
 import com.claire.firstspring.model.SimpleSection;
@@ -12,6 +14,7 @@ import com.claire.firstspring.service.SectionService;
 import com.claire.firstspring.web.model.WebMenu;
 import com.claire.firstspring.web.model.WebSection;
 import org.apache.commons.lang3.Validate;
+import org.springframework.http.ResponseEntity;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -22,9 +25,11 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
+import static com.claire.firstspring.web.PageResponses.pageResponse;
 import static java.util.stream.Collectors.toList;
 import static org.apache.commons.collections4.ListUtils.emptyIfNull;
 
@@ -49,36 +54,60 @@ public class MenuResource {
     private final SectionService sectionService;
     private final ItemMapper itemMapper;
     private final SectionMapper sectionMapper;
+    private final ResponseBytesCache responseBytesCache;
 
-    public MenuResource(MenuService menuService, MenuMapper menuMapper, SectionService sectionService, ItemMapper itemMapper, SectionMapper sectionMapper) {
+    public MenuResource(MenuService menuService, MenuMapper menuMapper, SectionService sectionService, ItemMapper itemMapper, SectionMapper sectionMapper, ResponseBytesCache responseBytesCache) {
         this.menuService = menuService;
         this.menuMapper = menuMapper;
         this.sectionService = sectionService;
         this.itemMapper = itemMapper;
         this.sectionMapper = sectionMapper;
+        this.responseBytesCache = responseBytesCache;
     }
 
-    private List<WebMenu> menus() {
-        return menuService.list()
-            .stream()
-            .map(menuMapper::toSecond)
-            .collect(toList());
+    private ResponseEntity<List<WebMenu>> menus(Integer after, int size, Depth depth) {
+        return pageResponse(menuService.list(after, size, depth), menus -> menuMapper.toSeconds(menus, depth));
     }
 
     @GetMapping("/{menu-id}")
-    public WebMenu menu(@PathVariable("menu-id") Integer menuId) {
-        Menu menu = menuService.menu(menuId);
-        return menuMapper.toSecond(menu);
+    @Transactional(readOnly = true)
+    public ResponseEntity<byte[]> menu(
+        @PathVariable("menu-id") Integer menuId,
+        @RequestParam(value = "depth", defaultValue = "items") String depth,
+        WebRequest request
+    ) {
+        final Depth menuDepth = Depth.parse(depth, Depth.MENUS);
+        return responseBytesCache.conditionalResponse(
+            request,
+            "menu",
+            menuId,
+            menuService.version(menuId),
+            menuDepth,
+            () -> menuMapper.toSecond(menuService.uncachedMenu(menuId, menuDepth), menuDepth)
+        );
     }
 
+    /**
+     * With {@code depth}, only the levels down to that {@link Depth}, e.g. {@code ?depth=sections} for menus
+     * with their section names but without items.
+     */
     @GetMapping
-    public List<WebMenu> menus(@RequestParam List<Integer> ids) {
+    @Transactional(readOnly = true)
+    public ResponseEntity<List<WebMenu>> menus(
+        @RequestParam(value = "ids", required = false) List<Integer> ids,
+        @RequestParam(value = "after", required = false) Integer after,
+        @RequestParam(value = "size", defaultValue = "" + Page.DEFAULT_SIZE) int size,
+        @RequestParam(value = "depth", defaultValue = "items") String depth
+    ) {
+        final Depth menuDepth = Depth.parse(depth, Depth.MENUS);
         return emptyIfNull(ids).isEmpty()
-            ? menus()
-            : ids.stream()
-            .map(menuService::menu)
-            .map(menuMapper::toSecond)
-            .collect(toList());
+            ? menus(after, size, menuDepth)
+            : ResponseEntity.ok(
+            ids.stream()
+                .map(menuId -> menuService.menu(menuId, menuDepth))
+                .map(menu -> menuMapper.toSecond(menu, menuDepth))
+                .collect(toList())
+        );
     }
 
     @PutMapping("/{menu-id}")
@@ -127,6 +156,6 @@ public class MenuResource {
 
     @DeleteMapping
     public void deleteMenus(@RequestParam("ids") List<Integer> menuIds) {
-        menuIds.forEach(menuService::deleteMenu);
+        menuService.deleteMenus(menuIds);
     }
 }
@@ -0,0 +1,190 @@
+package com.claire.firstspring.web;
+
+import com.claire.firstspring.config.ConnectionPoolMetrics;
+import com.claire.firstspring.config.Histogram;
+import com.claire.firstspring.config.SqlStatementCounter;
+import com.claire.firstspring.config.TimingMetrics;
+import com.claire.firstspring.repository.FeatureDictionary;
+import com.claire.firstspring.service.MenuCache;
+import com.claire.firstspring.web.model.WebCacheStats;
+import com.claire.firstspring.web.model.WebPoolMetrics;
+import com.claire.firstspring.web.model.WebTimer;
+import com.google.common.cache.CacheStats;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+
+import static java.util.stream.Collectors.toList;
+
+@RestController
+@RequestMapping("/metrics")
+public class MetricsResource {
+    private final ConnectionPoolMetrics connectionPoolMetrics;
+    private final FeatureDictionary featureDictionary;
+    private final MenuCache menuCache;
+    private final TimingMetrics timingMetrics;
+    private final SqlStatementCounter sqlStatementCounter;
+    private final ResponseBytesCache responseBytesCache;
+
+    public MetricsResource(
+        ConnectionPoolMetrics connectionPoolMetrics,
+        FeatureDictionary featureDictionary,
+        MenuCache menuCache,
+        TimingMetrics timingMetrics,
+        SqlStatementCounter sqlStatementCounter,
+        ResponseBytesCache responseBytesCache
+    ) {
+        this.connectionPoolMetrics = connectionPoolMetrics;
+        this.featureDictionary = featureDictionary;
+        this.menuCache = menuCache;
+        this.timingMetrics = timingMetrics;
+        this.sqlStatementCounter = sqlStatementCounter;
+        this.responseBytesCache = responseBytesCache;
+    }
+
+    @GetMapping("/pool")
+    public WebPoolMetrics pool() {
+        WebPoolMetrics webPoolMetrics = new WebPoolMetrics();
+        webPoolMetrics.activeConnections = connectionPoolMetrics.activeConnections();
+        webPoolMetrics.idleConnections = connectionPoolMetrics.idleConnections();
+        webPoolMetrics.maxConnections = connectionPoolMetrics.maxConnections();
+        webPoolMetrics.pendingThreads = connectionPoolMetrics.pendingThreads();
+        webPoolMetrics.utilisation = connectionPoolMetrics.utilisation();
+        webPoolMetrics.acquisitions = connectionPoolMetrics.acquisitions();
+        webPoolMetrics.averageAcquisitionMillis = connectionPoolMetrics.averageAcquisitionMillis();
+        webPoolMetrics.maxAcquisitionMillis = connectionPoolMetrics.maxAcquisitionMillis();
+        webPoolMetrics.averageUsageMillis = connectionPoolMetrics.averageUsageMillis();
+        webPoolMetrics.timeouts = connectionPoolMetrics.timeouts();
+        return webPoolMetrics;
+    }
+
+    @GetMapping("/feature-dictionary")
+    public WebCacheStats featureDictionary() {
+        return WebCacheStats.of(featureDictionary.hits(), featureDictionary.misses(), featureDictionary.size());
+    }
+
+    @GetMapping("/menu-cache")
+    public WebCacheStats menuCache() {
+        final CacheStats stats = menuCache.stats();
+        return WebCacheStats.of(
+            stats.hitCount(),
+            stats.missCount(),
+            stats.evictionCount(),
+            menuCache.invalidations(),
+            menuCache.size()
+        );
+    }
+
+    @GetMapping("/response-cache")
+    public WebCacheStats responseCache() {
+        return WebCacheStats.of(
+            responseBytesCache.hits(),
+            responseBytesCache.misses(),
+            responseBytesCache.evictions(),
+            responseBytesCache.invalidations(),
+            responseBytesCache.size()
+        );
+    }
+
+    @GetMapping("/endpoints")
+    public List<WebTimer> endpoints() {
+        final SortedMap<String, Histogram> statements = timingMetrics.endpointStatements();
+        return timingMetrics.endpointLatencies()
+            .entrySet()
+            .stream()
+            .map(entry -> {
+                final WebTimer webTimer = webTimer(entry.getKey(), entry.getValue());
+                final Histogram endpointStatements = statements.get(entry.getKey());
+                if (endpointStatements != null) {
+                    webTimer.averageStatements = endpointStatements.average();
+                    webTimer.p95Statements = endpointStatements.percentile(95);
+                    webTimer.maxStatements = endpointStatements.max();
+                }
+                return webTimer;
+            })
+            .collect(toList());
+    }
+
+    @GetMapping("/methods")
+    public List<WebTimer> methods() {
+        return timingMetrics.methodLatencies()
+            .entrySet()
+            .stream()
+            .map(entry -> webTimer(entry.getKey(), entry.getValue()))
+            .collect(toList());
+    }
+
+    /**
+     * Everything above in the Prometheus text format, latencies in seconds.
+     */
+    @GetMapping(value = "/scrape", produces = MediaType.TEXT_PLAIN_VALUE)
+    public String scrape() {
+        final StringBuilder scrape = new StringBuilder();
+        histograms(scrape, "http_server_requests_seconds", "endpoint", timingMetrics.endpointLatencies(), 1e-6);
+        histograms(scrape, "http_server_requests_sql_statements", "endpoint", timingMetrics.endpointStatements(), 1);
+        histograms(scrape, "method_calls_seconds", "method", timingMetrics.methodLatencies(), 1e-6);
+        sample(scrape, "sql_statements_total", "counter", sqlStatementCounter.total());
+        sample(scrape, "db_pool_active_connections", "gauge", connectionPoolMetrics.activeConnections());
+        sample(scrape, "db_pool_idle_connections", "gauge", connectionPoolMetrics.idleConnections());
+        sample(scrape, "db_pool_max_connections", "gauge", connectionPoolMetrics.maxConnections());
+        sample(scrape, "db_pool_pending_threads", "gauge", connectionPoolMetrics.pendingThreads());
+        sample(scrape, "db_pool_timeouts_total", "counter", connectionPoolMetrics.timeouts());
+        sample(scrape, "menu_cache_size", "gauge", menuCache.size());
+        sample(scrape, "menu_cache_hits_total", "counter", menuCache.stats().hitCount());
+        sample(scrape, "menu_cache_misses_total", "counter", menuCache.stats().missCount());
+        sample(scrape, "response_cache_size", "gauge", responseBytesCache.size());
+        sample(scrape, "response_cache_hits_total", "counter", responseBytesCache.hits());
+        sample(scrape, "response_cache_misses_total", "counter", responseBytesCache.misses());
+        sample(scrape, "feature_dictionary_hits_total", "counter", featureDictionary.hits());
+        sample(scrape, "feature_dictionary_misses_total", "counter", featureDictionary.misses());
+        return scrape.toString();
+    }
+
+    private static WebTimer webTimer(String name, Histogram micros) {
+        WebTimer webTimer = new WebTimer();
+        webTimer.name = name;
+        webTimer.count = micros.count();
+        webTimer.averageMillis = micros.average() / 1000;
+        webTimer.p50Millis = micros.percentile(50) / 1000.0;
+        webTimer.p95Millis = micros.percentile(95) / 1000.0;
+        webTimer.p99Millis = micros.percentile(99) / 1000.0;
+        webTimer.maxMillis = micros.max() / 1000.0;
+        return webTimer;
+    }
+
+    private static void histograms(
+        StringBuilder scrape,
+        String metric,
+        String label,
+        Map<String, Histogram> histograms,
+        double unit
+    ) {
+        scrape.append("# TYPE ").append(metric).append(" histogram\n");
+        histograms.forEach((name, histogram) -> {
+            final String labelValue = label + "=\"" + escape(name) + "\"";
+            final long[] bounds = histogram.bounds();
+            final long[] counts = histogram.cumulativeCounts();
+            for (int i = 0; i < counts.length; i++) {
+                final String le = i < bounds.length ? String.valueOf(bounds[i] * unit) : "+Inf";
+                scrape.append(metric).append("_bucket{").append(labelValue).append(",le=\"").append(le).append("\"} ")
+                    .append(counts[i]).append('\n');
+            }
+            scrape.append(metric).append("_sum{").append(labelValue).append("} ").append(histogram.sum() * unit).append('\n');
+            scrape.append(metric).append("_count{").append(labelValue).append("} ").append(histogram.count()).append('\n');
+        });
+    }
+
+    private static void sample(StringBuilder scrape, String metric, String type, long value) {
+        scrape.append("# TYPE ").append(metric).append(' ').append(type).append('\n')
+            .append(metric).append(' ').append(value).append('\n');
+    }
+
+    private static String escape(String labelValue) {
+        return labelValue.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+}
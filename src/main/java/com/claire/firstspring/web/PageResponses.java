@@ -0,0 +1,25 @@
+package com.claire.firstspring.web;
+
+import com.claire.firstspring.model.Page;
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Lists are returned as plain JSON arrays, the cursor for the following page travels in a response header
+ * so that existing clients reading the array keep working.
+ */
+final class PageResponses {
+    static final String NEXT_CURSOR_HEADER = "Next-Cursor";
+
+    private PageResponses() {
+    }
+
+    static <T, W> ResponseEntity<List<W>> pageResponse(Page<T> page, Function<List<T>, List<W>> mapper) {
+        final ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        page.nextCursor()
+            .ifPresent(nextCursor -> response.header(NEXT_CURSOR_HEADER, String.valueOf(nextCursor)));
+        return response.body(mapper.apply(page.items()));
+    }
+}
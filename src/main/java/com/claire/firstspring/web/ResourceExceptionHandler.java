@@ -3,10 +3,13 @@ package com.claire.firstspring.web;
 import com.claire.firstspring.web.model.WebError;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.exception.ExceptionUtils;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.context.request.async.AsyncRequestTimeoutException;
 
 import java.util.NoSuchElementException;
 
@@ -49,6 +52,17 @@ public class ResourceExceptionHandler {
         );
     }
 
+    @ExceptionHandler({
+        TaskRejectedException.class,
+        AsyncRequestTimeoutException.class
+    })
+    protected ResponseEntity<WebError> serviceUnavailable(RuntimeException ex) {
+        String bodyOfResponse = ExceptionUtils.getStackTrace(ex);
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+            .header(HttpHeaders.RETRY_AFTER, "1")
+            .body(WebError.of(bodyOfResponse));
+    }
+
     @ExceptionHandler({RuntimeException.class})
     protected ResponseEntity<WebError> runTimeException(RuntimeException ex) {
         String bodyOfResponse = ExceptionUtils.getStackTrace(ex);
@@ -0,0 +1,229 @@
+package com.claire.firstspring.web;
+
+import com.claire.firstspring.model.Depth;
+import com.claire.firstspring.repository.TransactionalChanges;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.WebRequest;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+import static com.claire.firstspring.web.ETags.eTag;
+
+/**
+ * Encoded JSON bodies of trees, and optionally their gzip encoding, by root id, depth and root version.
+ */
+@Component
+public class ResponseBytesCache {
+    private static final String GZIP = "gzip";
+
+    private final ObjectMapper objectMapper;
+    private final boolean gzip;
+    private final Cache<Key, Encoded> responses;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    public ResponseBytesCache(
+        ObjectMapper objectMapper,
+        @Value("${web.response-cache.max-bytes:67108864}") long maxBytes,
+        @Value("${web.response-cache.gzip:true}") boolean gzip
+    ) {
+        this.objectMapper = objectMapper;
+        this.gzip = gzip;
+        this.responses = CacheBuilder.newBuilder()
+            .maximumWeight(maxBytes)
+            .<Key, Encoded>weigher((key, encoded) -> encoded.size())
+            .recordStats()
+            .build();
+    }
+
+    /**
+     * Answers a conditional GET of the tree of type {@code type} under {@code id}, encoding the {@code body} only
+     * when no entry of the current {@code version} is cached. The {@code body} must be read in the transaction the
+     * {@code version} was read in, since it is stored under that version. Clients accepting gzip get the gzip
+     * encoding, which is a representation of its own with its own ETag, so a 304 varies by encoding as well.
+     */
+    public ResponseEntity<byte[]> conditionalResponse(
+        WebRequest request,
+        String type,
+        Integer id,
+        long version,
+        Depth depth,
+        Supplier<?> body
+    ) {
+        final boolean gzipped = gzip && acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+        final String eTag = eTag(id, version, depth, gzipped);
+        if (request instanceof ServletWebRequest && ((ServletWebRequest) request).getResponse() != null) {
+            ((ServletWebRequest) request).getResponse().setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        }
+        if (request.checkNotModified(eTag)) {
+            return null;
+        }
+
+        final Encoded encoded = encoded(new Key(type, id, depth), version, body);
+        final ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+            .eTag(eTag)
+            .contentType(MediaType.APPLICATION_JSON)
+            .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        return gzipped
+            ? response.header(HttpHeaders.CONTENT_ENCODING, GZIP).body(encoded.gzip)
+            : response.body(encoded.json);
+    }
+
+    public long hits() {
+        return hits.sum();
+    }
+
+    public long misses() {
+        return misses.sum();
+    }
+
+    /**
+     * Misses that found an entry of an older version.
+     */
+    public long invalidations() {
+        return invalidations.sum();
+    }
+
+    public long evictions() {
+        return responses.stats().evictionCount();
+    }
+
+    public long size() {
+        return responses.size();
+    }
+
+    private Encoded encoded(Key key, long version, Supplier<?> body) {
+        final Encoded cached = responses.asMap().get(key);
+        if (cached != null && cached.version == version) {
+            hits.increment();
+            return cached;
+        }
+        misses.increment();
+        if (cached != null) {
+            invalidations.increment();
+        }
+
+        final Encoded encoded = encode(version, body.get());
+        TransactionalChanges.afterCommit(() -> store(key, encoded));
+        return encoded;
+    }
+
+    /**
+     * A reader that started before a write may commit after it, so an entry is only replaced by a newer one.
+     */
+    private void store(Key key, Encoded encoded) {
+        responses.asMap().merge(key, encoded, (current, candidate) -> candidate.version >= current.version ? candidate : current);
+    }
+
+    private Encoded encode(long version, Object body) {
+        try {
+            final byte[] json = objectMapper.writeValueAsBytes(body);
+            return new Encoded(version, json, gzip ? gzip(json) : null);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("failed encoding response body", e);
+        }
+    }
+
+    private static byte[] gzip(byte[] bytes) {
+        final ByteArrayOutputStream compressed = new ByteArrayOutputStream(bytes.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+            gzip.write(bytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return compressed.toByteArray();
+    }
+
+    /**
+     * Whether gzip, or {@code *} when gzip is not listed, has a quality value above zero.
+     */
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        Double anyQuality = null;
+        for (String coding : acceptEncoding.split(",")) {
+            final String[] parts = coding.split(";");
+            final String name = parts[0].trim().toLowerCase(Locale.ROOT);
+            if (name.equals(GZIP) || name.equals("x-gzip")) {
+                return quality(parts) > 0;
+            }
+            if (name.equals("*")) {
+                anyQuality = quality(parts);
+            }
+        }
+        return anyQuality != null && anyQuality > 0;
+    }
+
+    private static double quality(String[] parts) {
+        for (int i = 1; i < parts.length; i++) {
+            final String parameter = parts[i].trim().toLowerCase(Locale.ROOT);
+            if (parameter.startsWith("q=")) {
+                try {
+                    return Double.parseDouble(parameter.substring(2).trim());
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+
+    private static class Key {
+        final String type;
+        final Integer id;
+        final Depth depth;
+
+        Key(String type, Integer id, Depth depth) {
+            this.type = type;
+            this.id = id;
+            this.depth = depth;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            Key key = (Key) o;
+            return Objects.equals(type, key.type) && Objects.equals(id, key.id) && depth == key.depth;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(type, id, depth);
+        }
+    }
+
+    private static class Encoded {
+        final long version;
+        final byte[] json;
+        final byte[] gzip;
+
+        Encoded(long version, byte[] json, byte[] gzip) {
+            this.version = version;
+            this.json = json;
+            this.gzip = gzip;
+        }
+
+        int size() {
+            return json.length + (gzip == null ? 0 : gzip.length);
+        }
+    }
+}
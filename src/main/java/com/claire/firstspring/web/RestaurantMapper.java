@@ -2,6 +2,7 @@ package com.claire.firstspring.web;
 
 import com.claire.firstspring.mappers.Mapper;
 import com.claire.firstspring.mappers.MenuMapper;
+import com.claire.firstspring.model.Depth;
 import com.claire.firstspring.model.Restaurant;
 import com.claire.firstspring.model.SimpleRestaurant;
 import com.claire.firstspring.web.model.WebRestaurant;
@@ -10,6 +11,8 @@ import org.springframework.stereotype.Component;
 import java.util.List;
 import java.util.Set;
 
+import static java.util.stream.Collectors.toList;
+
 @Component
 public class RestaurantMapper implements Mapper<Restaurant, WebRestaurant> {
     private final MenuMapper menuMapper;
@@ -29,10 +32,20 @@ public class RestaurantMapper implements Mapper<Restaurant, WebRestaurant> {
 
     @Override
     public WebRestaurant toSecond(Restaurant restaurant) {
+        return toSecond(restaurant, Depth.ITEMS);
+    }
+
+    public WebRestaurant toSecond(Restaurant restaurant, Depth depth) {
         WebRestaurant webRestaurant = new WebRestaurant();
         webRestaurant.id = restaurant.id();
         webRestaurant.name = restaurant.name();
-        webRestaurant.menus = menuMapper.toSeconds(List.copyOf(restaurant.menus()));
+        webRestaurant.menus = depth.includes(Depth.MENUS) ? menuMapper.toSeconds(List.copyOf(restaurant.menus()), depth) : null;
         return webRestaurant;
     }
+
+    public List<WebRestaurant> toSeconds(List<Restaurant> restaurants, Depth depth) {
+        return restaurants.stream()
+            .map(restaurant -> toSecond(restaurant, depth))
+            .collect(toList());
+    }
 }
@@ -2,7 +2,9 @@ package com.claire.firstspring.web;
 
 import com.claire.firstspring.mappers.MenuMapper;
 import com.claire.firstspring.mappers.SectionMapper;
+import com.claire.firstspring.model.Depth;
 import com.claire.firstspring.model.Menu;
+import com.claire.firstspring.model.Page;
 import com.claire.firstspring.model.Restaurant;
 import com.claire.firstspring.model.SimpleMenu;
 import com.claire.firstspring.model.SimpleRestaurant;
@@ -11,6 +13,7 @@ import com.claire.firstspring.service.RestaurantService;
 import com.claire.firstspring.web.model.WebMenu;
 import com.claire.firstspring.web.model.WebRestaurant;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -21,10 +24,15 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.HashSet;
 import java.util.List;
 
+import static com.claire.firstspring.web.PageResponses.pageResponse;
+import static java.util.stream.Collectors.toList;
+import static org.apache.commons.collections4.ListUtils.emptyIfNull;
+
 @RestController
 @RequestMapping("/restaurants")
 @Transactional
@@ -35,31 +43,56 @@ public class RestaurantResource {
     private final SectionMapper sectionMapper;
     private final MenuMapper menuMapper;
     private final RestaurantMapper restaurantMapper;
+    private final ResponseBytesCache responseBytesCache;
 
     public RestaurantResource(
         RestaurantService restaurantService,
         MenuService menuService,
         SectionMapper sectionMapper,
         MenuMapper menuMapper,
-        RestaurantMapper restaurantMapper)
+        RestaurantMapper restaurantMapper,
+        ResponseBytesCache responseBytesCache)
     {
         this.restaurantService = restaurantService;
         this.menuService = menuService;
         this.sectionMapper = sectionMapper;
         this.menuMapper = menuMapper;
         this.restaurantMapper = restaurantMapper;
+        this.responseBytesCache = responseBytesCache;
     }
 
+    /**
+     * With {@code depth}, only the levels of the tree down to that {@link Depth}, e.g. {@code ?depth=restaurant}
+     * for ids and names alone; the levels below are left out of the response.
+     */
     @GetMapping
-    public List<WebRestaurant> restaurants() {
-        List<Restaurant> restaurantsList = restaurantService.list();
-        return restaurantMapper.toSeconds(restaurantsList);
+    @Transactional(readOnly = true)
+    public ResponseEntity<List<WebRestaurant>> restaurants(
+        @RequestParam(value = "after", required = false) Integer after,
+        @RequestParam(value = "size", defaultValue = "" + Page.DEFAULT_SIZE) int size,
+        @RequestParam(value = "depth", defaultValue = "items") String depth
+    ) {
+        final Depth restaurantDepth = Depth.parse(depth, Depth.RESTAURANTS);
+        Page<Restaurant> restaurantsPage = restaurantService.list(after, size, restaurantDepth);
+        return pageResponse(restaurantsPage, restaurants -> restaurantMapper.toSeconds(restaurants, restaurantDepth));
     }
 
     @GetMapping("/{restaurant-id}")
-    public WebRestaurant restaurant(@PathVariable("restaurant-id") Integer restaurantId) {
-        Restaurant restaurant = restaurantService.get(restaurantId);
-        return restaurantMapper.toSecond(restaurant);
+    @Transactional(readOnly = true)
+    public ResponseEntity<byte[]> restaurant(
+        @PathVariable("restaurant-id") Integer restaurantId,
+        @RequestParam(value = "depth", defaultValue = "items") String depth,
+        WebRequest request
+    ) {
+        final Depth restaurantDepth = Depth.parse(depth, Depth.RESTAURANTS);
+        return responseBytesCache.conditionalResponse(
+            request,
+            "restaurant",
+            restaurantId,
+            restaurantService.version(restaurantId),
+            restaurantDepth,
+            () -> restaurantMapper.toSecond(restaurantService.get(restaurantId, restaurantDepth), restaurantDepth)
+        );
     }
 
     @PutMapping("/{restaurant-id}")
@@ -78,19 +111,16 @@ public class RestaurantResource {
         webRestaurants.forEach(webRestaurant -> this.updateRestaurant(webRestaurant.id, webRestaurant));
     }
 
-    private void createRestaurant(@RequestBody WebRestaurant webRestaurant) {
-        restaurantService.create(
-            new SimpleRestaurant(
+    @PostMapping
+    public List<WebRestaurant> createRestaurants(@RequestBody List<WebRestaurant> webRestaurants) {
+        final List<Restaurant> restaurants = webRestaurants.stream()
+            .map(webRestaurant -> new SimpleRestaurant(
                 null,
                 webRestaurant.name,
-                new HashSet<>(menuMapper.toFirsts(webRestaurant.menus))
-            )
-        );
-    }
-
-    @PostMapping
-    public void createRestaurants(@RequestBody List<WebRestaurant> webRestaurants) {
-        webRestaurants.forEach(this::createRestaurant);
+                new HashSet<>(menuMapper.toFirsts(emptyIfNull(webRestaurant.menus)))
+            ))
+            .collect(toList());
+        return restaurantMapper.toSeconds(restaurantService.createAll(restaurants));
     }
 
     @PostMapping("/{restaurant-id}/menus")
@@ -112,6 +142,6 @@ public class RestaurantResource {
 
     @DeleteMapping
     public void deleteRestaurants(@RequestParam("ids") List<Integer> restaurantIds) {
-        restaurantIds.forEach(restaurantService::deleteRestaurant);
+        restaurantService.deleteRestaurants(restaurantIds);
     }
 }
\ No newline at end of file
@@ -3,7 +3,10 @@ package com.claire.firstspring.web;
 import com.claire.firstspring.mappers.FeatureMapper;
 import com.claire.firstspring.mappers.ItemMapper;
 import com.claire.firstspring.mappers.SectionMapper;
+import com.claire.firstspring.model.Depth;
 import com.claire.firstspring.model.Item;
+import com.claire.firstspring.model.Money;
+import com.claire.firstspring.model.Page;
 import com.claire.firstspring.model.Section;
 import com.claire.firstspring.model.SimpleItem;
 import com.claire.firstspring.model.SimpleSection;
@@ -11,6 +14,7 @@ import com.claire.firstspring.service.ItemService;
 import com.claire.firstspring.service.SectionService;
 import com.claire.firstspring.web.model.WebItem;
 import com.claire.firstspring.web.model.WebSection;
+import org.springframework.http.ResponseEntity;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -21,11 +25,12 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 import java.util.function.Consumer;
 
-import static java.util.stream.Collectors.toList;
+import static com.claire.firstspring.web.PageResponses.pageResponse;
 
 @RestController
 @RequestMapping("/sections")
@@ -37,31 +42,55 @@ public class SectionResource {
     private final SectionMapper sectionMapper;
     private final FeatureMapper featureMapper;
     private final ItemMapper itemMapper;
+    private final ResponseBytesCache responseBytesCache;
 
     public SectionResource(
         SectionService sectionService,
         ItemService itemService,
         SectionMapper sectionMapper,
         FeatureMapper featureMapper,
-        ItemMapper itemMapper) {
+        ItemMapper itemMapper,
+        ResponseBytesCache responseBytesCache) {
         this.sectionService = sectionService;
         this.itemService = itemService;
         this.sectionMapper = sectionMapper;
         this.featureMapper = featureMapper;
         this.itemMapper = itemMapper;
+        this.responseBytesCache = responseBytesCache;
     }
 
+    /**
+     * With {@code depth=section}, sections without their items.
+     */
     @GetMapping
-    public List<WebSection> sections() {
-        return sectionService.list()
-            .stream()
-            .map(sectionMapper::toSecond)
-            .collect(toList());
+    public ResponseEntity<List<WebSection>> sections(
+        @RequestParam(value = "after", required = false) Integer after,
+        @RequestParam(value = "size", defaultValue = "" + Page.DEFAULT_SIZE) int size,
+        @RequestParam(value = "depth", defaultValue = "items") String depth
+    ) {
+        final Depth sectionDepth = Depth.parse(depth, Depth.SECTIONS);
+        return pageResponse(
+            sectionService.list(after, size, sectionDepth),
+            sections -> sectionMapper.toSeconds(sections, sectionDepth)
+        );
     }
 
     @GetMapping("/{section-id}")
-    public WebSection section(@PathVariable("section-id") Integer sectionId) {
-        return sectionMapper.toSecond(sectionService.getSection(sectionId));
+    @Transactional(readOnly = true)
+    public ResponseEntity<byte[]> section(
+        @PathVariable("section-id") Integer sectionId,
+        @RequestParam(value = "depth", defaultValue = "items") String depth,
+        WebRequest request
+    ) {
+        final Depth sectionDepth = Depth.parse(depth, Depth.SECTIONS);
+        return responseBytesCache.conditionalResponse(
+            request,
+            "section",
+            sectionId,
+            sectionService.version(sectionId),
+            sectionDepth,
+            () -> sectionMapper.toSecond(sectionService.getSection(sectionId, sectionDepth), sectionDepth)
+        );
     }
 
     @PutMapping("/{section-id}")
@@ -93,7 +122,7 @@ public class SectionResource {
 
     @DeleteMapping
     public void deleteSections(@RequestParam("ids") List<Integer> sectionIds) {
-        sectionIds.forEach(sectionService::deleteSection);
+        sectionService.deleteSections(sectionIds);
     }
 
     private void createItem(Integer sectionId, WebItem webItem) {
@@ -102,7 +131,7 @@ public class SectionResource {
                 null,
                 webItem.name,
                 webItem.description,
-                webItem.price,
+                Money.of(webItem.price),
                 featureMapper.toFirsts(webItem.features)
             );
             itemService.addNewItemToSection(sectionId, item);
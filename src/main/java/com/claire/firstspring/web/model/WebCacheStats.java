@@ -0,0 +1,25 @@
+package com.claire.firstspring.web.model;
+
+public class WebCacheStats {
+
+    public long hits;
+    public long misses;
+    public long evictions;
+    public long invalidations;
+    public long size;
+
+    public static WebCacheStats of(long hits, long misses, long size) {
+        WebCacheStats webCacheStats = new WebCacheStats();
+        webCacheStats.hits = hits;
+        webCacheStats.misses = misses;
+        webCacheStats.size = size;
+        return webCacheStats;
+    }
+
+    public static WebCacheStats of(long hits, long misses, long evictions, long invalidations, long size) {
+        WebCacheStats webCacheStats = of(hits, misses, size);
+        webCacheStats.evictions = evictions;
+        webCacheStats.invalidations = invalidations;
+        return webCacheStats;
+    }
+}
@@ -0,0 +1,15 @@
+package com.claire.firstspring.web.model;
+
+public class WebImportError {
+    public int index;
+    public String name;
+    public String message;
+
+    public static WebImportError of(int index, String name, String message) {
+        WebImportError webImportError = new WebImportError();
+        webImportError.index = index;
+        webImportError.name = name;
+        webImportError.message = message;
+        return webImportError;
+    }
+}
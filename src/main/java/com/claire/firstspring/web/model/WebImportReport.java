@@ -0,0 +1,13 @@
+package com.claire.firstspring.web.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class WebImportReport {
+    public int read;
+    public int imported;
+    public int failed;
+    public int chunks;
+    public boolean complete;
+    public List<WebImportError> errors = new ArrayList<>();
+}
@@ -1,5 +1,6 @@
 package com.claire.firstspring.web.model;
 
+import java.math.BigDecimal;
 import java.util.Objects;
 import java.util.Set;
 
@@ -7,10 +8,10 @@ public class WebItem {
     public Integer id;
     public String name;
     public String description;
-    public double price;
+    public BigDecimal price;
     public Set<String> features;
 
-    public static WebItem of(Integer id, String name, String description, double price, Set<String> features) {
+    public static WebItem of(Integer id, String name, String description, BigDecimal price, Set<String> features) {
         WebItem webItem = new WebItem();
         webItem.id = id;
         webItem.name = name;
@@ -26,20 +27,20 @@ public class WebItem {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         WebItem webItem = (WebItem) o;
-        return isEqualDouble(webItem.price, price) &&
+        return isEqualAmount(webItem.price, price) &&
             Objects.equals(id, webItem.id) &&
             Objects.equals(name, webItem.name) &&
             Objects.equals(description, webItem.description) &&
             Objects.equals(features, webItem.features);
     }
 
-    private static boolean isEqualDouble(double v1, double v2) {
-        return Math.abs(v1 - v2) < .01;
+    private static boolean isEqualAmount(BigDecimal v1, BigDecimal v2) {
+        return v1 == null ? v2 == null : v2 != null && v1.compareTo(v2) == 0;
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(id, name, description, price, features);
+        return Objects.hash(id, name, description, price == null ? null : price.stripTrailingZeros(), features);
     }
 
     @Override
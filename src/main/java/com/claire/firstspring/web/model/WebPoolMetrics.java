@@ -0,0 +1,15 @@
+package com.claire.firstspring.web.model;
+
+public class WebPoolMetrics {
+
+    public int activeConnections;
+    public int idleConnections;
+    public int maxConnections;
+    public int pendingThreads;
+    public double utilisation;
+    public long acquisitions;
+    public double averageAcquisitionMillis;
+    public double maxAcquisitionMillis;
+    public double averageUsageMillis;
+    public long timeouts;
+}
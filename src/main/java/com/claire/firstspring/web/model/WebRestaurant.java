@@ -1,9 +1,12 @@
 package com.claire.firstspring.web.model;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 import java.util.List;
 
 public class WebRestaurant {
     public Integer id;
     public String name;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
     public List<WebMenu> menus;
 }
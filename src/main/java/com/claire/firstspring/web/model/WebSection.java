@@ -1,11 +1,14 @@
 package com.claire.firstspring.web.model;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 import java.util.List;
 import java.util.Objects;
 
 public class WebSection {
     public Integer id;
     public String name;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
     public List<WebItem> items;
 
     @Override
@@ -0,0 +1,15 @@
+package com.claire.firstspring.web.model;
+
+public class WebTimer {
+
+    public String name;
+    public long count;
+    public double averageMillis;
+    public double p50Millis;
+    public double p95Millis;
+    public double p99Millis;
+    public double maxMillis;
+    public Double averageStatements;
+    public Long p95Statements;
+    public Long maxStatements;
+}
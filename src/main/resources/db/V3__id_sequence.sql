@@ -0,0 +1,11 @@
+CREATE TABLE id_sequence (
+    name VARCHAR(64) NOT NULL,
+    next_id INT NOT NULL,
+    PRIMARY KEY (name)
+);
+
+INSERT INTO id_sequence (name, next_id) SELECT 'restaurant', COALESCE(MAX(id), -1) + 1 FROM restaurant;
+INSERT INTO id_sequence (name, next_id) SELECT 'menu', COALESCE(MAX(id), -1) + 1 FROM menu;
+INSERT INTO id_sequence (name, next_id) SELECT 'section', COALESCE(MAX(id), -1) + 1 FROM section;
+INSERT INTO id_sequence (name, next_id) SELECT 'item', COALESCE(MAX(id), -1) + 1 FROM item;
+INSERT INTO id_sequence (name, next_id) SELECT 'feature', COALESCE(MAX(id), -1) + 1 FROM feature;
@@ -0,0 +1,15 @@
+ALTER TABLE restaurant
+    ADD COLUMN version BIGINT NOT NULL DEFAULT 0,
+    ADD COLUMN updated_at TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3) ON UPDATE CURRENT_TIMESTAMP(3);
+
+ALTER TABLE menu
+    ADD COLUMN version BIGINT NOT NULL DEFAULT 0,
+    ADD COLUMN updated_at TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3) ON UPDATE CURRENT_TIMESTAMP(3);
+
+ALTER TABLE section
+    ADD COLUMN version BIGINT NOT NULL DEFAULT 0,
+    ADD COLUMN updated_at TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3) ON UPDATE CURRENT_TIMESTAMP(3);
+
+ALTER TABLE item
+    ADD COLUMN version BIGINT NOT NULL DEFAULT 0,
+    ADD COLUMN updated_at TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3) ON UPDATE CURRENT_TIMESTAMP(3);
@@ -0,0 +1,10 @@
+ALTER TABLE item
+    ADD COLUMN price_cents BIGINT NULL AFTER description;
+
+UPDATE item SET price_cents = ROUND(price * 100);
+
+ALTER TABLE item
+    MODIFY price_cents BIGINT NOT NULL,
+    DROP COLUMN price;
+
+CREATE INDEX item_price_cents_id ON item (price_cents, id);
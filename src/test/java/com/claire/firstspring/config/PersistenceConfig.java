@@ -3,10 +3,12 @@ package com.claire.firstspring.config;
 import ch.vorburger.exec.ManagedProcessException;
 import ch.vorburger.mariadb4j.DBConfigurationBuilder;
 import ch.vorburger.mariadb4j.springframework.MariaDB4jSpringService;
+import com.zaxxer.hikari.HikariDataSource;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.jdbc.DataSourceBuilder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
 import org.springframework.jdbc.core.JdbcTemplate;
 
 import javax.sql.DataSource;
@@ -35,25 +37,63 @@ public class PersistenceConfig {
     }
 
     @Bean
-    public DataSource dataSource(MariaDB4jSpringService mariaDB4jSpringService) throws ManagedProcessException {
+    public ConnectionPoolMetrics connectionPoolMetrics() {
+        return new ConnectionPoolMetrics();
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(
+        MariaDB4jSpringService mariaDB4jSpringService,
+        ConnectionPoolMetrics connectionPoolMetrics
+    ) throws ManagedProcessException {
 
         DBConfigurationBuilder config = mariaDB4jSpringService.getConfiguration();
         mariaDB4jSpringService.getDB().createDB("test");
 
-        DataSource dataSource = DataSourceBuilder
+        HikariDataSource dataSource = DataSourceBuilder
             .create()
+            .type(HikariDataSource.class)
             .username(databaseUsername)
             .password(databasePassword)
             .url(config.getURL("test").replace("mysql", "mariadb"))
             .driverClassName(driverClassName)
             .build();
+        dataSource.setMetricsTrackerFactory(connectionPoolMetrics);
 
         return dataSource;
     }
 
     @Bean
-    public JdbcTemplate jdbcTemplate(DataSource dataSource) {
-        return new JdbcTemplate(dataSource);
+    public DataSource idSequenceDataSource(MariaDB4jSpringService mariaDB4jSpringService) {
+        DBConfigurationBuilder config = mariaDB4jSpringService.getConfiguration();
+
+        HikariDataSource dataSource = DataSourceBuilder
+            .create()
+            .type(HikariDataSource.class)
+            .username(databaseUsername)
+            .password(databasePassword)
+            .url(config.getURL("test").replace("mysql", "mariadb"))
+            .driverClassName(driverClassName)
+            .build();
+        dataSource.setPoolName("id-sequence-pool");
+        dataSource.setMaximumPoolSize(2);
+
+        return dataSource;
+    }
+
+    @Bean
+    public SqlStatementCounter sqlStatementCounter(
+        @Value("${database.query-budget.max-statements:100}") int maxStatements,
+        @Value("${database.query-budget.max-repeats:20}") int maxRepeats,
+        @Value("${database.query-budget.reject:false}") boolean reject
+    ) {
+        return new SqlStatementCounter(new QueryBudget(maxStatements, maxRepeats, reject));
+    }
+
+    @Bean
+    public JdbcTemplate jdbcTemplate(DataSource dataSource, SqlStatementCounter sqlStatementCounter) {
+        return new StatementCountingJdbcTemplate(dataSource, sqlStatementCounter);
     }
 }
 
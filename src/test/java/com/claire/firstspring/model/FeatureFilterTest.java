@@ -0,0 +1,48 @@
+package com.claire.firstspring.model;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class FeatureFilterTest {
+
+    @Test
+    void parses_required_alternative_and_excluded_features() {
+        // when
+        final FeatureFilter filter = FeatureFilter.parse(List.of("Keto", "Vegetarian | Low Fat", "!Spicy"));
+
+        // then
+        assertThat(filter.required()).containsExactly(
+            Set.of(new Feature("Keto")),
+            Set.of(new Feature("Vegetarian"), new Feature("Low Fat"))
+        );
+        assertThat(filter.excluded()).containsExactly(new Feature("Spicy"));
+    }
+
+    @Test
+    void fails_to_parse_excluded_alternatives() {
+        assertThatThrownBy(() -> FeatureFilter.parse(List.of("!Keto|Spicy")))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("client-error");
+    }
+
+    @Test
+    void fails_to_parse_blank_terms() {
+        assertThatThrownBy(() -> FeatureFilter.parse(List.of(" ")))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"!", "|Keto", "Keto|", "Keto||Vegetarian", "Keto| |Vegetarian"})
+    void fails_to_parse_blank_feature_names(String term) {
+        assertThatThrownBy(() -> FeatureFilter.parse(List.of(term)))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("client-error: feature names in a filter cannot be blank");
+    }
+}
@@ -0,0 +1,42 @@
+package com.claire.firstspring.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MoneyTest {
+
+    @Test
+    void keeps_amounts_in_exact_cents() {
+        // when
+        final Money total = Money.of("0.10").plus(Money.of("0.20"));
+
+        // then
+        assertThat(total.cents()).isEqualTo(30);
+        assertThat(total).isEqualTo(Money.of(new BigDecimal("0.3")));
+        assertThat(total.toBigDecimal()).isEqualTo(new BigDecimal("0.30"));
+        assertThat(total.toString()).isEqualTo("0.30");
+    }
+
+    @Test
+    void orders_amounts_by_cents() {
+        assertThat(Money.of("15.99")).isLessThan(Money.of("23.99"));
+        assertThat(Money.of("15.99")).isEqualByComparingTo(Money.ofCents(1599));
+    }
+
+    @Test
+    void fails_to_round_fractions_of_cents() {
+        assertThatThrownBy(() -> Money.of("12.295"))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("client-error");
+    }
+
+    @Test
+    void fails_to_overflow() {
+        assertThatThrownBy(() -> Money.ofCents(Long.MAX_VALUE).plus(Money.ofCents(1)))
+            .isInstanceOf(ArithmeticException.class);
+    }
+}
@@ -0,0 +1,106 @@
+package com.claire.firstspring.repository;
+
+import com.claire.firstspring.config.PersistenceConfig;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+
+import static java.util.stream.Collectors.toList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+
+@JdbcTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ComponentScan("com.claire.firstspring.repository")
+@Import({PersistenceConfig.class})
+class BlockIdGeneratingRepositoryTest {
+    private static final MainTableAwareRepository RESTAURANT_TABLE = () -> "restaurant";
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    BlockIdGeneratingRepository blockIdGeneratingRepository;
+
+    @Test
+    void can_generate_ids_above_existing_rows() {
+        // given
+        final Integer maxId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM restaurant", Integer.class);
+
+        // when
+        final int id = blockIdGeneratingRepository.nextId(RESTAURANT_TABLE);
+
+        // then
+        assertThat(id).isGreaterThan(maxId);
+    }
+
+    @Test
+    void can_generate_distinct_ids_for_concurrent_callers() throws Exception {
+        // given
+        final ExecutorService executor = Executors.newFixedThreadPool(8);
+        final Callable<List<Integer>> drawIds = () -> IntStream.range(0, 500)
+            .mapToObj(i -> blockIdGeneratingRepository.nextId(RESTAURANT_TABLE))
+            .collect(toList());
+
+        // when
+        final List<Integer> ids;
+        try {
+            final List<Future<List<Integer>>> futures = executor.invokeAll(
+                IntStream.range(0, 8)
+                    .mapToObj(i -> drawIds)
+                    .collect(toList())
+            );
+            ids = futures.stream()
+                .flatMap(future -> {
+                    try {
+                        return future.get().stream();
+                    } catch (Exception e) {
+                        throw new RuntimeException(e);
+                    }
+                })
+                .collect(toList());
+        } finally {
+            executor.shutdown();
+        }
+
+        // then
+        assertThat(ids).hasSize(4000).doesNotHaveDuplicates();
+    }
+
+    @Test
+    void can_reserve_more_ids_than_a_block_in_one_go() {
+        // when
+        final List<Integer> ids = blockIdGeneratingRepository.nextIds(RESTAURANT_TABLE, 1000);
+
+        // then
+        assertThat(ids).hasSize(1000).doesNotHaveDuplicates();
+        assertThat(ids.get(999) - ids.get(0)).isEqualTo(999);
+        assertThat(blockIdGeneratingRepository.nextId(RESTAURANT_TABLE)).isNotIn(ids);
+    }
+
+    @Test
+    void fails_to_generate_an_id_for_an_unknown_table() {
+        assertThatCode(() -> blockIdGeneratingRepository.nextId(() -> "unknown_table"))
+            .isInstanceOf(NoSuchElementException.class)
+            .hasMessageContaining("id sequence unknown_table does not exist");
+    }
+
+    @Test
+    void rejects_a_block_size_that_is_not_positive() {
+        assertThatCode(() -> new BlockIdGeneratingRepository(null, 0))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessage("id block size must be positive but was 0");
+    }
+}
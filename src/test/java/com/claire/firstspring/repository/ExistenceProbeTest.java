@@ -0,0 +1,73 @@
+package com.claire.firstspring.repository;
+
+import com.claire.firstspring.config.PersistenceConfig;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.NoSuchElementException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@JdbcTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ComponentScan("com.claire.firstspring.repository")
+@Import({PersistenceConfig.class})
+@Transactional
+class ExistenceProbeTest {
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    ExistenceProbe existenceProbe;
+
+    @Test
+    void can_probe_existing_and_missing_rows() {
+        assertThat(existenceProbe.exists("section", 1)).isTrue();
+        assertThat(existenceProbe.exists("section", 100)).isFalse();
+    }
+
+    @Test
+    void remembers_existing_rows_until_the_transaction_completes() {
+        // given
+        assertThat(existenceProbe.exists("item", 2)).isTrue();
+
+        // when
+        jdbcTemplate.update("DELETE FROM item WHERE id = 2");
+
+        // then
+        assertThat(existenceProbe.exists("item", 2)).isTrue();
+    }
+
+    @Test
+    void forgets_deleted_rows() {
+        // given
+        assertThat(existenceProbe.exists("item", 2)).isTrue();
+        jdbcTemplate.update("DELETE FROM item WHERE id = 2");
+
+        // when
+        existenceProbe.deleted("item", 2);
+
+        // then
+        assertThat(existenceProbe.exists("item", 2)).isFalse();
+    }
+
+    @Test
+    void fails_when_a_required_row_does_not_exist() {
+        assertThatThrownBy(() -> existenceProbe.requireExists("menu", 100, "menu id %s does not exist"))
+            .isInstanceOf(NoSuchElementException.class)
+            .hasMessage("menu id 100 does not exist");
+    }
+
+    @Test
+    void fails_to_probe_an_unknown_table() {
+        assertThatThrownBy(() -> existenceProbe.exists("id_sequence", 1))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,104 @@
+package com.claire.firstspring.repository;
+
+import com.claire.firstspring.config.PersistenceConfig;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+import static java.util.Collections.emptyList;
+import static java.util.Collections.emptySet;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@JdbcTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ComponentScan("com.claire.firstspring.repository")
+@Import({PersistenceConfig.class})
+@Transactional
+class FeatureBitmapIndexTest {
+    private static final int KETO = 1;
+    private static final int VEGETARIAN = 2;
+    private static final int LOW_FAT = 3;
+
+    @Autowired
+    FeatureBitmapIndex featureBitmapIndex;
+
+    @Test
+    void evaluates_and_or_and_not() {
+        assertThat(featureBitmapIndex.items(List.of(Set.of(KETO)), emptySet(), Integer.MIN_VALUE, 10))
+            .containsExactly(1, 4);
+        assertThat(featureBitmapIndex.items(List.of(Set.of(KETO), Set.of(LOW_FAT)), emptySet(), Integer.MIN_VALUE, 10))
+            .containsExactly(4);
+        assertThat(featureBitmapIndex.items(List.of(Set.of(VEGETARIAN, LOW_FAT)), emptySet(), Integer.MIN_VALUE, 10))
+            .containsExactly(3, 4);
+        assertThat(featureBitmapIndex.items(List.of(Set.of(KETO)), Set.of(LOW_FAT), Integer.MIN_VALUE, 10))
+            .containsExactly(1);
+        assertThat(featureBitmapIndex.items(emptyList(), Set.of(KETO), Integer.MIN_VALUE, 10))
+            .containsExactly(2, 3);
+    }
+
+    @Test
+    void matches_nothing_for_a_group_without_known_features() {
+        assertThat(featureBitmapIndex.items(List.of(Set.of(100)), emptySet(), Integer.MIN_VALUE, 10)).isEmpty();
+        assertThat(featureBitmapIndex.items(List.of(emptySet()), emptySet(), Integer.MIN_VALUE, 10)).isEmpty();
+    }
+
+    @Test
+    void pages_through_matching_ids() {
+        assertThat(featureBitmapIndex.items(emptyList(), emptySet(), Integer.MIN_VALUE, 2)).containsExactly(1, 2);
+        assertThat(featureBitmapIndex.items(emptyList(), emptySet(), 2, 2)).containsExactly(3, 4);
+    }
+
+    @Test
+    void follows_feature_and_item_changes() {
+        // given
+        featureBitmapIndex.items(emptyList(), emptySet(), Integer.MIN_VALUE, 10);
+
+        // when
+        featureBitmapIndex.associate(2, List.of(KETO));
+        featureBitmapIndex.disassociate(4, List.of(KETO));
+        featureBitmapIndex.add(100, 2);
+        featureBitmapIndex.associate(100, List.of(KETO));
+        featureBitmapIndex.remove(List.of(1));
+
+        // then
+        assertThat(featureBitmapIndex.items(List.of(Set.of(KETO)), emptySet(), Integer.MIN_VALUE, 10))
+            .containsExactly(2, 100);
+    }
+
+    @Test
+    void forgets_the_items_of_removed_sections() {
+        // given
+        featureBitmapIndex.items(emptyList(), emptySet(), Integer.MIN_VALUE, 10);
+
+        // when
+        featureBitmapIndex.removeSections(List.of(2));
+
+        // then
+        assertThat(featureBitmapIndex.items(emptyList(), emptySet(), Integer.MIN_VALUE, 10)).containsExactly(1, 2);
+        assertThat(featureBitmapIndex.items(List.of(Set.of(KETO)), emptySet(), Integer.MIN_VALUE, 10)).containsExactly(1);
+    }
+
+    @Test
+    void does_not_share_uncommitted_changes_with_other_transactions() throws Exception {
+        // given
+        featureBitmapIndex.associate(3, List.of(KETO));
+
+        // when
+        final List<Integer> foundElsewhere = CompletableFuture.supplyAsync(
+            () -> featureBitmapIndex.items(List.of(Set.of(KETO)), emptySet(), Integer.MIN_VALUE, 10)
+        ).get();
+
+        // then
+        assertThat(foundElsewhere).containsExactly(1, 4);
+        assertThat(featureBitmapIndex.items(List.of(Set.of(KETO)), emptySet(), Integer.MIN_VALUE, 10))
+            .containsExactly(1, 3, 4);
+    }
+}
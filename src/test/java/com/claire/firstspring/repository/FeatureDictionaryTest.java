@@ -0,0 +1,110 @@
+package com.claire.firstspring.repository;
+
+import com.claire.firstspring.config.PersistenceConfig;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+
+@JdbcTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ComponentScan("com.claire.firstspring.repository")
+@Import({PersistenceConfig.class})
+@Transactional
+class FeatureDictionaryTest {
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    FeatureDictionary featureDictionary;
+
+    @Test
+    void can_resolve_names_and_ids_in_both_directions() {
+        assertThat(featureDictionary.ids(List.of("Keto", "Low Fat", "sour")))
+            .containsOnly(entry("Keto", 1), entry("Low Fat", 3));
+        assertThat(featureDictionary.names(List.of(2, 3)))
+            .containsOnly(entry(2, "Vegetarian"), entry(3, "Low Fat"));
+    }
+
+    @Test
+    void can_count_hits_and_misses() {
+        // given
+        featureDictionary.id("Keto");
+        final long hitsBefore = featureDictionary.hits();
+        final long missesBefore = featureDictionary.misses();
+
+        // when
+        featureDictionary.id("Keto");
+        featureDictionary.id("sour");
+
+        // then
+        assertThat(featureDictionary.hits()).isEqualTo(hitsBefore + 1);
+        assertThat(featureDictionary.misses()).isEqualTo(missesBefore + 1);
+    }
+
+    @Test
+    void can_resolve_written_through_features_without_the_database() {
+        // given
+        featureDictionary.put(42, "Spicy");
+        featureDictionary.rename("Keto", "Ketogenic");
+        featureDictionary.remove("Low Fat");
+        final long missesBefore = featureDictionary.misses();
+
+        // when/then
+        assertThat(featureDictionary.ids(List.of("Spicy", "Ketogenic")))
+            .containsOnly(entry("Spicy", 42), entry("Ketogenic", 1));
+        assertThat(featureDictionary.misses()).isEqualTo(missesBefore);
+    }
+
+    @Test
+    @Sql(statements = "INSERT INTO feature (id, name) VALUES (100, 'inserted elsewhere');")
+    void can_resolve_features_it_has_not_seen_yet() {
+        // given
+        featureDictionary.put(42, "Spicy");
+
+        // when/then
+        assertThat(featureDictionary.id("inserted elsewhere")).contains(100);
+        assertThat(featureDictionary.names(List.of(100))).containsOnly(entry(100, "inserted elsewhere"));
+    }
+
+    @Test
+    void does_not_share_uncommitted_changes_with_other_transactions() throws Exception {
+        // given
+        featureDictionary.put(43, "Smoky");
+
+        // when
+        final Optional<Integer> seenElsewhere = CompletableFuture.supplyAsync(() -> featureDictionary.id("Smoky")).get();
+
+        // then
+        assertThat(seenElsewhere).isEmpty();
+        assertThat(featureDictionary.id("Smoky")).contains(43);
+    }
+
+    @Test
+    void can_remember_names_that_do_not_exist() throws Exception {
+        // given
+        CompletableFuture.runAsync(() -> featureDictionary.id("bitter")).get();
+        final long hitsBefore = featureDictionary.hits();
+        final long missesBefore = featureDictionary.misses();
+
+        // when
+        final Optional<Integer> id = CompletableFuture.supplyAsync(() -> featureDictionary.id("bitter")).get();
+
+        // then
+        assertThat(id).isEmpty();
+        assertThat(featureDictionary.hits()).isEqualTo(hitsBefore + 1);
+        assertThat(featureDictionary.misses()).isEqualTo(missesBefore);
+    }
+}
@@ -0,0 +1,90 @@
+package com.claire.firstspring.repository;
+
+import com.claire.firstspring.config.PersistenceConfig;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@JdbcTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ComponentScan("com.claire.firstspring.repository")
+@Import({PersistenceConfig.class})
+@Transactional
+class ItemSearchIndexTest {
+    @Autowired
+    ItemSearchIndex itemSearchIndex;
+
+    @Test
+    void splits_text_into_lower_case_words_without_accents() {
+        assertThat(ItemSearchIndex.words("Crème Brûlée, with  BERRIES!"))
+            .containsExactly("creme", "brulee", "with", "berries");
+    }
+
+    @Test
+    void finds_items_having_every_word_of_the_query() {
+        assertThat(itemSearchIndex.search("salad", 10)).containsExactly(1, 2, 4);
+        assertThat(itemSearchIndex.search("prawn salad", 10)).containsExactly(2);
+        assertThat(itemSearchIndex.search("pizza", 10)).isEmpty();
+    }
+
+    @Test
+    void matches_the_start_of_words() {
+        assertThat(itemSearchIndex.search("pap sal", 10)).containsExactly(1);
+        assertThat(itemSearchIndex.search("Mush", 10)).containsExactly(3);
+    }
+
+    @Test
+    void ranks_name_matches_and_whole_words_first() {
+        // given
+        itemSearchIndex.search("sauce", 10);
+        itemSearchIndex.add(100, 1, "tomato sauce", "");
+        itemSearchIndex.add(101, 1, "noodles", "noodles from the saucepan");
+
+        // when
+        final List<Integer> found = itemSearchIndex.search("sauce", 10);
+
+        // then
+        assertThat(found).containsExactly(100, 1, 3, 101);
+    }
+
+    @Test
+    void follows_updates_and_removals() {
+        // given
+        itemSearchIndex.search("salad", 10);
+
+        // when
+        itemSearchIndex.update(4, "high protein beef soup", "with vegetables");
+        itemSearchIndex.removeSections(List.of(1));
+
+        // then
+        assertThat(itemSearchIndex.search("salad", 10)).isEmpty();
+        assertThat(itemSearchIndex.search("beef", 10)).containsExactly(4);
+    }
+
+    @Test
+    void does_not_share_uncommitted_changes_with_other_transactions() throws Exception {
+        // given
+        itemSearchIndex.add(102, 1, "uncommitted gazpacho", "");
+
+        // when
+        final List<Integer> foundElsewhere = CompletableFuture.supplyAsync(() -> itemSearchIndex.search("gazpacho", 10)).get();
+
+        // then
+        assertThat(foundElsewhere).isEmpty();
+        assertThat(itemSearchIndex.search("gazpacho", 10)).containsExactly(102);
+    }
+
+    @Test
+    void limits_the_number_of_results() {
+        assertThat(itemSearchIndex.search("salad", 2)).containsExactly(1, 2);
+    }
+}
@@ -0,0 +1,74 @@
+package com.claire.firstspring.repository;
+
+import com.claire.firstspring.config.PersistenceConfig;
+import com.claire.firstspring.model.Feature;
+import com.claire.firstspring.model.Item;
+import com.claire.firstspring.model.Menu;
+import com.claire.firstspring.model.Restaurant;
+import com.claire.firstspring.model.Section;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@JdbcTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ComponentScan("com.claire.firstspring.repository")
+@Import({PersistenceConfig.class})
+class SimpleCatalogueRepositoryTest {
+    @Autowired
+    SimpleCatalogueRepository simpleCatalogueRepository;
+
+    @Nested
+    @JdbcTest
+    @AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+    @Import({PersistenceConfig.class})
+    @Transactional
+    class Streaming {
+        @Test
+        void can_stream_every_restaurant_with_its_tree_in_id_order() {
+            // given/when
+            final List<Restaurant> restaurants = new ArrayList<>();
+            simpleCatalogueRepository.forEachRestaurant(restaurants::add);
+
+            // then
+            assertThat(restaurants).extracting(Restaurant::id).containsExactly(1, 2);
+            assertThat(restaurants.get(0).menus()).extracting(Menu::name)
+                .containsExactlyInAnyOrder("Simple Menu", "Holiday Menu");
+            final Section pastaSection = restaurants.get(0).menus().stream()
+                .flatMap(menu -> menu.sections().stream())
+                .filter(section -> section.id() == 2)
+                .findFirst()
+                .orElseThrow();
+            assertThat(pastaSection.items()).extracting(Item::id).containsExactly(3, 4);
+            assertThat(pastaSection.items().get(1).features())
+                .containsExactlyInAnyOrder(new Feature("Keto"), new Feature("Low Fat"));
+            assertThat(restaurants.get(1).menus()).extracting(Menu::name).containsExactly("Standard Menu");
+            assertThat(restaurants.get(1).menus().iterator().next().sections()).isEmpty();
+        }
+
+        @Test
+        @Sql(statements = {
+            "INSERT INTO restaurant (id, name) VALUES (100, 'Empty Diner')"
+        })
+        void can_stream_a_restaurant_without_menus() {
+            // given/when
+            final List<Restaurant> restaurants = new ArrayList<>();
+            simpleCatalogueRepository.forEachRestaurant(restaurants::add);
+
+            // then
+            assertThat(restaurants).extracting(Restaurant::id).containsExactly(1, 2, 100);
+            assertThat(restaurants.get(2).menus()).isEmpty();
+        }
+    }
+}
@@ -12,9 +12,11 @@ import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.context.jdbc.Sql;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Map;
 import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
 
 @JdbcTest
 @AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
@@ -38,6 +40,20 @@ class SimpleFeatureRepositoryTest {
             .containsExactlyInAnyOrder("Keto", "Vegetarian", "Low Fat");
     }
 
+    @Test
+    void can_resolve_ids_of_several_features_at_once() {
+        // when
+        final Map<Feature, Integer> ids = simpleFeatureRepository.ids(
+            Set.of(new Feature("Keto"), new Feature("Low Fat"), new Feature("sour"))
+        );
+
+        // then
+        assertThat(ids).containsOnly(
+            entry(new Feature("Keto"), 1),
+            entry(new Feature("Low Fat"), 3)
+        );
+    }
+
     @Test
     void can_get_features_from_item_id() {
         final Set<Feature> features = simpleFeatureRepository.itemFeatures(1);
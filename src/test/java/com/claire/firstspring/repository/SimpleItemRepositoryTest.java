@@ -2,7 +2,10 @@ package com.claire.firstspring.repository;
 
 import com.claire.firstspring.config.PersistenceConfig;
 import com.claire.firstspring.model.Feature;
+import com.claire.firstspring.model.FeatureFilter;
 import com.claire.firstspring.model.Item;
+import com.claire.firstspring.model.Money;
+import com.claire.firstspring.model.Page;
 import com.claire.firstspring.model.SimpleItem;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
@@ -13,13 +16,14 @@ import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.Import;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.dao.DuplicateKeyException;
-import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.test.context.jdbc.Sql;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
 import static java.util.Collections.emptySet;
 import static org.assertj.core.api.Assertions.assertThat;
@@ -43,7 +47,7 @@ class SimpleItemRepositoryTest {
     @Transactional
     class Deletion {
         @Test
-        @Sql(statements = "INSERT INTO item (id, name, description, price, section_id) VALUES (5, 'Item to delete', 'will be deleted', 15.99, 2);")
+        @Sql(statements = "INSERT INTO item (id, name, description, price_cents, section_id) VALUES (5, 'Item to delete', 'will be deleted', 1599, 2);")
         void can_delete_an_existing_item() {
             // given
             final List<Item> currentItems = simpleItemRepository.list();
@@ -145,6 +149,30 @@ class SimpleItemRepositoryTest {
             assertThatCode(() -> simpleItemRepository.sectionItems(222))
                 .isInstanceOf(NoSuchElementException.class);
         }
+
+        @Test
+        void can_page_through_a_filter_while_another_transaction_is_open() throws Exception {
+            // given
+            simpleItemRepository.associateFeatures(2, Set.of(new Feature("Keto")));
+            simpleItemRepository.disassociateFeatures(4, Set.of(new Feature("Keto")));
+            final FeatureFilter keto = new FeatureFilter(List.of(Set.of(new Feature("Keto"))), emptySet());
+
+            // when
+            final List<Integer> pagedElsewhere = CompletableFuture.supplyAsync(() -> {
+                final List<Integer> ids = new ArrayList<>();
+                Integer after = null;
+                do {
+                    final Page<Item> page = simpleItemRepository.list(keto, after, 1);
+                    page.items().forEach(item -> ids.add(item.id()));
+                    after = page.nextCursor().orElse(null);
+                } while (after != null);
+                return ids;
+            }).get();
+
+            // then
+            assertThat(pagedElsewhere).containsExactly(1, 4);
+            assertThat(simpleItemRepository.list(keto, null, 10).items()).extracting(Item::id).containsExactly(1, 2);
+        }
     }
 
     @Nested
@@ -165,7 +193,7 @@ class SimpleItemRepositoryTest {
                 null,
                 "garlic bread",
                 "bread with butter and garlic",
-                13.22,
+                Money.of("13.22"),
                 features
             );
 
@@ -194,7 +222,7 @@ class SimpleItemRepositoryTest {
                 null,
                 "bbq chicken",
                 "chicken bbq way",
-                12.99,
+                Money.of("12.99"),
                 emptySet()
             );
 
@@ -211,7 +239,7 @@ class SimpleItemRepositoryTest {
                 null,
                 "bbq chicken",
                 "chicken bbq way",
-                12.99,
+                Money.of("12.99"),
                 emptySet()
             );
 
@@ -239,7 +267,7 @@ class SimpleItemRepositoryTest {
         @Test
         void can_update_item_without_features() {
             // given
-            Item newItem = new SimpleItem(1, "kimchi", "korean kimchi", 10.99, emptySet());
+            Item newItem = new SimpleItem(1, "kimchi", "korean kimchi", Money.of("10.99"), emptySet());
             assertThat(simpleItemRepository.getItem(1).name())
                 .isNotEqualTo("kimchi");
 
@@ -261,7 +289,7 @@ class SimpleItemRepositoryTest {
 
             Item currentItem = simpleItemRepository.getItem(1);
             assertThat(currentItem.name()).isNotEqualTo("kimchi");
-            Item newItem = new SimpleItem(1, "kimchi", "korean kimchi", 10.99, features);
+            Item newItem = new SimpleItem(1, "kimchi", "korean kimchi", Money.of("10.99"), features);
 
             // when
             simpleItemRepository.updateItemIgnoringFeatures(newItem);
@@ -278,7 +306,7 @@ class SimpleItemRepositoryTest {
             Feature vegetarian = new Feature("Vegetarian");
             Set<Feature> features = Set.of(keto, vegetarian);
 
-            Item newItem = new SimpleItem(null, "kimchi", "korean kimchi", 10.99, features);
+            Item newItem = new SimpleItem(null, "kimchi", "korean kimchi", Money.of("10.99"), features);
 
             // when
             // then
@@ -303,7 +331,7 @@ class SimpleItemRepositoryTest {
             Set<Feature> features = Set.of(mango, yogurt);
 
             // when/then
-            Item newItem = new SimpleItem(222, "mango", "mango lassi", 5.99, features);
+            Item newItem = new SimpleItem(222, "mango", "mango lassi", Money.of("5.99"), features);
             assertThatCode(() -> simpleItemRepository.updateItemIgnoringFeatures(newItem))
                 .isInstanceOf(NoSuchElementException.class);
         }
@@ -401,6 +429,19 @@ class SimpleItemRepositoryTest {
             assertThatCode(() -> simpleItemRepository.associateFeatures(1, features))
                 .isInstanceOf(NoSuchElementException.class);
         }
+
+        @Test
+        void rejects_to_associate_item_id_with_several_non_existing_features_at_once() {
+            // given
+            Set<Feature> features = Set.of(new Feature("sour"), new Feature("Keto"), new Feature("bitter"));
+
+            // when/then
+            assertThatCode(() -> simpleItemRepository.associateFeatures(1, features))
+                .isInstanceOf(NoSuchElementException.class)
+                .hasMessage("features with feature names bitter, sour do not exist");
+            assertThat(simpleFeatureRepository.itemFeatures(1))
+                .containsExactly(new Feature("Keto"));
+        }
     }
 
 
@@ -464,7 +505,8 @@ class SimpleItemRepositoryTest {
 
             // when/then
             assertThatCode(() -> simpleItemRepository.disassociateFeatures(1, features))
-                .isInstanceOf(EmptyResultDataAccessException.class);
+                .isInstanceOf(NoSuchElementException.class)
+                .hasMessage("feature with feature name sour does not exist");
         }
 
         @Test
@@ -487,7 +529,10 @@ class SimpleItemRepositoryTest {
 
             // when/then
             assertThatCode(() -> simpleItemRepository.disassociateFeatures(4, features))
-                .isInstanceOf(EmptyResultDataAccessException.class);
+                .isInstanceOf(NoSuchElementException.class)
+                .hasMessage("feature with feature name orange does not exist");
+            assertThat(simpleFeatureRepository.itemFeatures(4))
+                .contains(keto);
         }
 
         @Test
@@ -2,6 +2,7 @@ package com.claire.firstspring.repository;
 
 import com.claire.firstspring.config.PersistenceConfig;
 import com.claire.firstspring.model.Menu;
+import com.claire.firstspring.model.Page;
 import com.claire.firstspring.model.Restaurant;
 import com.claire.firstspring.model.SimpleRestaurant;
 import org.junit.jupiter.api.Nested;
@@ -11,6 +12,7 @@ import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabas
 import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.context.jdbc.Sql;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -18,7 +20,9 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.Set;
+import java.util.stream.IntStream;
 
+import static java.util.stream.Collectors.toList;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatCode;
 
@@ -27,6 +31,9 @@ import static org.assertj.core.api.Assertions.assertThatCode;
 @ComponentScan("com.claire.firstspring.repository")
 @Import({PersistenceConfig.class})
 class SimpleRestaurantRepositoryTest {
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
     @Autowired
     SimpleRestaurantRepository simpleRestaurantRepository;
 
@@ -53,6 +60,66 @@ class SimpleRestaurantRepositoryTest {
                 .isNotEmpty();
         }
 
+        @Test
+        void can_return_a_restaurant_with_only_its_own_menus() {
+            // when
+            final Restaurant restaurant = simpleRestaurantRepository.restaurant(1).orElseThrow();
+
+            // then
+            assertThat(restaurant.name()).isEqualTo("Ruth Steakhouse");
+            assertThat(restaurant.menus())
+                .extracting(Menu::name)
+                .containsExactlyInAnyOrder("Simple Menu", "Holiday Menu");
+        }
+
+        @Test
+        void can_return_a_restaurant_with_id_regardless_of_number_of_restaurants() {
+            // given
+            jdbcTemplate.batchUpdate(
+                "INSERT INTO restaurant (id, name) VALUES (?, ?)",
+                IntStream.rangeClosed(100, 250)
+                    .mapToObj(id -> new Object[]{id, "restaurant " + id})
+                    .collect(toList())
+            );
+
+            // when/then
+            assertThat(simpleRestaurantRepository.restaurant(250).map(Restaurant::name))
+                .contains("restaurant 250");
+        }
+
+        @Test
+        void can_page_through_restaurants_by_id() {
+            // when
+            final Page<Restaurant> firstPage = simpleRestaurantRepository.restaurants(null, 1);
+            final Page<Restaurant> secondPage = simpleRestaurantRepository.restaurants(
+                firstPage.nextCursor().orElseThrow(),
+                1
+            );
+
+            // then
+            assertThat(firstPage.items()).extracting(Restaurant::name).containsExactly("Ruth Steakhouse");
+            assertThat(firstPage.nextCursor()).contains(1);
+            assertThat(secondPage.items()).extracting(Restaurant::name).containsExactly("Sam Steakhouse");
+            assertThat(secondPage.nextCursor()).isEmpty();
+        }
+
+        @Test
+        void can_page_restaurants_with_their_menus() {
+            // when
+            final Page<Restaurant> page = simpleRestaurantRepository.restaurants(1, 10);
+
+            // then
+            assertThat(page.items()).hasSize(1);
+            assertThat(page.items().get(0).menus()).extracting(Menu::name).containsExactly("Standard Menu");
+        }
+
+        @Test
+        void fails_to_page_restaurants_with_non_positive_page_size() {
+            assertThatCode(() -> simpleRestaurantRepository.restaurants(null, 0))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("page size must be positive");
+        }
+
         @Test
         void fails_to_list_a_restaurant_with_empty_restaurant_id() {
             assertThatCode(() -> simpleRestaurantRepository.restaurant(null))
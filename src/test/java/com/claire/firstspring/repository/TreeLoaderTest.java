@@ -0,0 +1,197 @@
+package com.claire.firstspring.repository;
+
+import com.claire.firstspring.config.PersistenceConfig;
+import com.claire.firstspring.model.Feature;
+import com.claire.firstspring.model.Item;
+import com.claire.firstspring.model.Menu;
+import com.claire.firstspring.model.Money;
+import com.claire.firstspring.model.Restaurant;
+import com.claire.firstspring.model.Section;
+import com.claire.firstspring.model.SimpleItem;
+import com.claire.firstspring.model.SimpleRestaurant;
+import com.claire.firstspring.model.SimpleSection;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static java.util.Collections.emptyList;
+import static java.util.Collections.emptySet;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@JdbcTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ComponentScan("com.claire.firstspring.repository")
+@Import({PersistenceConfig.class})
+class TreeLoaderTest {
+    @Autowired
+    TreeLoader treeLoader;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    MenuRowMapper menuRowMapper;
+
+    @Autowired
+    SectionRowMapper sectionRowMapper;
+
+    @Autowired
+    ItemRowMapper itemRowMapper;
+
+    @Autowired
+    FeatureDictionary featureDictionary;
+
+    @Nested
+    @JdbcTest
+    @AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+    @Import({PersistenceConfig.class})
+    @Transactional
+    class Loading {
+        @Test
+        void can_load_the_full_tree_of_several_restaurants() {
+            // given
+            List<Restaurant> restaurants = List.of(
+                new SimpleRestaurant(1, "Ruth Steakhouse", emptySet()),
+                new SimpleRestaurant(2, "Sam Steakhouse", emptySet())
+            );
+
+            // when
+            final List<Restaurant> loaded = treeLoader.withMenus(restaurants);
+
+            // then
+            assertThat(loaded).extracting(Restaurant::id).containsExactly(1, 2);
+            assertThat(loaded.get(0).menus()).extracting(Menu::name)
+                .containsExactlyInAnyOrder("Simple Menu", "Holiday Menu");
+            assertThat(loaded.get(1).menus()).extracting(Menu::name)
+                .containsExactly("Standard Menu");
+
+            final Menu simpleMenu = loaded.get(0).menus()
+                .stream()
+                .filter(menu -> menu.id().equals(1))
+                .findFirst()
+                .orElseThrow();
+            assertThat(simpleMenu.sections()).extracting(Section::name)
+                .containsExactlyInAnyOrder("Salad Section", "Pasta Section");
+
+            final Section pastaSection = simpleMenu.sections()
+                .stream()
+                .filter(section -> section.id().equals(2))
+                .findFirst()
+                .orElseThrow();
+            assertThat(pastaSection.items()).extracting(Item::id).containsExactly(3, 4);
+            assertThat(pastaSection.items().get(1).features())
+                .containsExactlyInAnyOrder(new Feature("Keto"), new Feature("Low Fat"));
+        }
+
+        @Test
+        void leaves_parents_without_children_empty() {
+            // given
+            List<Section> sections = List.of(new SimpleSection(3, "Poultry Section", emptyList()));
+
+            // when
+            final List<Section> loaded = treeLoader.withItems(sections);
+
+            // then
+            assertThat(loaded).hasSize(1);
+            assertThat(loaded.get(0).items()).isEmpty();
+        }
+
+        @Test
+        void can_attach_features_to_items() {
+            // given
+            List<Item> items = List.of(
+                new SimpleItem(2, "mango prawn salad", "prawn salad with mango", Money.of("23.99"), emptySet()),
+                new SimpleItem(3, "Italian pasta with pesto and mushrooms", "pasta with pesto sauce", Money.of("15.99"), emptySet())
+            );
+
+            // when
+            final List<Item> loaded = treeLoader.withFeatures(items);
+
+            // then
+            assertThat(loaded.get(0).features()).isEmpty();
+            assertThat(loaded.get(1).features()).containsExactly(new Feature("Vegetarian"));
+        }
+
+        @Test
+        void gives_empty_list_for_no_parents() {
+            assertThat(treeLoader.withMenus(emptyList())).isEmpty();
+        }
+    }
+
+    @Nested
+    @JdbcTest
+    @AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+    @Import({PersistenceConfig.class})
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    class ParallelLoading {
+        @Autowired
+        PlatformTransactionManager transactionManager;
+
+        @Test
+        void loads_the_same_tree_as_the_sequential_loader() {
+            // given
+            final SubtreeExecutor subtreeExecutor = new SubtreeExecutor(true, 2, 1);
+            final TreeLoader parallelTreeLoader = new TreeLoader(
+                jdbcTemplate,
+                menuRowMapper,
+                sectionRowMapper,
+                itemRowMapper,
+                featureDictionary,
+                subtreeExecutor
+            );
+            List<Restaurant> restaurants = List.of(
+                new SimpleRestaurant(2, "Sam Steakhouse", emptySet()),
+                new SimpleRestaurant(1, "Ruth Steakhouse", emptySet())
+            );
+
+            // when
+            final List<Restaurant> loaded;
+            try {
+                loaded = parallelTreeLoader.withMenus(restaurants);
+            } finally {
+                subtreeExecutor.destroy();
+            }
+
+            // then
+            assertThat(loaded).extracting(Restaurant::id).containsExactly(2, 1);
+            assertThat(loaded).usingRecursiveComparison()
+                .ignoringCollectionOrder()
+                .isEqualTo(treeLoader.withMenus(restaurants));
+        }
+
+        @Test
+        void loads_on_the_caller_thread_inside_a_transaction() {
+            // given
+            final SubtreeExecutor subtreeExecutor = new SubtreeExecutor(true, 2, 1);
+            final TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+            readOnly.setReadOnly(true);
+            final Set<Thread> loadingThreads = ConcurrentHashMap.newKeySet();
+
+            // when
+            try {
+                readOnly.executeWithoutResult(status -> subtreeExecutor.load(List.of(1, 2, 3, 4), roots -> {
+                    loadingThreads.add(Thread.currentThread());
+                    return roots;
+                }));
+            } finally {
+                subtreeExecutor.destroy();
+            }
+
+            // then
+            assertThat(loadingThreads).containsExactly(Thread.currentThread());
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package com.claire.firstspring.service;
+
+import com.claire.firstspring.config.PersistenceConfig;
+import com.claire.firstspring.model.Menu;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.NoSuchElementException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+
+/**
+ * Reads only, outside a test transaction, so loaded menus are kept in the cache.
+ */
+@JdbcTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ComponentScan({"com.claire.firstspring.repository", "com.claire.firstspring.service"})
+@Import({PersistenceConfig.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class MenuCacheTest {
+    @Autowired
+    SimpleMenuService simpleMenuService;
+
+    @Autowired
+    MenuCache menuCache;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @Test
+    void can_serve_a_menu_from_the_cache() {
+        // given
+        simpleMenuService.menu(1);
+        final long hitsBefore = menuCache.stats().hitCount();
+
+        // when
+        final Menu menu = simpleMenuService.menu(1);
+
+        // then
+        assertThat(menu.name()).isEqualTo("Simple Menu");
+        assertThat(menuCache.stats().hitCount()).isEqualTo(hitsBefore + 1);
+    }
+
+    @Test
+    void evicts_only_the_menu_holding_an_evicted_item() {
+        // given
+        simpleMenuService.menu(1);
+        simpleMenuService.menu(3);
+        final long missesBefore = menuCache.stats().missCount();
+
+        // when
+        menuCache.evictItem(1);
+
+        // then
+        simpleMenuService.menu(1);
+        simpleMenuService.menu(3);
+        assertThat(menuCache.stats().missCount()).isEqualTo(missesBefore + 1);
+    }
+
+    @Test
+    void evicts_menus_holding_a_feature_whatever_its_case() {
+        // given
+        simpleMenuService.menu(1);
+        final long missesBefore = menuCache.stats().missCount();
+
+        // when
+        menuCache.evictFeature("VEGETARIAN");
+
+        // then
+        simpleMenuService.menu(1);
+        assertThat(menuCache.stats().missCount()).isEqualTo(missesBefore + 1);
+    }
+
+    @Test
+    void does_not_keep_a_menu_loaded_while_an_eviction_ran() {
+        // given
+        final Menu menu = simpleMenuService.menu(1);
+        menuCache.evictMenu(1);
+        final AtomicInteger loads = new AtomicInteger();
+
+        // when
+        menuCache.menu(1, () -> {
+            loads.incrementAndGet();
+            menuCache.evictItem(4);
+            return menu;
+        });
+        menuCache.menu(1, counting(loads, menu));
+
+        // then
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void does_not_cache_menus_loaded_in_a_read_write_transaction() {
+        // given
+        final Menu menu = simpleMenuService.menu(1);
+        final AtomicInteger loads = new AtomicInteger();
+
+        // when
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            menuCache.menu(99, counting(loads, menu));
+            menuCache.menu(99, counting(loads, menu));
+            status.setRollbackOnly();
+        });
+        menuCache.menu(99, counting(loads, menu));
+
+        // then
+        assertThat(loads).hasValue(3);
+    }
+
+    @Test
+    void does_not_keep_menus_a_read_only_transaction_loaded_after_an_eviction() {
+        // given
+        final Menu menu = simpleMenuService.menu(1);
+        final AtomicInteger loads = new AtomicInteger();
+        final TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+
+        // when
+        readOnly.executeWithoutResult(status -> {
+            menuCache.menu(97, counting(loads, menu));
+            try {
+                CompletableFuture.runAsync(() -> menuCache.evictMenu(1)).get();
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+            menuCache.menu(98, counting(loads, menu));
+        });
+        menuCache.menu(97, counting(loads, menu));
+        menuCache.menu(98, counting(loads, menu));
+
+        // then
+        assertThat(loads).hasValue(3);
+    }
+
+    @Test
+    void forgets_the_keys_of_menus_that_left_the_cache() {
+        // given
+        final MenuCache smallCache = new MenuCache(1, 300);
+        final Menu simpleMenu = simpleMenuService.menu(1);
+        final Menu otherMenu = simpleMenuService.menu(2);
+        smallCache.menu(2, () -> otherMenu);
+        final int keysOfOtherMenu = smallCache.indexedKeys();
+
+        // when
+        smallCache.menu(1, () -> simpleMenu);
+        smallCache.menu(2, () -> otherMenu);
+
+        // then
+        assertThat(smallCache.size()).isEqualTo(1);
+        assertThat(smallCache.indexedKeys()).isEqualTo(keysOfOtherMenu);
+
+        // when
+        smallCache.evictMenu(2);
+
+        // then
+        assertThat(smallCache.indexedKeys()).isZero();
+    }
+
+    @Test
+    void does_not_cache_missing_menus() {
+        assertThatCode(() -> simpleMenuService.menu(100))
+            .isInstanceOf(NoSuchElementException.class);
+        assertThatCode(() -> simpleMenuService.menu(100))
+            .isInstanceOf(NoSuchElementException.class);
+    }
+
+    private static Supplier<Menu> counting(AtomicInteger loads, Menu menu) {
+        return () -> {
+            loads.incrementAndGet();
+            return menu;
+        };
+    }
+}
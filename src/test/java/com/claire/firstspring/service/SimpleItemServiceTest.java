@@ -3,6 +3,7 @@ package com.claire.firstspring.service;
 import com.claire.firstspring.config.PersistenceConfig;
 import com.claire.firstspring.model.Feature;
 import com.claire.firstspring.model.Item;
+import com.claire.firstspring.model.Money;
 import com.claire.firstspring.model.SimpleItem;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
@@ -99,7 +100,7 @@ class SimpleItemServiceTest {
                 null,
                 "kale soup",
                 "kale in creamy soup",
-                12.99,
+                Money.of("12.99"),
                 features
             );
 
@@ -122,7 +123,7 @@ class SimpleItemServiceTest {
                 null,
                 "kale soup",
                 "creamy kale soup",
-                12.99,
+                Money.of("12.99"),
                 Set.of(glutenFree, keto)
             );
 
@@ -143,7 +144,7 @@ class SimpleItemServiceTest {
                 null,
                 "kale soup",
                 "kale in creamy soup",
-                12.99,
+                Money.of("12.99"),
                 features
             );
 
@@ -167,7 +168,7 @@ class SimpleItemServiceTest {
                 null,
                 "cheese volcano",
                 "cheese sticks in bread",
-                12.99,
+                Money.of("12.99"),
                 emptySet()
             );
             // when/then
@@ -182,7 +183,7 @@ class SimpleItemServiceTest {
                 10,
                 "cheese volcano",
                 "cheese sticks in bread",
-                12.99,
+                Money.of("12.99"),
                 emptySet()
             );
 
@@ -249,7 +250,7 @@ class SimpleItemServiceTest {
                 4,
                 "texas bbq beef",
                 "texas style bbq beef",
-                38.99,
+                Money.of("38.99"),
                 features
             );
 
@@ -269,7 +270,7 @@ class SimpleItemServiceTest {
                 4,
                 "texas bbq beef",
                 "texas style bbq beef",
-                38.99,
+                Money.of("38.99"),
                 item.features()
             );
 
@@ -290,7 +291,7 @@ class SimpleItemServiceTest {
                 4,
                 "texas bbq beef",
                 "texas style bbq beef",
-                38.99,
+                Money.of("38.99"),
                 features
             );
 
@@ -308,7 +309,7 @@ class SimpleItemServiceTest {
                 null,
                 "beef soup",
                 "beef in veg soup",
-                12.99,
+                Money.of("12.99"),
                 emptySet()
             );
 
@@ -324,7 +325,7 @@ class SimpleItemServiceTest {
                 100,
                 "beef soup",
                 "beef in veg soup",
-                13.99,
+                Money.of("13.99"),
                 emptySet()
             );
 
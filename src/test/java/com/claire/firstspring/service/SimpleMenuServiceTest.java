@@ -1,8 +1,14 @@
 package com.claire.firstspring.service;
 
 import com.claire.firstspring.config.PersistenceConfig;
+import com.claire.firstspring.model.Feature;
+import com.claire.firstspring.model.Item;
 import com.claire.firstspring.model.Menu;
+import com.claire.firstspring.model.Money;
+import com.claire.firstspring.model.Section;
+import com.claire.firstspring.model.SimpleItem;
 import com.claire.firstspring.model.SimpleMenu;
+import com.claire.firstspring.model.SimpleSection;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -14,7 +20,9 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.Set;
 
+import static java.util.Collections.emptyList;
 import static java.util.Collections.emptySet;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatCode;
@@ -140,6 +148,53 @@ class SimpleMenuServiceTest {
             assertThat(simpleMenuService.list().stream().map(Menu::name)).contains("Christmas Menu");
         }
 
+        @Test
+        void can_add_rename_and_remove_sections_and_items_of_a_menu() {
+            // given
+            final Menu currentMenu = simpleMenuService.menu(1);
+            final Item unchangedItem = currentMenu.sections()
+                .stream()
+                .filter(section -> section.id() == 1)
+                .flatMap(section -> section.items().stream())
+                .filter(item -> item.id() == 1)
+                .findFirst()
+                .orElseThrow();
+            final Item newItem = new SimpleItem(null, "caesar salad", "romaine and croutons", Money.of("9.5"), Set.of(new Feature("Vegetarian")));
+            final Menu menu = new SimpleMenu(1, "Renamed Menu", Set.of(
+                new SimpleSection(1, "Green Section", List.of(unchangedItem, newItem)),
+                new SimpleSection(null, "Soup Section", emptyList())
+            ));
+
+            // when
+            simpleMenuService.updateMenu(menu);
+
+            // then
+            final Menu updatedMenu = simpleMenuService.menu(1);
+            assertThat(updatedMenu.name()).isEqualTo("Renamed Menu");
+            assertThat(updatedMenu.sections().stream().map(Section::name))
+                .containsExactlyInAnyOrder("Green Section", "Soup Section");
+            final Section greenSection = updatedMenu.sections()
+                .stream()
+                .filter(section -> section.id() == 1)
+                .findFirst()
+                .orElseThrow();
+            assertThat(greenSection.items().stream().map(Item::name))
+                .containsExactlyInAnyOrder("thai papaya salad", "caesar salad");
+            assertThat(greenSection.items().stream().flatMap(item -> item.features().stream()))
+                .containsExactlyInAnyOrder(new Feature("Keto"), new Feature("Vegetarian"));
+        }
+
+        @Test
+        void fails_to_update_a_menu_with_a_section_of_another_menu() {
+            // given
+            Menu menu = new SimpleMenu(1, "Simple Menu", Set.of(new SimpleSection(3, "Poultry Section", emptyList())));
+
+            // when/then
+            assertThatCode(() -> simpleMenuService.updateMenu(menu))
+                .isInstanceOf(NoSuchElementException.class)
+                .hasMessageContaining("section id 3 does not exist in menu 1");
+        }
+
         @Test
         void fails_to_update_a_menu_with_empty_menu_id() {
             // given
@@ -5,6 +5,7 @@ import com.claire.firstspring.model.Menu;
 import com.claire.firstspring.model.Restaurant;
 import com.claire.firstspring.model.SimpleMenu;
 import com.claire.firstspring.model.SimpleRestaurant;
+import com.claire.firstspring.model.SimpleSection;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -15,9 +16,11 @@ import org.springframework.context.annotation.Import;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.Set;
 
+import static java.util.Collections.emptyList;
 import static java.util.Collections.emptySet;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatCode;
@@ -118,6 +121,31 @@ class SimpleRestaurantServiceTest {
                 assertThat(simpleRestaurantService.get(1).name()).isEqualTo("test restaurant");
             }
 
+            @Test
+            void can_replace_the_menus_of_a_restaurant() {
+                // given
+                final Menu holidayMenu = simpleRestaurantService.get(1)
+                    .menus()
+                    .stream()
+                    .filter(menu -> menu.id() == 2)
+                    .findFirst()
+                    .orElseThrow();
+                Restaurant restaurant = new SimpleRestaurant(1, "Ruth Steakhouse", Set.of(
+                    holidayMenu,
+                    new SimpleMenu(null, "Brunch Menu", Set.of(new SimpleSection(null, "Egg Section", emptyList())))
+                ));
+
+                // when
+                simpleRestaurantService.updateRestaurant(restaurant);
+
+                // then
+                final Restaurant updatedRestaurant = simpleRestaurantService.get(1);
+                assertThat(updatedRestaurant.menus().stream().map(Menu::name))
+                    .containsExactlyInAnyOrder("Holiday Menu", "Brunch Menu");
+                assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM section WHERE menu_id = 1", Integer.class))
+                    .isZero();
+            }
+
             @Test
             void fails_to_update_a_restaurant_without_a_restaurant_id() {
                 // given
@@ -173,6 +201,28 @@ class SimpleRestaurantServiceTest {
                     .isInstanceOf(NullPointerException.class)
                     .hasMessageContaining("restaurant id cannot be null");
             }
+
+            @Test
+            void can_delete_restaurants_with_everything_below_them() {
+                // when
+                simpleRestaurantService.deleteRestaurants(List.of(1, 2));
+
+                // then
+                assertThat(simpleRestaurantService.list()).isEmpty();
+                for (String table : List.of("menu", "section", "item", "item_feature")) {
+                    assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM " + table, Integer.class))
+                        .isZero();
+                }
+            }
+
+            @Test
+            void fails_to_delete_restaurants_when_some_do_not_exist() {
+                assertThatCode(() -> simpleRestaurantService.deleteRestaurants(List.of(1, 100, 200)))
+                    .isInstanceOf(NoSuchElementException.class)
+                    .hasMessageContaining("restaurant ids 100, 200 do not exist");
+
+                assertThat(simpleRestaurantService.get(1).name()).isEqualTo("Ruth Steakhouse");
+            }
         }
     }
 }
\ No newline at end of file
@@ -2,6 +2,7 @@ package com.claire.firstspring.service;
 
 import com.claire.firstspring.config.PersistenceConfig;
 import com.claire.firstspring.model.Item;
+import com.claire.firstspring.model.Money;
 import com.claire.firstspring.model.Section;
 import com.claire.firstspring.model.SimpleItem;
 import com.claire.firstspring.model.SimpleSection;
@@ -89,7 +90,7 @@ class SimpleSectionServiceTest {
                 null,
                 "stir fried beef",
                 "stir fried beef with vegetables",
-                12.99,
+                Money.of("12.99"),
                 emptySet()
             );
 
@@ -97,7 +98,7 @@ class SimpleSectionServiceTest {
                 null,
                 "stir fried vegetables",
                 "stir fried vegetables in garlic sauce",
-                12.99,
+                Money.of("12.99"),
                 emptySet()
             );
 
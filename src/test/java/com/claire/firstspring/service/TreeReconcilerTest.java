@@ -0,0 +1,65 @@
+package com.claire.firstspring.service;
+
+import com.claire.firstspring.model.Feature;
+import com.claire.firstspring.model.Item;
+import com.claire.firstspring.model.Menu;
+import com.claire.firstspring.model.Money;
+import com.claire.firstspring.model.SimpleItem;
+import com.claire.firstspring.model.SimpleMenu;
+import com.claire.firstspring.model.SimpleSection;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+
+class TreeReconcilerTest {
+    private final TreeReconciler treeReconciler = new TreeReconciler();
+
+    private final Item salad = new SimpleItem(1, "salad", "greens", Money.of("9.99"), Set.of(new Feature("Vegetarian")));
+    private final Menu menu = new SimpleMenu(1, "Lunch Menu", Set.of(
+        new SimpleSection(1, "Salad Section", List.of(salad))
+    ));
+
+    @Test
+    void does_not_change_anything_for_an_unchanged_menu() {
+        // given
+        final Menu sameMenu = new SimpleMenu(1, "Lunch Menu", Set.of(
+            new SimpleSection(1, "Salad Section", List.of(
+                new SimpleItem(1, "salad", "greens", Money.of("9.99"), Set.of(new Feature("Vegetarian")))
+            ))
+        ));
+
+        // when/then
+        assertThat(treeReconciler.menu(menu, sameMenu).isEmpty()).isTrue();
+    }
+
+    @Test
+    void changes_an_item_with_a_different_price() {
+        // given
+        final Menu changedMenu = new SimpleMenu(1, "Lunch Menu", Set.of(
+            new SimpleSection(1, "Salad Section", List.of(
+                new SimpleItem(1, "salad", "greens", Money.of("10.99"), Set.of(new Feature("Vegetarian")))
+            ))
+        ));
+
+        // when/then
+        assertThat(treeReconciler.menu(menu, changedMenu).isEmpty()).isFalse();
+    }
+
+    @Test
+    void fails_to_reconcile_a_section_that_is_not_in_the_menu() {
+        // given
+        final Menu changedMenu = new SimpleMenu(1, "Lunch Menu", Set.of(
+            new SimpleSection(7, "Salad Section", List.of(salad))
+        ));
+
+        // when/then
+        assertThatCode(() -> treeReconciler.menu(menu, changedMenu))
+            .isInstanceOf(NoSuchElementException.class)
+            .hasMessageContaining("section id 7 does not exist in menu 1");
+    }
+}
@@ -1,5 +1,6 @@
 package com.claire.firstspring.web;
 
+import com.claire.firstspring.config.SqlStatementCounter;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -7,6 +8,7 @@ import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabas
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.ResultHandler;
@@ -16,6 +18,7 @@ import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import java.util.concurrent.Callable;
 
 import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
@@ -31,6 +34,18 @@ public abstract class AbstractResourceTest {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private SqlStatementCounter sqlStatementCounter;
+
+    /**
+     * Pins how many SQL statements the last request may issue, so an extra query per row fails the test.
+     */
+    protected void assertQueriesAtMost(int maxStatements) {
+        assertThat(sqlStatementCounter.current())
+            .as("SQL statements of the last request, most repeated: %s", sqlStatementCounter.mostRepeated())
+            .isLessThanOrEqualTo(maxStatements);
+    }
+
     protected <T> T get(String uri, int status, Class<T> tClass) {
         return propagate(() -> objectMapper.readValue(get(uri, status), tClass));
     }
@@ -39,6 +54,28 @@ public abstract class AbstractResourceTest {
         return propagate(() -> objectMapper.readValue(get(uri, status), collectionTypeReference));
     }
 
+    protected String getText(String uri, int status) {
+        return new String(get(uri, status), UTF_8);
+    }
+
+    protected String getHeader(String uri, int status, String headerName) {
+        return propagate(
+            () -> mockMvc.perform(get(uri))
+                .andExpect(status().is(status))
+                .andDo(debugHandler())
+                .andReturn()
+        ).getResponse().getHeader(headerName);
+    }
+
+    protected MockHttpServletResponse get(String uri, int status, String headerName, String headerValue) {
+        return propagate(
+            () -> mockMvc.perform(get(uri).header(headerName, headerValue))
+                .andExpect(status().is(status))
+                .andDo(debugHandler())
+                .andReturn()
+        ).getResponse();
+    }
+
     protected <T> void put(String uri, int status, T t) {
         propagate(() -> {
             final String body = objectMapper.writeValueAsString(t);
@@ -63,6 +100,33 @@ public abstract class AbstractResourceTest {
         });
     }
 
+    protected <T, R> R post(String uri, int status, T t, TypeReference<R> responseTypeReference) {
+        return propagate(() -> {
+            final String body = objectMapper.writeValueAsString(t);
+            final MockHttpServletRequestBuilder requestBuilder = post(uri)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body);
+            final MvcResult mvcResult = mockMvc.perform(requestBuilder)
+                .andExpect(status().is(status))
+                .andDo(debugHandler())
+                .andReturn();
+            return objectMapper.readValue(mvcResult.getResponse().getContentAsByteArray(), responseTypeReference);
+        });
+    }
+
+    protected <R> R postBody(String uri, int status, String body, Class<R> responseClass) {
+        return propagate(() -> {
+            final MockHttpServletRequestBuilder requestBuilder = post(uri)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body);
+            final MvcResult mvcResult = mockMvc.perform(requestBuilder)
+                .andExpect(status().is(status))
+                .andDo(debugHandler())
+                .andReturn();
+            return objectMapper.readValue(mvcResult.getResponse().getContentAsByteArray(), responseClass);
+        });
+    }
+
     private byte[] get(String uri, int status) {
         MvcResult mvcResult = propagate(
             () -> mockMvc.perform(get(uri))
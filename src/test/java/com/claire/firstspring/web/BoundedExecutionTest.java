@@ -0,0 +1,75 @@
+package com.claire.firstspring.web;
+
+import com.claire.firstspring.web.model.WebError;
+import com.claire.firstspring.web.model.WebRestaurant;
+import com.claire.firstspring.web.model.WebTimer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.ResponseEntity;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static java.util.stream.Collectors.toList;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(
+    webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+    properties = {"web.execution.mode=bounded", "web.execution.threads=2"}
+)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class BoundedExecutionTest {
+    @Autowired
+    TestRestTemplate restTemplate;
+
+    @Test
+    void serves_concurrent_requests_on_the_bounded_executor() {
+        // given
+        final List<CompletableFuture<ResponseEntity<WebRestaurant>>> responses = new ArrayList<>();
+
+        // when
+        for (int i = 0; i < 20; i++) {
+            responses.add(CompletableFuture.supplyAsync(() -> restTemplate.getForEntity("/restaurants/1", WebRestaurant.class)));
+        }
+
+        // then
+        final List<ResponseEntity<WebRestaurant>> completed = responses.stream()
+            .map(CompletableFuture::join)
+            .collect(toList());
+        assertThat(completed).allSatisfy(response -> {
+            assertThat(response.getStatusCodeValue()).isEqualTo(200);
+            assertThat(response.getBody().name).isEqualTo("Ruth Steakhouse");
+        });
+    }
+
+    @Test
+    void counts_the_statements_issued_on_the_executor() {
+        // given
+        restTemplate.getForEntity("/restaurants/1", WebRestaurant.class);
+
+        // when
+        final WebTimer[] webTimers = restTemplate.getForObject("/metrics/endpoints", WebTimer[].class);
+
+        // then
+        final WebTimer restaurantTimer = Arrays.stream(webTimers)
+            .filter(webTimer -> webTimer.name.equals("GET /restaurants/{restaurant-id}"))
+            .findFirst()
+            .orElseThrow();
+        assertThat(restaurantTimer.maxStatements).isPositive();
+    }
+
+    @Test
+    void maps_errors_as_in_thread_per_request_mode() {
+        // given/when
+        final ResponseEntity<WebError> response = restTemplate.getForEntity("/restaurants/100", WebError.class);
+
+        // then
+        assertThat(response.getStatusCodeValue()).isEqualTo(404);
+        assertThat(response.getBody().errorMessage).contains("restaurant id 100 does not exist");
+    }
+}
@@ -0,0 +1,119 @@
+package com.claire.firstspring.web;
+
+import com.claire.firstspring.web.model.WebError;
+import com.claire.firstspring.web.model.WebItem;
+import com.claire.firstspring.web.model.WebMenu;
+import com.claire.firstspring.web.model.WebRestaurant;
+import com.claire.firstspring.web.model.WebSection;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static com.claire.firstspring.web.RestaurantResourceTest.WEB_RESTAURANT_LIST_TYPE_REFERENCE;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ExportResourceTest {
+
+    @Nested
+    @Transactional
+    class Exporting extends AbstractResourceTest {
+        @Autowired
+        ObjectMapper objectMapper;
+
+        @Test
+        void can_export_the_catalogue_as_a_json_array() {
+            // when
+            final List<WebRestaurant> webRestaurants = get("/export", 200, WEB_RESTAURANT_LIST_TYPE_REFERENCE);
+            assertQueriesAtMost(1);
+
+            // then
+            assertThat(webRestaurants).extracting(webRestaurant -> webRestaurant.name)
+                .containsExactly("Ruth Steakhouse", "Sam Steakhouse");
+            final WebRestaurant ruth = webRestaurants.get(0);
+            assertThat(ruth.menus).extracting(webMenu -> webMenu.name)
+                .containsExactlyInAnyOrder("Simple Menu", "Holiday Menu");
+            final WebMenu simpleMenu = ruth.menus.stream()
+                .filter(webMenu -> webMenu.id == 1)
+                .findFirst()
+                .orElseThrow();
+            assertThat(simpleMenu.sections).extracting(webSection -> webSection.name)
+                .containsExactlyInAnyOrder("Salad Section", "Pasta Section");
+            final WebSection pastaSection = simpleMenu.sections.stream()
+                .filter(webSection -> webSection.id == 2)
+                .findFirst()
+                .orElseThrow();
+            assertThat(pastaSection.items).containsExactly(
+                WebItem.of(3, "Italian pasta with pesto and mushrooms", "pasta with pesto sauce", new BigDecimal("15.99"), Set.of("Vegetarian")),
+                WebItem.of(4, "low calories salad", "tomatoes and cucumbers", new BigDecimal("15.99"), Set.of("Keto", "Low Fat"))
+            );
+        }
+
+        @Test
+        void can_export_empty_menus_and_sections() {
+            // when
+            final List<WebRestaurant> webRestaurants = get("/export", 200, WEB_RESTAURANT_LIST_TYPE_REFERENCE);
+
+            // then
+            final WebMenu holidayMenu = webRestaurants.get(0).menus.stream()
+                .filter(webMenu -> webMenu.id == 2)
+                .findFirst()
+                .orElseThrow();
+            assertThat(holidayMenu.sections).extracting(webSection -> webSection.items)
+                .containsExactly(List.of());
+            assertThat(webRestaurants.get(1).menus).extracting(webMenu -> webMenu.sections)
+                .containsExactly(Set.of());
+        }
+
+        @Test
+        void can_export_the_catalogue_as_ndjson() throws IOException {
+            // when
+            final String ndjson = getText("/export?format=ndjson", 200);
+            assertQueriesAtMost(1);
+
+            // then
+            final List<WebRestaurant> webRestaurants = new ArrayList<>();
+            for (String line : ndjson.split("\n")) {
+                webRestaurants.add(objectMapper.readValue(line, WebRestaurant.class));
+            }
+            assertThat(ndjson).endsWith("\n");
+            assertThat(webRestaurants).extracting(webRestaurant -> webRestaurant.id)
+                .containsExactly(1, 2);
+        }
+
+        @Test
+        @Sql(statements = {
+            "DELETE FROM item_feature",
+            "DELETE FROM item",
+            "DELETE FROM section",
+            "DELETE FROM menu",
+            "DELETE FROM restaurant"
+        })
+        void can_export_an_empty_catalogue() {
+            // when
+            final List<WebRestaurant> webRestaurants = get("/export", 200, WEB_RESTAURANT_LIST_TYPE_REFERENCE);
+            final String ndjson = getText("/export?format=ndjson", 200);
+
+            // then
+            assertThat(webRestaurants).isEmpty();
+            assertThat(ndjson).isEmpty();
+        }
+
+        @Test
+        void fails_to_export_in_an_unknown_format() {
+            // when
+            final WebError webError = get("/export?format=xml", 400, WebError.class);
+
+            // then
+            assertThat(webError.errorMessage).contains("client-error: format must be json or ndjson");
+        }
+    }
+}
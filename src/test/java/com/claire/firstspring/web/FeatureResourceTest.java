@@ -4,6 +4,8 @@ import com.claire.firstspring.web.model.FeatureUpdate;
 import com.fasterxml.jackson.core.type.TypeReference;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletResponse;
 import org.springframework.test.context.jdbc.Sql;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -26,6 +28,7 @@ class FeatureResourceTest {
         void can_list_features() throws Exception {
             // when
             final Set<String> features = get("/features", 200, STRING_SET_TYPE_REFERENCE);
+            assertQueriesAtMost(1);
 
             // then
             assertThat(features)
@@ -147,6 +150,21 @@ class FeatureResourceTest {
             assertThat(featuresAfter).contains("Gluten Free");
         }
 
+        @Test
+        void changes_the_etag_of_the_restaurants_whose_items_have_the_renamed_feature() throws Exception {
+            // given
+            final String eTagBefore = getHeader("/restaurants/1", 200, HttpHeaders.ETAG);
+            final String otherRestaurantETagBefore = getHeader("/restaurants/2", 200, HttpHeaders.ETAG);
+
+            // when
+            put("/features/Keto/name/Paleo", 200);
+
+            // then
+            final MockHttpServletResponse response = get("/restaurants/1", 200, HttpHeaders.IF_NONE_MATCH, eTagBefore);
+            assertThat(response.getHeader(HttpHeaders.ETAG)).isNotEqualTo(eTagBefore);
+            get("/restaurants/2", 304, HttpHeaders.IF_NONE_MATCH, otherRestaurantETagBefore);
+        }
+
         @Test
         void can_update_a_list_of_features() throws Exception {
             // given
@@ -0,0 +1,126 @@
+package com.claire.firstspring.web;
+
+import com.claire.firstspring.web.model.WebImportReport;
+import com.claire.firstspring.web.model.WebRestaurant;
+import org.apache.commons.lang3.StringUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static com.claire.firstspring.web.RestaurantResourceTest.WEB_RESTAURANT_LIST_TYPE_REFERENCE;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+class ImportResourceTest {
+
+    /**
+     * Each chunk commits on its own, so the imported restaurants are deleted again after each test.
+     */
+    @Nested
+    class Importing extends AbstractResourceTest {
+        @AfterEach
+        void deleteImportedRestaurants() {
+            final List<Integer> importedIds = get("/export", 200, WEB_RESTAURANT_LIST_TYPE_REFERENCE).stream()
+                .map(webRestaurant -> webRestaurant.id)
+                .filter(id -> id > 2)
+                .collect(Collectors.toList());
+            if (!importedIds.isEmpty()) {
+                delete("/restaurants?ids=" + StringUtils.join(importedIds, ','), 200);
+            }
+        }
+
+        @Test
+        void can_import_a_json_array_of_restaurants_in_chunks() {
+            // given
+            final String body = "["
+                + "{\"name\": \"Noodle Bar\", \"menus\": [{\"name\": \"Lunch\", \"sections\": [{\"name\": \"Soups\", \"items\": ["
+                + "{\"name\": \"pho\", \"description\": \"beef noodle soup\", \"price\": 11.5, \"features\": [\"Keto\"]}"
+                + "]}]}]},"
+                + "{\"name\": \"Taco Stand\"},"
+                + "{\"name\": \"Curry House\", \"menus\": []}"
+                + "]";
+
+            // when
+            final WebImportReport report = postBody("/import", 200, body, WebImportReport.class);
+
+            // then
+            assertThat(report.read).isEqualTo(3);
+            assertThat(report.imported).isEqualTo(3);
+            assertThat(report.failed).isZero();
+            assertThat(report.chunks).isEqualTo(2);
+            assertThat(report.complete).isTrue();
+            final List<WebRestaurant> webRestaurants = get("/export", 200, WEB_RESTAURANT_LIST_TYPE_REFERENCE);
+            assertThat(webRestaurants).extracting(webRestaurant -> webRestaurant.name)
+                .contains("Noodle Bar", "Taco Stand", "Curry House");
+            final WebRestaurant noodleBar = webRestaurants.stream()
+                .filter(webRestaurant -> webRestaurant.name.equals("Noodle Bar"))
+                .findFirst()
+                .orElseThrow();
+            assertThat(noodleBar.menus).flatExtracting(webMenu -> webMenu.sections)
+                .flatExtracting(webSection -> webSection.items)
+                .extracting(webItem -> webItem.name)
+                .containsExactly("pho");
+        }
+
+        @Test
+        void can_import_newline_delimited_restaurants() {
+            // given
+            final String body = "{\"name\": \"Noodle Bar\"}\n{\"name\": \"Taco Stand\"}\n";
+
+            // when
+            final WebImportReport report = postBody("/import", 200, body, WebImportReport.class);
+
+            // then
+            assertThat(report.imported).isEqualTo(2);
+            assertThat(report.complete).isTrue();
+        }
+
+        @Test
+        void reports_rejected_restaurants_and_imports_the_others() {
+            // given
+            final String body = "["
+                + "{\"name\": \"Ruth Steakhouse\"},"
+                + "{\"name\": \"Noodle Bar\"},"
+                + "{\"name\": \"Taco Stand\", \"menus\": \"not a list\"},"
+                + "{\"name\": \"Curry House\", \"menus\": [{\"id\": 1, \"name\": \"Lunch\", \"sections\": []}]}"
+                + "]";
+
+            // when
+            final WebImportReport report = postBody("/import", 200, body, WebImportReport.class);
+
+            // then
+            assertThat(report.read).isEqualTo(4);
+            assertThat(report.imported).isEqualTo(1);
+            assertThat(report.failed).isEqualTo(3);
+            assertThat(report.complete).isTrue();
+            assertThat(report.errors).extracting(error -> error.index, error -> error.name)
+                .containsExactlyInAnyOrder(
+                    tuple(0, "Ruth Steakhouse"),
+                    tuple(2, "Taco Stand"),
+                    tuple(3, "Curry House")
+                );
+            assertThat(get("/export", 200, WEB_RESTAURANT_LIST_TYPE_REFERENCE))
+                .extracting(webRestaurant -> webRestaurant.name)
+                .contains("Noodle Bar")
+                .doesNotContain("Taco Stand", "Curry House");
+        }
+
+        @Test
+        void stops_at_invalid_json_and_keeps_the_chunks_already_imported() {
+            // given
+            final String body = "[{\"name\": \"Noodle Bar\"}, {\"name\": \"Taco Stand\"}, {\"name\": \"Curry House\" ";
+
+            // when
+            final WebImportReport report = postBody("/import", 200, body, WebImportReport.class);
+
+            // then
+            assertThat(report.imported).isEqualTo(2);
+            assertThat(report.complete).isFalse();
+            assertThat(report.errors).extracting(error -> error.index).containsExactly(2);
+            assertThat(report.errors.get(0).message).startsWith("import stopped, the body is not valid JSON");
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.claire.firstspring.web;
 
+import com.claire.firstspring.web.model.WebError;
 import com.claire.firstspring.web.model.WebItem;
 import com.fasterxml.jackson.core.type.TypeReference;
 import org.junit.jupiter.api.Nested;
@@ -7,6 +8,7 @@ import org.junit.jupiter.api.Test;
 import org.springframework.test.context.jdbc.Sql;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
@@ -31,6 +33,7 @@ class ItemResourceTest {
         void can_get_an_item_with_item_id() {
             // when
             final WebItem webItem = get("/items/1", 200, WebItem.class);
+            assertQueriesAtMost(2);
 
             // then
             assertThat(webItem.name).contains("thai papaya salad");
@@ -42,6 +45,7 @@ class ItemResourceTest {
         void can_get_a_list_of_items() {
             // when
             final List<WebItem> webItems = get("/items", 200, WEB_ITEM_LIST_TYPE_REFERENCE);
+            assertQueriesAtMost(2);
 
             // then
             assertThat(webItems.stream().map((WebItem webItem) -> webItem.name))
@@ -61,7 +65,7 @@ class ItemResourceTest {
                 );
 
             assertThat(webItems.stream().map((WebItem webItem) -> webItem.price))
-                .contains(23.99, 15.99);
+                .contains(new BigDecimal("23.99"), new BigDecimal("15.99"));
         }
 
         @Test
@@ -81,6 +85,223 @@ class ItemResourceTest {
         }
     }
 
+    @Nested
+    @Transactional
+    class PriceQueries extends AbstractResourceTest {
+
+        @Test
+        void can_filter_items_by_price_range() {
+            assertThat(get("/items?minPrice=15.99&maxPrice=20", 200, WEB_ITEM_LIST_TYPE_REFERENCE))
+                .extracting(webItem -> webItem.id)
+                .containsExactly(3, 4);
+            assertThat(get("/items?minPrice=16", 200, WEB_ITEM_LIST_TYPE_REFERENCE))
+                .extracting(webItem -> webItem.id)
+                .containsExactly(2);
+        }
+
+        @Test
+        void can_sort_items_by_price() {
+            assertThat(get("/items?sort=price", 200, WEB_ITEM_LIST_TYPE_REFERENCE))
+                .extracting(webItem -> webItem.id)
+                .containsExactly(1, 3, 4, 2);
+            assertThat(get("/items?sort=-price", 200, WEB_ITEM_LIST_TYPE_REFERENCE))
+                .extracting(webItem -> webItem.id)
+                .containsExactly(2, 4, 3, 1);
+        }
+
+        @Test
+        void can_page_through_items_sorted_by_price() {
+            // when
+            final String nextCursor = getHeader("/items?sort=-price&size=2", 200, PageResponses.NEXT_CURSOR_HEADER);
+
+            // then
+            assertThat(nextCursor).isEqualTo("4");
+            assertThat(get("/items?sort=-price&after=4", 200, WEB_ITEM_LIST_TYPE_REFERENCE))
+                .extracting(webItem -> webItem.id)
+                .containsExactly(3, 1);
+        }
+
+        @Test
+        void keeps_prices_exact_above_a_thousand() {
+            // given
+            final WebItem webItem = get("/items/2", 200, WebItem.class);
+            webItem.price = new BigDecimal("1234567.89");
+
+            // when
+            put("/items/2", 200, webItem);
+
+            // then
+            final List<WebItem> webItems = get("/items?minPrice=1234567.89&sort=-price", 200, WEB_ITEM_LIST_TYPE_REFERENCE);
+            assertThat(webItems).extracting(found -> found.id).containsExactly(2);
+            assertThat(webItems.get(0).price).isEqualByComparingTo("1234567.89");
+        }
+
+        @Test
+        void fails_to_filter_by_prices_with_fractions_of_cents() {
+            // when
+            final WebError webError = get("/items?maxPrice=9.999", 400, WebError.class);
+
+            // then
+            assertThat(webError.errorMessage).contains("at most 2 decimal places");
+        }
+
+        @Test
+        void fails_to_filter_by_an_empty_price_range() {
+            get("/items?minPrice=20&maxPrice=10", 400, WebError.class);
+        }
+
+        @Test
+        void fails_to_sort_by_an_unknown_order() {
+            // when
+            final WebError webError = get("/items?sort=name", 400, WebError.class);
+
+            // then
+            assertThat(webError.errorMessage).contains("cannot sort items by [name]");
+        }
+
+        @Test
+        void fails_to_combine_features_with_price_queries() {
+            get("/items?features=Keto&sort=price", 400, WebError.class);
+        }
+    }
+
+    @Nested
+    @Transactional
+    class Filtering extends AbstractResourceTest {
+
+        @Test
+        void can_filter_items_by_features() {
+            // given
+            get("/items?features=Keto", 200, WEB_ITEM_LIST_TYPE_REFERENCE);
+
+            // when
+            final List<WebItem> webItems = get("/items?features=Keto", 200, WEB_ITEM_LIST_TYPE_REFERENCE);
+            assertQueriesAtMost(2);
+
+            // then
+            assertThat(webItems).extracting(webItem -> webItem.id).containsExactly(1, 4);
+            assertThat(webItems.get(1).features).containsExactlyInAnyOrder("Keto", "Low Fat");
+        }
+
+        @Test
+        void can_combine_required_alternative_and_excluded_features() {
+            assertThat(get("/items?features=Keto,!Low Fat", 200, WEB_ITEM_LIST_TYPE_REFERENCE))
+                .extracting(webItem -> webItem.id)
+                .containsExactly(1);
+            assertThat(get("/items?features=Vegetarian|Low Fat", 200, WEB_ITEM_LIST_TYPE_REFERENCE))
+                .extracting(webItem -> webItem.id)
+                .containsExactly(3, 4);
+            assertThat(get("/items?features=!Keto", 200, WEB_ITEM_LIST_TYPE_REFERENCE))
+                .extracting(webItem -> webItem.id)
+                .containsExactly(2, 3);
+        }
+
+        @Test
+        void fails_to_filter_by_blank_feature_names() {
+            // when
+            final WebError webError = get("/items?features=Keto||Vegetarian", 400, WebError.class);
+
+            // then
+            assertThat(webError.errorMessage).contains("feature names in a filter cannot be blank");
+        }
+
+        @Test
+        void finds_no_items_for_unknown_features() {
+            assertThat(get("/items?features=Spicy", 200, WEB_ITEM_LIST_TYPE_REFERENCE)).isEmpty();
+        }
+
+        @Test
+        void can_page_through_filtered_items() {
+            // when
+            final String nextCursor = getHeader("/items?features=Keto&size=1", 200, PageResponses.NEXT_CURSOR_HEADER);
+
+            // then
+            assertThat(nextCursor).isEqualTo("1");
+            assertThat(get("/items?features=Keto&after=1", 200, WEB_ITEM_LIST_TYPE_REFERENCE))
+                .extracting(webItem -> webItem.id)
+                .containsExactly(4);
+        }
+
+        @Test
+        void follows_feature_changes_of_items() {
+            // given
+            final WebItem webItem = get("/items/2", 200, WebItem.class);
+            webItem.features = Set.of("Keto");
+
+            // when
+            put("/items/2", 200, webItem);
+
+            // then
+            assertThat(get("/items?features=Keto", 200, WEB_ITEM_LIST_TYPE_REFERENCE))
+                .extracting(found -> found.id)
+                .containsExactly(1, 2, 4);
+        }
+    }
+
+    @Nested
+    @Transactional
+    class Searching extends AbstractResourceTest {
+
+        @Test
+        void can_search_items_by_name_and_description() {
+            // when
+            final List<WebItem> webItems = get("/items/search?q=pesto", 200, WEB_ITEM_LIST_TYPE_REFERENCE);
+            assertQueriesAtMost(3);
+
+            // then
+            assertThat(webItems).hasSize(1);
+            assertThat(webItems.get(0).name).isEqualTo("Italian pasta with pesto and mushrooms");
+            assertThat(webItems.get(0).features).containsExactly("Vegetarian");
+        }
+
+        @Test
+        void ranks_the_items_found_by_prefixes() {
+            // when
+            final List<WebItem> webItems = get("/items/search?q=sal&size=2", 200, WEB_ITEM_LIST_TYPE_REFERENCE);
+
+            // then
+            assertThat(webItems.stream().map((WebItem webItem) -> webItem.id))
+                .containsExactly(1, 2);
+        }
+
+        @Test
+        void finds_updated_items_by_their_new_name() {
+            // given
+            final WebItem webItem = get("/items/4", 200, WebItem.class);
+            webItem.name = "high protein beef soup";
+
+            // when
+            put("/items/4", 200, webItem);
+
+            // then
+            assertThat(get("/items/search?q=beef", 200, WEB_ITEM_LIST_TYPE_REFERENCE))
+                .extracting(found -> found.id)
+                .containsExactly(4);
+            assertThat(get("/items/search?q=calories", 200, WEB_ITEM_LIST_TYPE_REFERENCE)).isEmpty();
+        }
+
+        @Test
+        void does_not_find_deleted_items() {
+            // given
+            delete("/sections/1", 200);
+
+            // when
+            final List<WebItem> webItems = get("/items/search?q=salad", 200, WEB_ITEM_LIST_TYPE_REFERENCE);
+
+            // then
+            assertThat(webItems).extracting(found -> found.id).containsExactly(4);
+        }
+
+        @Test
+        void fails_to_search_with_a_blank_query() {
+            // when
+            final WebError webError = get("/items/search?q= ", 400, WebError.class);
+
+            // then
+            assertThat(webError.errorMessage).contains("search query cannot be blank");
+        }
+    }
+
     @Nested
     @Transactional
     class Updating extends AbstractResourceTest {
@@ -93,7 +314,7 @@ class ItemResourceTest {
 
             // when
             webItem.id = webItem.id;
-            webItem.price = 23.99;
+            webItem.price = new BigDecimal("23.99");
             webItem.name = "high protein beef soup";
             webItem.description = "high protein beef bone soup with vegetables";
             webItem.features = hashSet("Keto");
@@ -130,7 +351,7 @@ class ItemResourceTest {
 
             webItemsToUpdate.get(1).name = webItemsToUpdate.get(1).name + 1;
             webItemsToUpdate.get(2).description = webItemsToUpdate.get(2).description + 2;
-            webItemsToUpdate.get(3).price = webItemsToUpdate.get(3).price + 3;
+            webItemsToUpdate.get(3).price = webItemsToUpdate.get(3).price.add(new BigDecimal("3"));
             webItemsToUpdate.get(3).features = Set.of("Low Fat");
 
             // when
@@ -206,7 +427,7 @@ class ItemResourceTest {
     class Deletion extends AbstractResourceTest {
         @Test
         @Sql(statements =
-            "INSERT INTO item (id, name, description, price, section_id) VALUES (100, 'sweet corn soup', 'soup', 10.99, 1)"
+            "INSERT INTO item (id, name, description, price_cents, section_id) VALUES (100, 'sweet corn soup', 'soup', 1099, 1)"
         )
         void can_delete_an_item() {
             // given
@@ -222,8 +443,8 @@ class ItemResourceTest {
 
         @Test
         @Sql(statements =
-            {"INSERT INTO item (id, name, description, price, section_id) VALUES (100, 'sweet corn soup', 'soup', 10.99, 1)",
-                "INSERT INTO item (id, name, description, price, section_id) VALUES (200, 'spicy beef', 'meat', 20.99, 2)"
+            {"INSERT INTO item (id, name, description, price_cents, section_id) VALUES (100, 'sweet corn soup', 'soup', 1099, 1)",
+                "INSERT INTO item (id, name, description, price_cents, section_id) VALUES (200, 'spicy beef', 'meat', 2099, 2)"
             }
         )
         void can_delete_a_list_of_items() {
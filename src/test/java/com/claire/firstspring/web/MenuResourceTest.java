@@ -7,11 +7,18 @@ import com.claire.firstspring.web.model.WebSection;
 import com.fasterxml.jackson.core.type.TypeReference;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletResponse;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
 import java.util.List;
 import java.util.Set;
+import java.util.zip.GZIPInputStream;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.assertj.core.api.Assertions.assertThat;
 
 class MenuResourceTest {
@@ -32,6 +39,7 @@ class MenuResourceTest {
         void can_get_a_menu() {
             // when
             final WebMenu webMenu = get("/menus/2", 200, WebMenu.class);
+            assertQueriesAtMost(5);
 
             // then
             assertThat(webMenu.name).contains("Holiday Menu");
@@ -41,6 +49,7 @@ class MenuResourceTest {
         void can_get_a_list_of_menus() {
             // when
             final List<WebMenu> webMenuList = get("/menus?ids=1,2", 200, WEB_MENU_LIST_TYPE_REFERENCE);
+            assertQueriesAtMost(9);
 
             // then
             assertThat(webMenuList.stream().map(webMenu -> webMenu.name)).contains("Simple Menu", "Holiday Menu");
@@ -52,6 +61,26 @@ class MenuResourceTest {
             final WebError webError = get("/menus/100", 404, WebError.class);
             assertThat(webError.errorMessage).contains("menu id 100 does not exist");
         }
+
+        @Test
+        void can_get_menus_without_their_sections() {
+            // when
+            final List<WebMenu> webMenuList = get("/menus?depth=menu", 200, WEB_MENU_LIST_TYPE_REFERENCE);
+            assertQueriesAtMost(1);
+
+            // then
+            assertThat(webMenuList).extracting(webMenu -> webMenu.name).contains("Simple Menu", "Holiday Menu");
+            assertThat(webMenuList).extracting(webMenu -> webMenu.sections).containsOnlyNulls();
+        }
+
+        @Test
+        void fails_to_get_a_menu_down_to_its_restaurant() {
+            // when
+            final WebError webError = get("/menus/1?depth=restaurant", 400, WebError.class);
+
+            // then
+            assertThat(webError.errorMessage).contains("depth [restaurant] is above the menus being read");
+        }
     }
 
     @Nested
@@ -70,7 +99,7 @@ class MenuResourceTest {
                 null,
                 "Stir Fry Chicken",
                 "stir fried chicken with veg",
-                12.99,
+                new BigDecimal("12.99"),
                 Set.of("Keto"));
 
             webSection.items = List.of(webItem);
@@ -94,7 +123,7 @@ class MenuResourceTest {
                 null,
                 "kale soup",
                 "kale mixed vegetable soup",
-                13.99,
+                new BigDecimal("13.99"),
                 Set.of("Vegetarian")
             );
 
@@ -102,7 +131,7 @@ class MenuResourceTest {
                 null,
                 "chicken soup",
                 "chicken carrots soup",
-                18.99,
+                new BigDecimal("18.99"),
                 Set.of("Vegetarian")
             );
 
@@ -116,7 +145,7 @@ class MenuResourceTest {
                 null,
                 "grilled shrimp",
                 "shrimp grilled in lemon butter sauce",
-                23.99,
+                new BigDecimal("23.99"),
                 Set.of("Keto")
             );
 
@@ -145,7 +174,7 @@ class MenuResourceTest {
                 null,
                 "kale soup",
                 "kale mixed vegetable soup",
-                13.99,
+                new BigDecimal("13.99"),
                 Set.of("Vegetarian")
             );
 
@@ -153,7 +182,7 @@ class MenuResourceTest {
                 null,
                 "chicken soup",
                 "chicken carrots soup",
-                18.99,
+                new BigDecimal("18.99"),
                 Set.of("Vegetarian")
             );
 
@@ -177,7 +206,7 @@ class MenuResourceTest {
                 null,
                 "kale soup",
                 "kale mixed vegetable soup",
-                13.99,
+                new BigDecimal("13.99"),
                 Set.of("Vegetarian")
             );
 
@@ -185,7 +214,7 @@ class MenuResourceTest {
                 null,
                 "chicken soup",
                 "chicken carrots soup",
-                18.99,
+                new BigDecimal("18.99"),
                 Set.of("Vegetarian")
             );
 
@@ -199,7 +228,7 @@ class MenuResourceTest {
                 null,
                 "grilled shrimp",
                 "shrimp grilled in lemon butter sauce",
-                23.99,
+                new BigDecimal("23.99"),
                 Set.of("Keto")
             );
 
@@ -233,7 +262,7 @@ class MenuResourceTest {
                 null,
                 "kale soup",
                 "kale mixed vegetable soup",
-                13.99,
+                new BigDecimal("13.99"),
                 Set.of("Vegetarian")
             );
 
@@ -241,7 +270,7 @@ class MenuResourceTest {
                 null,
                 "chicken soup",
                 "chicken carrots soup",
-                18.99,
+                new BigDecimal("18.99"),
                 Set.of("Vegetarian")
             );
 
@@ -252,6 +281,7 @@ class MenuResourceTest {
 
             // when
             put("/menus/1", 200, webMenu);
+            assertQueriesAtMost(14);
 
             // then
             WebMenu webMenuAfter = get("/menus/1", 200, WebMenu.class);
@@ -402,4 +432,80 @@ class MenuResourceTest {
             delete("/menus?ids=100,200", 404);
         }
     }
-}
\ No newline at end of file
+
+    @Nested
+    @Transactional
+    class ConditionalGet extends AbstractResourceTest {
+        @Test
+        void answers_a_matching_if_none_match_without_loading_the_menu() {
+            // given
+            final String eTag = getHeader("/menus/1", 200, HttpHeaders.ETAG);
+
+            // when
+            final MockHttpServletResponse response = get("/menus/1", 304, HttpHeaders.IF_NONE_MATCH, eTag);
+            assertQueriesAtMost(1);
+
+            // then
+            assertThat(response.getHeader(HttpHeaders.ETAG)).isEqualTo(eTag);
+            assertThat(response.getHeaders(HttpHeaders.VARY)).containsExactly(HttpHeaders.ACCEPT_ENCODING);
+            assertThat(response.getContentLength()).isZero();
+        }
+
+        @Test
+        void changes_the_etag_when_an_item_of_the_menu_changes() {
+            // given
+            final String eTagBefore = getHeader("/menus/1", 200, HttpHeaders.ETAG);
+            final String otherMenuETagBefore = getHeader("/menus/2", 200, HttpHeaders.ETAG);
+
+            // when
+            put("/items/1", 200, WebItem.of(1, "thai papaya salad", "papaya salad in thai sauce", new BigDecimal("13.29"), Set.of("Keto")));
+
+            // then
+            final MockHttpServletResponse response = get("/menus/1", 200, HttpHeaders.IF_NONE_MATCH, eTagBefore);
+            assertThat(response.getHeader(HttpHeaders.ETAG)).isNotEqualTo(eTagBefore);
+            get("/menus/2", 304, HttpHeaders.IF_NONE_MATCH, otherMenuETagBefore);
+        }
+
+        @Test
+        void fails_to_get_the_version_of_a_non_existing_menu() {
+            // given/when
+            final WebError webError = get("/menus/100", 404, WebError.class);
+
+            // then
+            assertThat(webError.errorMessage).contains("menu id 100 does not exist");
+        }
+    }
+
+    /**
+     * Reads only, outside a test transaction, so the encoded responses are committed to the cache.
+     */
+    @Nested
+    class ResponseCaching extends AbstractResourceTest {
+        @Test
+        void serves_a_repeated_read_from_encoded_bytes() {
+            // given
+            final String json = getText("/menus/1?depth=sections", 200);
+
+            // when
+            final String cachedJson = getText("/menus/1?depth=sections", 200);
+            assertQueriesAtMost(1);
+
+            // then
+            assertThat(cachedJson).isEqualTo(json).contains("Simple Menu", "Salad Section");
+        }
+
+        @Test
+        void serves_gzip_encoded_bytes_to_clients_accepting_them() throws IOException {
+            // when
+            final MockHttpServletResponse response = get("/menus/1", 200, HttpHeaders.ACCEPT_ENCODING, "gzip");
+
+            // then
+            assertThat(response.getHeader(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+            assertThat(response.getHeaders(HttpHeaders.VARY)).containsExactly(HttpHeaders.ACCEPT_ENCODING);
+            assertThat(response.getHeader(HttpHeaders.ETAG)).endsWith("-gzip\"");
+            try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(response.getContentAsByteArray()))) {
+                assertThat(new String(gzip.readAllBytes(), UTF_8)).contains("Simple Menu", "thai papaya salad");
+            }
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.claire.firstspring.web;
+
+import com.claire.firstspring.web.model.WebCacheStats;
+import com.claire.firstspring.web.model.WebItem;
+import com.claire.firstspring.web.model.WebMenu;
+import com.claire.firstspring.web.model.WebPoolMetrics;
+import com.claire.firstspring.web.model.WebRestaurant;
+import com.claire.firstspring.web.model.WebTimer;
+import com.fasterxml.jackson.core.type.TypeReference;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MetricsResourceTest {
+    private static final TypeReference<List<WebTimer>> WEB_TIMER_LIST_TYPE_REFERENCE = new TypeReference<>() {
+    };
+
+    @Nested
+    @Transactional
+    class Pool extends AbstractResourceTest {
+
+        @Test
+        void can_get_connection_pool_metrics() {
+            // given
+            get("/restaurants/1", 200, WebRestaurant.class);
+
+            // when
+            WebPoolMetrics webPoolMetrics = get("/metrics/pool", 200, WebPoolMetrics.class);
+
+            // then
+            assertThat(webPoolMetrics.acquisitions).isPositive();
+            assertThat(webPoolMetrics.maxConnections).isPositive();
+            assertThat(webPoolMetrics.timeouts).isZero();
+            assertThat(webPoolMetrics.utilisation).isBetween(0.0, 1.0);
+        }
+    
+        @Test
+        void can_get_feature_dictionary_stats() {
+            // given
+            get("/items/4", 200, WebItem.class);
+
+            // when
+            WebCacheStats webCacheStats = get("/metrics/feature-dictionary", 200, WebCacheStats.class);
+
+            // then
+            assertThat(webCacheStats.hits).isPositive();
+            assertThat(webCacheStats.size).isPositive();
+        }
+    }
+
+    /**
+     * Reads only, outside a test transaction, so loaded menus are kept in the cache.
+     */
+    @Nested
+    class Caches extends AbstractResourceTest {
+        @Test
+        void can_get_menu_cache_stats() {
+            // given
+            // single menu reads are answered from encoded bytes, lists of menus by id go through the menu cache
+            get("/menus?ids=1", 200, new TypeReference<List<WebMenu>>() {
+            });
+            get("/menus?ids=1", 200, new TypeReference<List<WebMenu>>() {
+            });
+
+            // when
+            WebCacheStats webCacheStats = get("/metrics/menu-cache", 200, WebCacheStats.class);
+
+            // then
+            assertThat(webCacheStats.hits).isPositive();
+            assertThat(webCacheStats.size).isPositive();
+        }
+    }
+
+    @Nested
+    @Transactional
+    class Timings extends AbstractResourceTest {
+
+        @Test
+        void can_get_endpoint_latencies_and_statement_counts() {
+            // given
+            get("/restaurants/1", 200, WebRestaurant.class);
+
+            // when
+            List<WebTimer> webTimers = get("/metrics/endpoints", 200, WEB_TIMER_LIST_TYPE_REFERENCE);
+
+            // then
+            WebTimer restaurantTimer = webTimers.stream()
+                .filter(webTimer -> webTimer.name.equals("GET /restaurants/{restaurant-id}"))
+                .findFirst()
+                .orElseThrow();
+            assertThat(restaurantTimer.count).isPositive();
+            assertThat(restaurantTimer.maxMillis).isPositive();
+            assertThat(restaurantTimer.maxStatements).isPositive();
+        }
+
+        @Test
+        void can_get_service_and_repository_method_latencies() {
+            // given
+            get("/restaurants/1", 200, WebRestaurant.class);
+
+            // when
+            List<WebTimer> webTimers = get("/metrics/methods", 200, WEB_TIMER_LIST_TYPE_REFERENCE);
+
+            // then
+            assertThat(webTimers.stream().map(webTimer -> webTimer.name))
+                .contains("RestaurantService.get", "RestaurantRepository.restaurant");
+        }
+
+        @Test
+        void can_scrape_all_metrics() {
+            // given
+            get("/restaurants/1", 200, WebRestaurant.class);
+
+            // when
+            String scrape = getText("/metrics/scrape", 200);
+
+            // then
+            assertThat(scrape)
+                .contains("http_server_requests_seconds_count{endpoint=\"GET /restaurants/{restaurant-id}\"}")
+                .contains("method_calls_seconds_bucket{method=\"RestaurantService.get\",le=\"+Inf\"}")
+                .contains("# TYPE sql_statements_total counter");
+        }
+    }
+}
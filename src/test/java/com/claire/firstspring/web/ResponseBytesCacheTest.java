@@ -0,0 +1,155 @@
+package com.claire.firstspring.web;
+
+import com.claire.firstspring.model.Depth;
+import com.claire.firstspring.web.model.WebMenu;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ResponseBytesCacheTest {
+    private final ResponseBytesCache responseBytesCache = new ResponseBytesCache(new ObjectMapper(), 1 << 20, true);
+    private final AtomicInteger encodings = new AtomicInteger();
+
+    @Test
+    void encodes_a_body_once_per_version() {
+        // when
+        final ResponseEntity<byte[]> first = menuResponse(new MockHttpServletRequest(), 7);
+        final ResponseEntity<byte[]> second = menuResponse(new MockHttpServletRequest(), 7);
+
+        // then
+        assertThat(encodings).hasValue(1);
+        assertThat(second.getBody()).isSameAs(first.getBody());
+        assertThat(new String(second.getBody())).contains("\"name\":\"Holiday Menu\"");
+        assertThat(second.getHeaders().getETag()).isEqualTo("\"2-7\"");
+        assertThat(responseBytesCache.hits()).isEqualTo(1);
+    }
+
+    @Test
+    void encodes_a_body_again_for_a_new_version() {
+        // given
+        menuResponse(new MockHttpServletRequest(), 7);
+
+        // when
+        menuResponse(new MockHttpServletRequest(), 8);
+        menuResponse(new MockHttpServletRequest(), 8);
+
+        // then
+        assertThat(encodings).hasValue(2);
+        assertThat(responseBytesCache.invalidations()).isEqualTo(1);
+        assertThat(responseBytesCache.size()).isEqualTo(1);
+    }
+
+    @Test
+    void serves_the_gzip_encoding_to_clients_accepting_it() throws IOException {
+        // given
+        final byte[] json = menuResponse(new MockHttpServletRequest(), 7).getBody();
+        final MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate");
+
+        // when
+        final ResponseEntity<byte[]> response = menuResponse(request, 7);
+
+        // then
+        assertThat(response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+        assertThat(response.getHeaders().getETag()).isEqualTo("\"2-7-gzip\"");
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(response.getBody()))) {
+            assertThat(gzip.readAllBytes()).isEqualTo(json);
+        }
+        assertThat(encodings).hasValue(1);
+    }
+
+    @Test
+    void answers_a_matching_if_none_match_without_encoding() {
+        // given
+        final MockHttpServletRequest request = new MockHttpServletRequest("GET", "/menus/2");
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, "\"2-7\"");
+
+        // when
+        final ResponseEntity<byte[]> response = menuResponse(request, 7);
+
+        // then
+        assertThat(response).isNull();
+        assertThat(encodings).hasValue(0);
+    }
+
+    @Test
+    void varies_a_not_modified_answer_by_encoding() {
+        // given
+        final MockHttpServletRequest request = new MockHttpServletRequest("GET", "/menus/2");
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, "\"2-7\"");
+        final MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // when
+        responseBytesCache.conditionalResponse(new ServletWebRequest(request, response), "menu", 2, 7, Depth.ITEMS, holidayMenu());
+
+        // then
+        assertThat(response.getStatus()).isEqualTo(304);
+        assertThat(response.getHeader(HttpHeaders.VARY)).isEqualTo(HttpHeaders.ACCEPT_ENCODING);
+    }
+
+    @Test
+    void does_not_keep_bodies_read_in_a_rolled_back_transaction() {
+        // given
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            menuResponse(new MockHttpServletRequest(), 7);
+            TransactionSynchronizationManager.getSynchronizations()
+                .forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        // when
+        menuResponse(new MockHttpServletRequest(), 7);
+
+        // then
+        assertThat(encodings).hasValue(2);
+    }
+
+    @Test
+    void reads_quality_values_of_accepted_encodings() {
+        assertThat(ResponseBytesCache.acceptsGzip("deflate, GZIP;q=0.5")).isTrue();
+        assertThat(ResponseBytesCache.acceptsGzip("*")).isTrue();
+        assertThat(ResponseBytesCache.acceptsGzip("gzip;q=0")).isFalse();
+        assertThat(ResponseBytesCache.acceptsGzip("gzip; q=0.0, *")).isFalse();
+        assertThat(ResponseBytesCache.acceptsGzip("identity")).isFalse();
+        assertThat(ResponseBytesCache.acceptsGzip(null)).isFalse();
+    }
+
+    private ResponseEntity<byte[]> menuResponse(MockHttpServletRequest request, long version) {
+        return responseBytesCache.conditionalResponse(
+            new ServletWebRequest(request),
+            "menu",
+            2,
+            version,
+            Depth.ITEMS,
+            holidayMenu()
+        );
+    }
+
+    private Supplier<WebMenu> holidayMenu() {
+        return () -> {
+            encodings.incrementAndGet();
+            final WebMenu webMenu = new WebMenu();
+            webMenu.id = 2;
+            webMenu.name = "Holiday Menu";
+            webMenu.sections = Set.of();
+            return webMenu;
+        };
+    }
+}
@@ -9,9 +9,12 @@ import com.fasterxml.jackson.core.type.TypeReference;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestTemplate;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletResponse;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.lang.reflect.Type;
+import java.math.BigDecimal;
 import java.util.Collections;
 import java.util.List;
 import java.util.Set;
@@ -30,6 +33,7 @@ class RestaurantResourceTest {
         void can_get_a_restaurant() {
             // given/when
             WebRestaurant webRestaurant = get("/restaurants/1", 200, WebRestaurant.class);
+            assertQueriesAtMost(6);
 
             // then
             assertThat(webRestaurant.name).contains("Ruth Steakhouse");
@@ -39,12 +43,44 @@ class RestaurantResourceTest {
         void can_get_a_list_of_restaurants() {
             // given/when
             List<WebRestaurant> webRestaurantList = get("/restaurants", 200, WEB_RESTAURANT_LIST_TYPE_REFERENCE);
+            assertQueriesAtMost(5);
 
             // then
             assertThat(webRestaurantList.stream().map(webRestaurant -> webRestaurant.name))
                 .contains("Ruth Steakhouse", "Sam Steakhouse");
         }
 
+        @Test
+        void can_get_a_page_of_restaurants() {
+            // given/when
+            List<WebRestaurant> webRestaurantList = get("/restaurants?size=1", 200, WEB_RESTAURANT_LIST_TYPE_REFERENCE);
+            String nextCursor = getHeader("/restaurants?size=1", 200, PageResponses.NEXT_CURSOR_HEADER);
+
+            // then
+            assertThat(webRestaurantList).extracting(webRestaurant -> webRestaurant.name)
+                .containsExactly("Ruth Steakhouse");
+            assertThat(nextCursor).isEqualTo("1");
+        }
+
+        @Test
+        void can_get_the_last_page_of_restaurants() {
+            // given/when
+            List<WebRestaurant> webRestaurantList = get("/restaurants?after=1", 200, WEB_RESTAURANT_LIST_TYPE_REFERENCE);
+            String nextCursor = getHeader("/restaurants?after=1", 200, PageResponses.NEXT_CURSOR_HEADER);
+
+            // then
+            assertThat(webRestaurantList).extracting(webRestaurant -> webRestaurant.name)
+                .containsExactly("Sam Steakhouse");
+            assertThat(nextCursor).isNull();
+        }
+
+        @Test
+        void fails_to_get_restaurants_with_a_too_large_page_size() {
+            // given/when
+            WebError webError = get("/restaurants?size=1001", 400, WebError.class);
+            assertThat(webError.errorMessage).contains("page size must be between 1 and 1000");
+        }
+
         @Test
         void fails_to_get_a_restaurants_with_a_non_existing_id() {
             // given/when
@@ -53,6 +89,62 @@ class RestaurantResourceTest {
         }
     }
 
+    @Nested
+    @Transactional
+    class Projections extends AbstractResourceTest {
+
+        @Test
+        void can_list_restaurants_without_their_menus() {
+            // when
+            final String json = getText("/restaurants?depth=restaurant", 200);
+            assertQueriesAtMost(1);
+
+            // then
+            assertThat(json).contains("Ruth Steakhouse", "Sam Steakhouse").doesNotContain("menus");
+        }
+
+        @Test
+        void can_get_a_restaurant_down_to_its_sections() {
+            // when
+            final WebRestaurant webRestaurant = get("/restaurants/1?depth=sections", 200, WebRestaurant.class);
+            assertQueriesAtMost(4);
+
+            // then
+            assertThat(webRestaurant.menus).extracting(webMenu -> webMenu.id).containsExactlyInAnyOrder(1, 2);
+            assertThat(webRestaurant.menus)
+                .flatExtracting(webMenu -> webMenu.sections)
+                .extracting(webSection -> webSection.name)
+                .isNotEmpty();
+            assertThat(webRestaurant.menus)
+                .flatExtracting(webMenu -> webMenu.sections)
+                .extracting(webSection -> webSection.items)
+                .containsOnlyNulls();
+        }
+
+        @Test
+        void tags_each_depth_of_a_restaurant_separately() {
+            // given
+            final String fullETag = getHeader("/restaurants/1", 200, HttpHeaders.ETAG);
+
+            // when
+            final String shallowETag = getHeader("/restaurants/1?depth=menus", 200, HttpHeaders.ETAG);
+
+            // then
+            assertThat(shallowETag).isNotEqualTo(fullETag);
+            get("/restaurants/1?depth=menus", 304, HttpHeaders.IF_NONE_MATCH, shallowETag);
+            get("/restaurants/1", 200, HttpHeaders.IF_NONE_MATCH, shallowETag);
+        }
+
+        @Test
+        void fails_to_list_restaurants_with_an_unknown_depth() {
+            // when
+            final WebError webError = get("/restaurants?depth=features", 400, WebError.class);
+
+            // then
+            assertThat(webError.errorMessage).contains("unknown depth [features]");
+        }
+    }
+
     @Nested
     @Transactional
     class Updating extends AbstractResourceTest {
@@ -190,6 +282,67 @@ class RestaurantResourceTest {
                 .contains("go surfing", "taste the difference");
         }
 
+        @Test
+        void can_create_restaurants_with_their_whole_tree_at_once() {
+            // given
+            WebRestaurant webRestaurant = new WebRestaurant();
+            webRestaurant.name = "chain location";
+            WebMenu webMenu = new WebMenu();
+            webMenu.name = "Lunch Menu";
+            webMenu.sections = Set.of(
+                WebSection.of(
+                    null,
+                    "Noodle Section",
+                    List.of(
+                        WebItem.of(null, "pad thai", "fried rice noodles", new BigDecimal("11.5"), Set.of("Keto")),
+                        WebItem.of(null, "pho", "beef noodle soup", new BigDecimal("12.5"), Set.of("Keto", "Low Fat"))
+                    )
+                )
+            );
+            webRestaurant.menus = List.of(webMenu);
+
+            // when
+            List<WebRestaurant> created = post("/restaurants", 200, List.of(webRestaurant), WEB_RESTAURANT_LIST_TYPE_REFERENCE);
+
+            // then
+            assertThat(created).hasSize(1);
+            assertThat(created.get(0).id).isNotNull();
+            WebRestaurant fetched = get("/restaurants/" + created.get(0).id, 200, WebRestaurant.class);
+            assertThat(fetched.name).isEqualTo("chain location");
+            assertThat(fetched.menus).extracting(menu -> menu.name).containsExactly("Lunch Menu");
+            WebSection fetchedSection = fetched.menus.get(0).sections.iterator().next();
+            assertThat(fetchedSection.name).isEqualTo("Noodle Section");
+            assertThat(fetchedSection.items)
+                .extracting(item -> item.name)
+                .containsExactlyInAnyOrder("pad thai", "pho");
+            assertThat(fetchedSection.items)
+                .filteredOn(item -> item.name.equals("pho"))
+                .flatExtracting(item -> item.features)
+                .containsExactlyInAnyOrder("Keto", "Low Fat");
+        }
+
+        @Test
+        void fails_to_create_restaurants_with_non_existing_features() {
+            // given
+            WebRestaurant webRestaurant = new WebRestaurant();
+            webRestaurant.name = "unknown features";
+            WebMenu webMenu = new WebMenu();
+            webMenu.name = "Lunch Menu";
+            webMenu.sections = Set.of(
+                WebSection.of(null, "Noodle Section", List.of(WebItem.of(null, "pad thai", "noodles", new BigDecimal("11.5"), Set.of("Umami"))))
+            );
+            webRestaurant.menus = List.of(webMenu);
+
+            // when
+            WebError webError = post("/restaurants", 404, List.of(webRestaurant), new TypeReference<WebError>() {});
+
+            // then
+            assertThat(webError.errorMessage).contains("feature with feature name Umami does not exist");
+            assertThat(get("/restaurants", 200, WEB_RESTAURANT_LIST_TYPE_REFERENCE))
+                .extracting(restaurant -> restaurant.name)
+                .doesNotContain("unknown features");
+        }
+
         @Test
         void can_create_menus_with_restaurant_id() {
             // given
@@ -280,4 +433,35 @@ class RestaurantResourceTest {
         }
     }
 
-}
\ No newline at end of file
+    @Nested
+    @Transactional
+    class ConditionalGet extends AbstractResourceTest {
+        @Test
+        void answers_a_matching_if_none_match_without_loading_the_restaurant() {
+            // given
+            final String eTag = getHeader("/restaurants/1", 200, HttpHeaders.ETAG);
+
+            // when
+            final MockHttpServletResponse response = get("/restaurants/1", 304, HttpHeaders.IF_NONE_MATCH, eTag);
+            assertQueriesAtMost(1);
+
+            // then
+            assertThat(response.getHeader(HttpHeaders.ETAG)).isEqualTo(eTag);
+        }
+
+        @Test
+        void changes_the_etag_when_a_menu_is_added() {
+            // given
+            final String eTagBefore = getHeader("/restaurants/2", 200, HttpHeaders.ETAG);
+            final WebMenu webMenu = new WebMenu();
+            webMenu.name = "Brunch Menu";
+            webMenu.sections = Set.of();
+
+            // when
+            post("/restaurants/2/menus", 200, List.of(webMenu));
+
+            // then
+            assertThat(getHeader("/restaurants/2", 200, HttpHeaders.ETAG)).isNotEqualTo(eTagBefore);
+        }
+    }
+}
@@ -8,6 +8,7 @@ import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
 import java.util.List;
 import java.util.Set;
 
@@ -24,6 +25,7 @@ class SectionResourceTest {
         void can_get_a_section() {
             // when
             final WebSection webSection = get("/sections/1", 200, WebSection.class);
+            assertQueriesAtMost(4);
 
             // then
             assertThat(webSection.name).contains("Salad Section");
@@ -34,6 +36,7 @@ class SectionResourceTest {
         void can_get_a_list_of_sections() {
             // when
             List<WebSection> sectionList = get("/sections", 200, WEB_SECTION_LIST_TYPE_REFERENCE);
+            assertQueriesAtMost(3);
 
             // then
             assertThat(sectionList.stream().map(webSection -> webSection.name))
@@ -49,6 +52,16 @@ class SectionResourceTest {
             assertThat(webError.errorMessage).contains("section id 100 does not exist");
         }
 
+        @Test
+        void can_get_a_section_without_its_items() {
+            // when
+            final String json = getText("/sections/1?depth=section", 200);
+            assertQueriesAtMost(3);
+
+            // then
+            assertThat(json).contains("Salad Section").doesNotContain("items", "thai papaya salad");
+        }
+
     }
 
     @Nested
@@ -66,7 +79,7 @@ class SectionResourceTest {
                 null,
                 newName,
                 "sweet corn and veg in soup",
-                12.99,
+                new BigDecimal("12.99"),
                 Set.of("Keto", "Vegetarian")
             );
 
@@ -84,17 +97,18 @@ class SectionResourceTest {
             WebItem webItem1 = new WebItem();
             webItem1.name = "sweet corn soup";
             webItem1.description = "sweet corn and veg in soup";
-            webItem1.price = 12.99;
+            webItem1.price = new BigDecimal("12.99");
             webItem1.features = Set.of("Keto", "Vegetarian");
 
             WebItem webItem2 = new WebItem();
             webItem2.name = "chicken salad";
             webItem2.description = "sesame chicken in salad green";
-            webItem2.price = 16.99;
+            webItem2.price = new BigDecimal("16.99");
             webItem2.features = Set.of("Keto");
 
             // when
             post("/sections/2/items", 200, List.of(webItem1, webItem2));
+            assertQueriesAtMost(11);
 
             // then
             WebSection webSection = get("/sections/2", 200, WebSection.class);
@@ -109,7 +123,7 @@ class SectionResourceTest {
             WebItem newWebItem = new WebItem();
             newWebItem.name = "beef salad";
             newWebItem.description = "beef in green";
-            newWebItem.price = 23.99;
+            newWebItem.price = new BigDecimal("23.99");
             newWebItem.features = Set.of("Keto");
 
             // when/then
@@ -122,13 +136,13 @@ class SectionResourceTest {
             WebItem webItem1 = new WebItem();
             webItem1.name = "beef salad";
             webItem1.description = "beef in green";
-            webItem1.price = 23.99;
+            webItem1.price = new BigDecimal("23.99");
             webItem1.features = Set.of("Keto");
 
             WebItem webItem2 = new WebItem();
             webItem2.name = "chicken salad";
             webItem2.description = "chicken in green";
-            webItem2.price = 20.99;
+            webItem2.price = new BigDecimal("20.99");
             webItem2.features = Set.of("Keto");
 
             // when
@@ -141,7 +155,7 @@ class SectionResourceTest {
             WebItem webItem1 = new WebItem();
             webItem1.name = "beef salad";
             webItem1.description = "beef in green";
-            webItem1.price = 23.99;
+            webItem1.price = new BigDecimal("23.99");
             webItem1.features = Set.of("Keto");
 
             // when
@@ -154,13 +168,13 @@ class SectionResourceTest {
             WebItem webItem1 = new WebItem();
             webItem1.name = "beef salad";
             webItem1.description = "beef in green";
-            webItem1.price = 23.99;
+            webItem1.price = new BigDecimal("23.99");
             webItem1.features = Set.of("Keto");
 
             WebItem webItem2 = new WebItem();
             webItem2.name = "salad";
             webItem2.description = "greek green";
-            webItem2.price = 13.99;
+            webItem2.price = new BigDecimal("13.99");
             webItem2.features = Set.of("Vegetarian");
 
             // when
@@ -254,4 +268,22 @@ class SectionResourceTest {
         }
     }
 
-}
\ No newline at end of file
+    /**
+     * Reads only, outside a test transaction, so the encoded responses are committed to the cache.
+     */
+    @Nested
+    class ResponseCaching extends AbstractResourceTest {
+        @Test
+        void serves_a_repeated_read_from_encoded_bytes() {
+            // given
+            final String json = getText("/sections/1", 200);
+
+            // when
+            final String cachedJson = getText("/sections/1", 200);
+            assertQueriesAtMost(1);
+
+            // then
+            assertThat(cachedJson).isEqualTo(json).contains("Salad Section", "thai papaya salad");
+        }
+    }
+}